@@ -24,6 +24,7 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.MultiGauge;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.netty.buffer.ByteBufAllocatorMetricProvider;
 import io.stargate.db.ClientInfo;
 import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
@@ -41,7 +42,9 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.cassandra.metrics.DefaultNameFactory;
 import org.apache.cassandra.stargate.transport.internal.CBUtil;
+import org.apache.cassandra.stargate.transport.internal.Message;
 import org.apache.cassandra.stargate.transport.internal.Server;
+import org.apache.cassandra.stargate.transport.internal.UserPayloadTracker;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +65,7 @@ public final class ClientMetrics {
   private static final String AUTH_SUCCESS_METRIC;
   private static final String AUTH_FAILURE_METRIC;
   private static final String AUTH_ERROR_METRIC;
+  private static final String REQUEST_LATENCY_METRIC;
 
   // init to avoid re-computing on each record
   static {
@@ -70,6 +74,7 @@ public final class ClientMetrics {
     AUTH_SUCCESS_METRIC = metric("AuthSuccess");
     AUTH_FAILURE_METRIC = metric("AuthFailure");
     AUTH_ERROR_METRIC = metric("AuthError");
+    REQUEST_LATENCY_METRIC = metric("RequestLatency");
   }
 
   // initialized state
@@ -88,8 +93,13 @@ public final class ClientMetrics {
   private Counter totalBytesWritten;
   private DistributionSummary bytesReceivedPerFrame;
   private DistributionSummary bytesTransmittedPerFrame;
+  private Counter flushes;
+  private DistributionSummary messagesPerFlush;
+  private Counter userLimitReached;
   private MultiGauge connectedNativeClients;
   private MultiGauge connectedNativeClientsByUser;
+  private MultiGauge requestsInFlightByUser;
+  private MultiGauge requestBytesInFlightByUser;
 
   private ClientMetrics() {}
 
@@ -117,6 +127,21 @@ public final class ClientMetrics {
     bytesTransmittedPerFrame.record(value);
   }
 
+  /** Records a flush of the responses queued on an event loop. */
+  public void recordFlush(int messages) {
+    flushes.increment();
+    messagesPerFlush.record(messages);
+  }
+
+  /**
+   * Marks a request that exceeded the in-flight limits of its user (and was either discarded, or
+   * paused its connection). The user is not tagged: a counter would keep every role name that ever
+   * hit the limit, see {@code RequestsInFlightByUser} for the per-user breakdown.
+   */
+  public void markUserLimitReached() {
+    userLimitReached.increment();
+  }
+
   public ConnectionMetrics connectionMetrics(ClientInfo clientInfo) {
     if (!initialized) {
       throw new IllegalStateException("Client metrics not initialized yet.");
@@ -157,6 +182,10 @@ public final class ClientMetrics {
         MultiGauge.builder(metric("connectedNativeClients")).register(meterRegistry);
     connectedNativeClientsByUser =
         MultiGauge.builder(metric("connectedNativeClientsByUser")).register(meterRegistry);
+    requestsInFlightByUser =
+        MultiGauge.builder(metric("RequestsInFlightByUser")).register(meterRegistry);
+    requestBytesInFlightByUser =
+        MultiGauge.builder(metric("RequestBytesInFlightByUser")).register(meterRegistry);
 
     pausedConnections =
         meterRegistry.gauge(metric("PausedConnections"), Tags.empty(), new AtomicInteger(0));
@@ -167,6 +196,11 @@ public final class ClientMetrics {
     bytesReceivedPerFrame = meterRegistry.summary(metric("BytesReceivedPerFrame"));
     bytesTransmittedPerFrame = meterRegistry.summary(metric("BytesTransmittedPerFrame"));
 
+    flushes = meterRegistry.counter(metric("Flushes"));
+    messagesPerFlush = meterRegistry.summary(metric("MessagesPerFlush"));
+
+    userLimitReached = meterRegistry.counter(metric("UserLimitReached"));
+
     initialized = true;
 
     // if we have the positive period, init the executor service and submit the update task
@@ -184,6 +218,7 @@ public final class ClientMetrics {
             try {
               updateConnectedClients();
               updateConnectedClientsByUser();
+              updateInFlightByUser();
             } catch (Exception e) {
               logger.warn("Error updating the connected client metrics.");
             }
@@ -253,6 +288,25 @@ public final class ClientMetrics {
         connectedNativeClientsByUser, counts, username -> Tags.of("username", username));
   }
 
+  void updateInFlightByUser() {
+    if (!UserPayloadTracker.isEnabled()) {
+      return;
+    }
+    Map<String, Long> requests = new HashMap<>();
+    Map<String, Long> bytes = new HashMap<>();
+    UserPayloadTracker.all()
+        .forEach(
+            (username, tracker) -> {
+              requests.put(username, tracker.requestsInFlight());
+              bytes.put(username, tracker.bytesInFlight());
+            });
+
+    recordMapToMultiGauge(
+        requestsInFlightByUser, requests, username -> Tags.of("username", username));
+    recordMapToMultiGauge(
+        requestBytesInFlightByUser, bytes, username -> Tags.of("username", username));
+  }
+
   private <T> void recordMapToMultiGauge(
       MultiGauge gauge, Map<T, ? extends Number> source, Function<T, Tags> tagsFunction) {
     List<MultiGauge.Row<?>> rows =
@@ -283,6 +337,8 @@ public final class ClientMetrics {
     private final Counter authSuccess;
     private final Counter authFailure;
     private final Counter authError;
+    // Created lazily, there is one timer per request opcode
+    private final Timer[] requestLatencies = new Timer[Message.Type.values().length];
 
     public ConnectionMetricsImpl(ClientInfo clientInfo) {
       tags =
@@ -322,6 +378,21 @@ public final class ClientMetrics {
       authError.increment();
     }
 
+    @Override
+    public void recordRequestLatency(Message.Type requestType, long latencyNanos) {
+      Timer timer = requestLatencies[requestType.ordinal()];
+      if (timer == null) {
+        timer =
+            Timer.builder(REQUEST_LATENCY_METRIC)
+                .tags(tags)
+                .tag("opcode", requestType.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        requestLatencies[requestType.ordinal()] = timer;
+      }
+      timer.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
     @Override
     public Tags getTags() {
       return tags;
@@ -18,6 +18,7 @@
 package org.apache.cassandra.stargate.metrics;
 
 import io.micrometer.core.instrument.Tags;
+import org.apache.cassandra.stargate.transport.internal.Message;
 
 /** Interface that each connection can use to report metric or determine it Tags. */
 public interface ConnectionMetrics {
@@ -39,4 +40,10 @@ public interface ConnectionMetrics {
 
   /** Marks auth error (increases the count). */
   void markAuthError();
+
+  /**
+   * Records the latency of a request, from the moment it was decoded to the moment its response was
+   * written.
+   */
+  void recordRequestLatency(Message.Type requestType, long latencyNanos);
 }
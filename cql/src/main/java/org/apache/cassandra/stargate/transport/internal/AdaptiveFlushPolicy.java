@@ -0,0 +1,74 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether the adaptive flusher of {@link Message.Dispatcher} flushes immediately, or keeps
+ * coalescing responses.
+ *
+ * <p>The load is estimated with a moving average of the number of messages per flush: with
+ * immediate flushes, that's the depth of the queue when the flusher gets to run. While coalescing,
+ * the flusher polls the queue at short intervals, and flushes as soon as a poll finds nothing new,
+ * the batch gets too big or the maximum delay is reached. So under a light load, a coalesced batch
+ * is small, which brings the average down and switches back to immediate flushes.
+ *
+ * <p>This class is not thread-safe, it is only used from the event loop of its flusher.
+ */
+class AdaptiveFlushPolicy {
+
+  /** Returned by {@link #nextPollDelayNanos} when the pending responses must be flushed now. */
+  static final long FLUSH_NOW = -1;
+
+  // Weight of the latest flush in the moving average
+  static final double ALPHA = 0.2;
+  static final long POLL_INTERVAL_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+  static final int MAX_BATCH_SIZE = 50;
+
+  private final double coalesceThreshold;
+  private final long maxDelayNanos;
+
+  private double averageBatchSize;
+
+  AdaptiveFlushPolicy(double coalesceThreshold, long maxDelayNanos) {
+    this.coalesceThreshold = coalesceThreshold;
+    this.maxDelayNanos = maxDelayNanos;
+  }
+
+  /**
+   * @param newItems whether the latest poll of the queue found new responses.
+   * @param batchSize the number of responses written but not flushed yet.
+   * @param pendingNanos how long the oldest of those responses has been waiting.
+   * @return the delay before the next poll of the queue, or {@link #FLUSH_NOW}.
+   */
+  long nextPollDelayNanos(boolean newItems, int batchSize, long pendingNanos) {
+    if (!newItems || !isCoalescing() || batchSize >= MAX_BATCH_SIZE) {
+      return FLUSH_NOW;
+    }
+    long remainingNanos = maxDelayNanos - pendingNanos;
+    return remainingNanos > 0 ? Math.min(remainingNanos, POLL_INTERVAL_NANOS) : FLUSH_NOW;
+  }
+
+  /** Records a flush of {@code batchSize} responses. */
+  void flushed(int batchSize) {
+    averageBatchSize += ALPHA * (batchSize - averageBatchSize);
+  }
+
+  boolean isCoalescing() {
+    return averageBatchSize >= coalesceThreshold;
+  }
+}
@@ -29,6 +29,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import io.stargate.db.ClientInfo;
@@ -60,6 +61,7 @@ import org.apache.cassandra.net.ResourceLimits;
 import org.apache.cassandra.service.ClientWarn;
 import org.apache.cassandra.stargate.exceptions.OverloadedException;
 import org.apache.cassandra.stargate.metrics.ClientMetrics;
+import org.apache.cassandra.stargate.metrics.ConnectionMetrics;
 import org.apache.cassandra.stargate.transport.ProtocolException;
 import org.apache.cassandra.stargate.transport.ProtocolVersion;
 import org.apache.cassandra.stargate.transport.internal.messages.AuthChallenge;
@@ -229,6 +231,10 @@ public abstract class Message {
 
   public abstract static class Request extends Message {
     private boolean tracingRequested;
+    /** The user the request was accounted to by the dispatcher, if any. */
+    private UserPayloadTracker userPayloadTracker;
+    /** When the request was decoded, for the latency metrics. */
+    private long decodedAtNanos;
 
     protected Request(Type type) {
       super(type);
@@ -246,6 +252,10 @@ public abstract class Message {
       return tracingRequested;
     }
 
+    void setDecodedAtNanos(long decodedAtNanos) {
+      this.decodedAtNanos = decodedAtNanos;
+    }
+
     protected Parameters makeParameters(QueryOptions options) {
       return ImmutableParameters.builder()
           .consistencyLevel(options.getConsistency())
@@ -351,6 +361,7 @@ public abstract class Message {
             }
           }
           req.attach(connection);
+          req.setDecodedAtNanos(System.nanoTime());
           if (isTracing) {
             req.setTracingRequested();
           }
@@ -473,12 +484,21 @@ public abstract class Message {
       final ChannelHandlerContext ctx;
       final Object response;
       final long bodySizeInBytes;
+      final UserPayloadTracker userPayloadTracker;
+      final Type requestType;
+      final long decodedAtNanos;
+      final ConnectionMetrics connectionMetrics;
       final Dispatcher dispatcher;
 
       private FlushItem(
-          ChannelHandlerContext ctx, Object response, long bodySizeInBytes, Dispatcher dispatcher) {
+          ChannelHandlerContext ctx, Object response, Request request, Dispatcher dispatcher) {
         this.ctx = ctx;
-        this.bodySizeInBytes = bodySizeInBytes;
+        this.bodySizeInBytes = request.getSourceFrameBodySizeInBytes();
+        this.userPayloadTracker = request.userPayloadTracker;
+        this.requestType = request.type;
+        this.decodedAtNanos = request.decodedAtNanos;
+        this.connectionMetrics =
+            request.connection() == null ? null : request.connection().getConnectionMetrics();
         this.response = response;
         this.dispatcher = dispatcher;
       }
@@ -529,6 +549,7 @@ public abstract class Message {
         runsSinceFlush++;
 
         if (!doneWork || runsSinceFlush > 2 || flushed.size() > 50) {
+          if (!flushed.isEmpty()) ClientMetrics.instance.recordFlush(flushed.size());
           for (ChannelHandlerContext channel : channels) channel.flush();
           for (FlushItem item : flushed) item.release();
 
@@ -570,15 +591,93 @@ public abstract class Message {
         }
 
         if (doneWork) {
+          ClientMetrics.instance.recordFlush(flushed.size());
+          for (ChannelHandlerContext channel : channels) channel.flush();
+          for (FlushItem item : flushed) item.release();
+
+          channels.clear();
+          flushed.clear();
+        }
+      }
+    }
+
+    /**
+     * Flushes immediately when the event loop is lightly loaded, and coalesces the responses for a
+     * short, bounded delay when it is busy. See {@link AdaptiveFlushPolicy} for how it switches
+     * between the two.
+     *
+     * <p>While coalescing, the queue is polled every {@link
+     * AdaptiveFlushPolicy#POLL_INTERVAL_NANOS}. Only the epoll transport can schedule tasks with
+     * that precision: the NIO selector takes its timeouts in milliseconds, so a scheduled poll
+     * would wait about 1 ms, way past the maximum delay. On other event loops, the flusher
+     * re-submits itself instead, which polls again once the pending I/O and tasks of the loop have
+     * been processed.
+     */
+    private static final class AdaptiveFlusher extends Flusher {
+      private final AdaptiveFlushPolicy policy;
+      private final boolean preciseTimers;
+
+      private long pendingSinceNanos;
+
+      private AdaptiveFlusher(EventLoop eventLoop, double coalesceThreshold, long maxDelayNanos) {
+        super(eventLoop);
+        this.policy = new AdaptiveFlushPolicy(coalesceThreshold, maxDelayNanos);
+        this.preciseTimers = eventLoop.parent() instanceof EpollEventLoopGroup;
+      }
+
+      @Override
+      public void run() {
+        boolean doneWork = false;
+        FlushItem flush;
+        while (null != (flush = queued.poll())) {
+          if (flushed.isEmpty()) {
+            pendingSinceNanos = System.nanoTime();
+          }
+          channels.add(flush.ctx);
+          flush.ctx.write(flush.response, flush.ctx.voidPromise());
+          flushed.add(flush);
+          doneWork = true;
+        }
+
+        long delayNanos =
+            policy.nextPollDelayNanos(
+                doneWork, flushed.size(), System.nanoTime() - pendingSinceNanos);
+        if (delayNanos != AdaptiveFlushPolicy.FLUSH_NOW) {
+          // Stay scheduled, new items will be picked up by the next poll
+          if (preciseTimers) {
+            eventLoop.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+          } else {
+            eventLoop.execute(this);
+          }
+          return;
+        }
+
+        if (!flushed.isEmpty()) {
+          policy.flushed(flushed.size());
+          ClientMetrics.instance.recordFlush(flushed.size());
           for (ChannelHandlerContext channel : channels) channel.flush();
           for (FlushItem item : flushed) item.release();
 
           channels.clear();
           flushed.clear();
         }
+
+        scheduled.set(false);
+        if (!queued.isEmpty() && scheduled.compareAndSet(false, true)) {
+          eventLoop.execute(this);
+        }
       }
     }
 
+    private static final boolean USE_ADAPTIVE_FLUSHER =
+        Boolean.getBoolean("stargate.cql.adaptive_flusher");
+    private static final double ADAPTIVE_FLUSHER_COALESCE_THRESHOLD =
+        Double.parseDouble(
+            System.getProperty("stargate.cql.adaptive_flusher.coalesce_threshold", "4"));
+    private static final long ADAPTIVE_FLUSHER_MAX_DELAY_NANOS =
+        TimeUnit.MICROSECONDS.toNanos(
+            Long.getLong("stargate.cql.adaptive_flusher.max_delay_micros", 50));
+
     private static final ConcurrentMap<EventLoop, Flusher> flusherLookup =
         new ConcurrentHashMap<>();
 
@@ -642,10 +741,52 @@ public abstract class Message {
         }
       }
 
+      UserPayloadTracker userPayloadTracker = userPayloadTracker(request);
+      if (userPayloadTracker != null && !userPayloadTracker.tryAllocate(frameSize)) {
+        Connection connection = request.connection;
+        ClientMetrics.instance.markUserLimitReached();
+        if (connection.isThrowOnOverload()) {
+          // undo the endpoint allocation, since the request won't be released through a FlushItem
+          endpointAndGlobalPayloadsInFlight.release(frameSize);
+          connection.getConnectionMetrics().markRequestDiscarded();
+          logger.trace(
+              "Discarded request of size: {}. InflightUserRequests: {}, InflightUserRequestPayload: {}, Request: {}",
+              frameSize,
+              userPayloadTracker.requestsInFlight(),
+              userPayloadTracker.bytesInFlight(),
+              request);
+          throw ErrorMessage.wrap(
+              new OverloadedException(
+                  "Too many requests in flight for this user. Cannot accept more requests at this point"),
+              request.getStreamId());
+        } else {
+          // same as above: set backpressure on the channel, and handle the request
+          userPayloadTracker.allocate(frameSize);
+          if (!paused) {
+            ctx.channel().config().setAutoRead(false);
+            ClientMetrics.instance.pauseConnection();
+            paused = true;
+          }
+        }
+      }
+      request.userPayloadTracker = userPayloadTracker;
+
       channelPayloadBytesInFlight += frameSize;
       return true;
     }
 
+    /** The tracker of the user that is logged in on the request's connection, if any. */
+    private static UserPayloadTracker userPayloadTracker(Request request) {
+      if (!UserPayloadTracker.isEnabled() || !(request.connection instanceof ServerConnection)) {
+        return null;
+      }
+      return ((ServerConnection) request.connection)
+          .persistenceConnection()
+          .loggedUser()
+          .map(user -> UserPayloadTracker.get(user.name()))
+          .orElse(null);
+    }
+
     /**
      * Note: this method will be used in the {@link Flusher#run()}, which executes on the netty
      * event loop ({@link Dispatcher#flusherLookup}). Thus, we assume the semantics and visibility
@@ -654,11 +795,21 @@ public abstract class Message {
     private void releaseItem(FlushItem item) {
       long itemSize = item.bodySizeInBytes;
 
+      // the response has been written, so the request is complete
+      if (item.connectionMetrics != null) {
+        item.connectionMetrics.recordRequestLatency(
+            item.requestType, System.nanoTime() - item.decodedAtNanos);
+      }
+
       // since the request has been processed, decrement inflight payload at channel, endpoint and
       // global levels
       channelPayloadBytesInFlight -= itemSize;
       ResourceLimits.Outcome endpointGlobalReleaseOutcome =
           endpointPayloadTracker.endpointAndGlobalPayloadsInFlight.release(itemSize);
+      ResourceLimits.Outcome userReleaseOutcome =
+          item.userPayloadTracker == null
+              ? ResourceLimits.Outcome.BELOW_LIMIT
+              : item.userPayloadTracker.release(itemSize);
 
       // now check to see if we need to reenable the channel's autoRead.
       // If the current payload side is zero, we must reenable autoread as
@@ -668,7 +819,8 @@ public abstract class Message {
       ChannelConfig config = item.ctx.channel().config();
       if (paused
           && (channelPayloadBytesInFlight == 0
-              || endpointGlobalReleaseOutcome == ResourceLimits.Outcome.BELOW_LIMIT)) {
+              || (endpointGlobalReleaseOutcome == ResourceLimits.Outcome.BELOW_LIMIT
+                  && userReleaseOutcome == ResourceLimits.Outcome.BELOW_LIMIT))) {
         paused = false;
         ClientMetrics.instance.unpauseConnection();
         config.setAutoRead(true);
@@ -704,8 +856,7 @@ public abstract class Message {
                   connection.applyStateTransition(request.type, response.type);
 
                   logger.trace("Responding: {}, v={}", response, connection.getVersion());
-                  flush(
-                      new FlushItem(ctx, response, request.getSourceFrameBodySizeInBytes(), this));
+                  flush(new FlushItem(ctx, response, request, this));
                 } catch (Throwable t) {
                   // after adding the item to the queue
                   // JVMStabilityInspector.inspectThrowable(t); // TODO
@@ -739,7 +890,7 @@ public abstract class Message {
             new Message.Dispatcher.FlushItem(
                 ctx,
                 ErrorMessage.fromException(error, handler).setStreamId(request.getStreamId()),
-                request.getSourceFrameBodySizeInBytes(),
+                request,
                 this));
       } catch (Throwable t) {
         // adding the item to the queue
@@ -768,7 +919,7 @@ public abstract class Message {
       EventLoop loop = item.ctx.channel().eventLoop();
       Flusher flusher = flusherLookup.get(loop);
       if (flusher == null) {
-        Flusher created = useLegacyFlusher ? new LegacyFlusher(loop) : new ImmediateFlusher(loop);
+        Flusher created = newFlusher(loop);
         Flusher alt = flusherLookup.putIfAbsent(loop, flusher = created);
         if (alt != null) flusher = alt;
       }
@@ -777,6 +928,16 @@ public abstract class Message {
       flusher.start();
     }
 
+    private Flusher newFlusher(EventLoop loop) {
+      if (useLegacyFlusher) {
+        return new LegacyFlusher(loop);
+      }
+      return USE_ADAPTIVE_FLUSHER
+          ? new AdaptiveFlusher(
+              loop, ADAPTIVE_FLUSHER_COALESCE_THRESHOLD, ADAPTIVE_FLUSHER_MAX_DELAY_NANOS)
+          : new ImmediateFlusher(loop);
+    }
+
     public static void shutdown() {}
   }
 
@@ -72,6 +72,7 @@ import org.apache.cassandra.service.CassandraDaemon;
 import org.apache.cassandra.stargate.locator.InetAddressAndPort;
 import org.apache.cassandra.stargate.metrics.ConnectionMetrics;
 import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.cassandra.stargate.transport.internal.messages.EncodedMetadataCache;
 import org.apache.cassandra.stargate.transport.internal.messages.EventMessage;
 import org.apache.cassandra.utils.FBUtilities;
 import org.slf4j.Logger;
@@ -640,6 +641,9 @@ public class Server implements CassandraDaemon.Server {
     }
 
     private void send(Event event) {
+      if (event instanceof Event.SchemaChange) {
+        EncodedMetadataCache.instance.invalidatePrepared();
+      }
       server.connectionTracker.send(event);
     }
 
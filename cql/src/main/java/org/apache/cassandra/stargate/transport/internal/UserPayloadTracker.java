@@ -0,0 +1,116 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.cassandra.net.ResourceLimits;
+
+/**
+ * Tracks the requests in flight for each authenticated user, across all of their connections.
+ *
+ * <p>This complements the per-IP limits of {@link Server.EndpointPayloadTracker}: when many clients
+ * share the same address (NAT, proxies), a single user could otherwise consume the whole budget of
+ * that address. Both the number of requests and their size in bytes can be limited, and the limits
+ * are enforced the same way as the per-IP ones (see {@link
+ * Message.Dispatcher#shouldHandleRequest}).
+ *
+ * <p>Note: trackers are never removed, so there is one per user that has ever connected. This is
+ * bounded by the number of roles, which only authenticated clients can use.
+ */
+public class UserPayloadTracker {
+
+  private static final long MAX_REQUESTS_PER_USER =
+      Long.getLong("stargate.cql.max_concurrent_requests_per_user", -1);
+  private static final long MAX_BYTES_PER_USER =
+      Long.getLong("stargate.cql.max_concurrent_requests_in_bytes_per_user", -1);
+
+  private static final ConcurrentMap<String, UserPayloadTracker> trackers =
+      new ConcurrentHashMap<>();
+
+  private final String username;
+  private final ResourceLimits.Concurrent requests;
+  private final ResourceLimits.Concurrent bytes;
+
+  UserPayloadTracker(String username, long maxRequests, long maxBytes) {
+    this.username = username;
+    this.requests = new ResourceLimits.Concurrent(maxRequests > 0 ? maxRequests : Long.MAX_VALUE);
+    this.bytes = new ResourceLimits.Concurrent(maxBytes > 0 ? maxBytes : Long.MAX_VALUE);
+  }
+
+  public static boolean isEnabled() {
+    return MAX_REQUESTS_PER_USER > 0 || MAX_BYTES_PER_USER > 0;
+  }
+
+  static UserPayloadTracker get(String username) {
+    UserPayloadTracker tracker = trackers.get(username);
+    return tracker == null
+        ? trackers.computeIfAbsent(
+            username, u -> new UserPayloadTracker(u, MAX_REQUESTS_PER_USER, MAX_BYTES_PER_USER))
+        : tracker;
+  }
+
+  /** The trackers of all the users, indexed by name. */
+  public static Map<String, UserPayloadTracker> all() {
+    return Collections.unmodifiableMap(trackers);
+  }
+
+  public String username() {
+    return username;
+  }
+
+  public long requestsInFlight() {
+    return requests.using();
+  }
+
+  public long bytesInFlight() {
+    return bytes.using();
+  }
+
+  /** Allocates a request of the given size, unless it would exceed one of the limits. */
+  boolean tryAllocate(long size) {
+    if (!requests.tryAllocate(1)) {
+      return false;
+    }
+    if (!bytes.tryAllocate(size)) {
+      requests.release(1);
+      return false;
+    }
+    return true;
+  }
+
+  /** Allocates a request of the given size, even if it exceeds the limits. */
+  void allocate(long size) {
+    requests.allocate(1);
+    bytes.allocate(size);
+  }
+
+  /**
+   * Releases a request of the given size.
+   *
+   * @return {@link ResourceLimits.Outcome#BELOW_LIMIT} if the user is now below both limits.
+   */
+  ResourceLimits.Outcome release(long size) {
+    ResourceLimits.Outcome requestsOutcome = requests.release(1);
+    ResourceLimits.Outcome bytesOutcome = bytes.release(size);
+    return requestsOutcome == ResourceLimits.Outcome.BELOW_LIMIT
+            && bytesOutcome == ResourceLimits.Outcome.BELOW_LIMIT
+        ? ResourceLimits.Outcome.BELOW_LIMIT
+        : ResourceLimits.Outcome.ABOVE_LIMIT;
+  }
+}
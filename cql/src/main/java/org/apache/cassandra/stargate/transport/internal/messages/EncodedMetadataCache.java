@@ -0,0 +1,136 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal.messages;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.stargate.db.Result;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+
+/**
+ * Caches the wire form of the metadata of prepared statements, so that it doesn't get re-encoded
+ * for every PREPARE response, and every EXECUTE response that doesn't skip the metadata.
+ *
+ * <p>The metadata of a prepared statement is cached per statement id. Since the same id can
+ * describe different columns after a schema change, all the entries are invalidated on schema
+ * changes, and an entry is only reused for the same result metadata id (both are null with
+ * Cassandra 3.11, which doesn't provide those ids). Comparing the columns themselves would cost
+ * about as much as encoding them. Entries are also invalidated when the persistence reports that
+ * the statement is no longer prepared.
+ *
+ * <p>The column specifications of ROWS results are cached per result metadata id, which is computed
+ * from the columns themselves. Persistence backends that don't provide that id (Cassandra 3.11) are
+ * not cached.
+ */
+public class EncodedMetadataCache {
+
+  private static final int MAX_SIZE =
+      Integer.getInteger("stargate.cql.encoded_metadata_cache_size", 10_000);
+
+  public static final EncodedMetadataCache instance = new EncodedMetadataCache(MAX_SIZE);
+
+  private final Cache<MD5Digest, PreparedEntry> prepared;
+  private final Cache<MD5Digest, EncodedByVersion> resultColumns;
+
+  EncodedMetadataCache(int maxSize) {
+    prepared = Caffeine.newBuilder().maximumSize(maxSize).build();
+    resultColumns = Caffeine.newBuilder().maximumSize(maxSize).build();
+  }
+
+  /**
+   * Returns the encoded metadata of a PREPARED result (everything but the ids), encoding and
+   * caching it if needed.
+   */
+  byte[] prepared(Result.Prepared result, ProtocolVersion version) {
+    PreparedEntry entry = prepared.getIfPresent(result.statementId);
+    if (entry == null || !Objects.equals(entry.resultMetadataId, result.resultMetadataId)) {
+      entry = new PreparedEntry(result);
+      prepared.put(result.statementId, entry);
+    }
+    return entry.encoded.get(
+        version,
+        dest -> {
+          ResultMessage.PreparedSubCodec.METADATA_CODEC.encode(result.metadata, dest, version);
+          if (version.isGreaterThan(ProtocolVersion.V1)) {
+            ResultMessage.RowsSubCodec.METADATA_CODEC.encode(result.resultMetadata, dest, version);
+          }
+        });
+  }
+
+  /**
+   * Returns the encoded column specifications of a ROWS result (the global table spec if any, then
+   * the columns), or null if they can't be cached.
+   */
+  byte[] resultColumns(Result.ResultMetadata metadata, ProtocolVersion version) {
+    if (metadata.resultMetadataId == null || metadata.columns == null) {
+      return null;
+    }
+    EncodedByVersion encoded =
+        resultColumns.get(metadata.resultMetadataId, k -> new EncodedByVersion());
+    return encoded.get(
+        version, dest -> ResultMessage.RowsSubCodec.encodeColumns(metadata, dest, version));
+  }
+
+  /** Called when the persistence reports that a statement is not prepared anymore. */
+  void invalidate(MD5Digest statementId) {
+    prepared.invalidate(statementId);
+  }
+
+  /** Called on schema changes, which can change the metadata of any prepared statement. */
+  public void invalidatePrepared() {
+    prepared.invalidateAll();
+  }
+
+  private static class PreparedEntry {
+    final MD5Digest resultMetadataId;
+    final EncodedByVersion encoded = new EncodedByVersion();
+
+    PreparedEntry(Result.Prepared result) {
+      this.resultMetadataId = result.resultMetadataId;
+    }
+  }
+
+  private static class EncodedByVersion {
+    // Concurrent encodings of the same version produce the same bytes, so we can let them race
+    private final AtomicReferenceArray<byte[]> encoded =
+        new AtomicReferenceArray<>(ProtocolVersion.values().length);
+
+    byte[] get(ProtocolVersion version, Encoder encoder) {
+      byte[] bytes = encoded.get(version.ordinal());
+      if (bytes == null) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+          encoder.encode(buffer);
+          bytes = new byte[buffer.readableBytes()];
+          buffer.readBytes(bytes);
+        } finally {
+          buffer.release();
+        }
+        encoded.set(version.ordinal(), bytes);
+      }
+      return bytes;
+    }
+  }
+
+  private interface Encoder {
+    void encode(ByteBuf dest);
+  }
+}
@@ -21,6 +21,8 @@ import io.netty.buffer.ByteBuf;
 import io.stargate.db.BoundStatement;
 import io.stargate.db.Result;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.cassandra.stargate.exceptions.PreparedQueryNotFoundException;
 import org.apache.cassandra.stargate.transport.ProtocolVersion;
 import org.apache.cassandra.stargate.transport.internal.CBUtil;
 import org.apache.cassandra.stargate.transport.internal.Message;
@@ -93,7 +95,15 @@ public class ExecuteMessage extends Message.Request {
     BoundStatement statement =
         new BoundStatement(statementId, options.getValues(), options.getNames());
     CompletableFuture<? extends Result> future =
-        persistenceConnection().execute(statement, makeParameters(options), queryStartNanoTime);
+        persistenceConnection()
+            .execute(statement, makeParameters(options), queryStartNanoTime)
+            .whenComplete(
+                (result, error) -> {
+                  if (error instanceof CompletionException) error = error.getCause();
+                  if (error instanceof PreparedQueryNotFoundException) {
+                    EncodedMetadataCache.instance.invalidate(statementId);
+                  }
+                });
     return SchemaAgreement.maybeWaitForAgreement(future, persistence())
         .thenApply(ResultMessage::new);
   }
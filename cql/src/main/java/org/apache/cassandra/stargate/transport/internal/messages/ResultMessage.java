@@ -178,17 +178,11 @@ public class ResultMessage extends Message.Response {
             }
 
             if (!noMetadata) {
-              if (globalTablesSpec) {
-                CBUtil.writeAsciiString(metadata.columns.get(0).keyspace(), dest);
-                CBUtil.writeAsciiString(metadata.columns.get(0).table(), dest);
-              }
-
-              for (Column c : metadata.columns) {
-                if (!globalTablesSpec) {
-                  CBUtil.writeAsciiString(c.keyspace(), dest);
-                  CBUtil.writeAsciiString(c.table(), dest);
-                }
-                ColumnUtils.encodeColumn(c, dest, version);
+              byte[] columns = EncodedMetadataCache.instance.resultColumns(metadata, version);
+              if (columns != null) {
+                dest.writeBytes(columns);
+              } else {
+                encodeColumns(metadata, dest, version);
               }
             }
           }
@@ -207,23 +201,46 @@ public class ResultMessage extends Message.Response {
               size += CBUtil.sizeOfBytes(metadata.resultMetadataId.bytes);
 
             if (!noMetadata) {
-              if (globalTablesSpec) {
-                size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).keyspace());
-                size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).table());
-              }
+              byte[] columns = EncodedMetadataCache.instance.resultColumns(metadata, version);
+              if (columns != null) {
+                size += columns.length;
+              } else {
+                if (globalTablesSpec) {
+                  size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).keyspace());
+                  size += CBUtil.sizeOfAsciiString(metadata.columns.get(0).table());
+                }
 
-              for (Column c : metadata.columns) {
-                if (!globalTablesSpec) {
-                  size += CBUtil.sizeOfAsciiString(c.keyspace());
-                  size += CBUtil.sizeOfAsciiString(c.table());
+                for (Column c : metadata.columns) {
+                  if (!globalTablesSpec) {
+                    size += CBUtil.sizeOfAsciiString(c.keyspace());
+                    size += CBUtil.sizeOfAsciiString(c.table());
+                  }
+                  size += ColumnUtils.encodeSizeColumn(c, version);
                 }
-                size += ColumnUtils.encodeSizeColumn(c, version);
               }
             }
             return size;
           }
         };
 
+    /** Encodes the column specifications of the metadata: global table spec, then the columns. */
+    static void encodeColumns(
+        Result.ResultMetadata metadata, ByteBuf dest, ProtocolVersion version) {
+      boolean globalTablesSpec = metadata.flags.contains(Result.Flag.GLOBAL_TABLES_SPEC);
+      if (globalTablesSpec) {
+        CBUtil.writeAsciiString(metadata.columns.get(0).keyspace(), dest);
+        CBUtil.writeAsciiString(metadata.columns.get(0).table(), dest);
+      }
+
+      for (Column c : metadata.columns) {
+        if (!globalTablesSpec) {
+          CBUtil.writeAsciiString(c.keyspace(), dest);
+          CBUtil.writeAsciiString(c.table(), dest);
+        }
+        ColumnUtils.encodeColumn(c, dest, version);
+      }
+    }
+
     @Override
     public Result decode(ByteBuf body, ProtocolVersion version) {
       Result.ResultMetadata metadata = METADATA_CODEC.decode(body, version);
@@ -388,9 +405,7 @@ public class ResultMessage extends Message.Response {
       if (version.isGreaterOrEqualTo(ProtocolVersion.V5))
         CBUtil.writeBytes(prepared.resultMetadataId.bytes, dest);
 
-      METADATA_CODEC.encode(prepared.metadata, dest, version);
-      if (version.isGreaterThan(ProtocolVersion.V1))
-        RowsSubCodec.METADATA_CODEC.encode(prepared.resultMetadata, dest, version);
+      dest.writeBytes(EncodedMetadataCache.instance.prepared(prepared, version));
     }
 
     @Override
@@ -403,9 +418,7 @@ public class ResultMessage extends Message.Response {
       size += CBUtil.sizeOfBytes(prepared.statementId.bytes);
       if (version.isGreaterOrEqualTo(ProtocolVersion.V5))
         size += CBUtil.sizeOfBytes(prepared.resultMetadataId.bytes);
-      size += METADATA_CODEC.encodedSize(prepared.metadata, version);
-      if (version.isGreaterThan(ProtocolVersion.V1))
-        size += RowsSubCodec.METADATA_CODEC.encodedSize(prepared.resultMetadata, version);
+      size += EncodedMetadataCache.instance.prepared(prepared, version).length;
       return size;
     }
   }
@@ -27,6 +27,7 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.search.MeterNotFoundException;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.stargate.db.ClientInfo;
@@ -36,6 +37,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.cassandra.stargate.transport.internal.Message;
 import org.apache.cassandra.stargate.transport.internal.Server;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
@@ -206,6 +209,41 @@ class ClientMetricsTest {
     }
   }
 
+  @Nested
+  class RecordRequestLatency {
+
+    @Test
+    public void happyPath() {
+      ConnectionMetrics connectionMetrics = clientMetrics.connectionMetrics(clientInfo1);
+      connectionMetrics.recordRequestLatency(
+          Message.Type.EXECUTE, TimeUnit.MILLISECONDS.toNanos(2));
+      connectionMetrics.recordRequestLatency(
+          Message.Type.EXECUTE, TimeUnit.MILLISECONDS.toNanos(4));
+      clientMetrics
+          .connectionMetrics(clientInfo2)
+          .recordRequestLatency(Message.Type.QUERY, TimeUnit.MILLISECONDS.toNanos(1));
+
+      Timer t1 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestLatency")
+              .tag("client", "one")
+              .tag("opcode", "EXECUTE")
+              .timer();
+
+      assertThat(t1.count()).isEqualTo(2);
+      assertThat(t1.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6d);
+
+      Timer t2 =
+          meterRegistry
+              .get("cql.org.apache.cassandra.metrics.Client.RequestLatency")
+              .tag("client", "two")
+              .tag("opcode", "QUERY")
+              .timer();
+
+      assertThat(t2.count()).isEqualTo(1);
+    }
+  }
+
   @Nested
   class PauseConnections {
 
@@ -258,6 +296,22 @@ class ClientMetricsTest {
     }
   }
 
+  @Nested
+  class MarkUserLimitReached {
+
+    @Test
+    public void happyPath() {
+      clientMetrics.markUserLimitReached();
+      clientMetrics.markUserLimitReached();
+
+      Counter c1 =
+          meterRegistry.get("cql.org.apache.cassandra.metrics.Client.UserLimitReached").counter();
+
+      assertThat(c1.count()).isEqualTo(2);
+      assertThat(c1.getId().getTags()).isEmpty();
+    }
+  }
+
   @Nested
   class RecordBytesReceivedPerFrame {
 
@@ -294,6 +348,25 @@ class ClientMetricsTest {
     }
   }
 
+  @Nested
+  class RecordFlush {
+
+    @Test
+    public void happyPath() {
+      clientMetrics.recordFlush(1);
+      clientMetrics.recordFlush(7);
+
+      Counter flushes =
+          meterRegistry.get("cql.org.apache.cassandra.metrics.Client.Flushes").counter();
+      DistributionSummary messagesPerFlush =
+          meterRegistry.get("cql.org.apache.cassandra.metrics.Client.MessagesPerFlush").summary();
+
+      assertThat(flushes.count()).isEqualTo(2);
+      assertThat(messagesPerFlush.count()).isEqualTo(2);
+      assertThat(messagesPerFlush.totalAmount()).isEqualTo(8);
+    }
+  }
+
   @Nested
   class UpdateConnectedClients {
 
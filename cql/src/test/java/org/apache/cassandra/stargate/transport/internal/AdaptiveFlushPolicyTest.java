@@ -0,0 +1,85 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import static org.apache.cassandra.stargate.transport.internal.AdaptiveFlushPolicy.FLUSH_NOW;
+import static org.apache.cassandra.stargate.transport.internal.AdaptiveFlushPolicy.MAX_BATCH_SIZE;
+import static org.apache.cassandra.stargate.transport.internal.AdaptiveFlushPolicy.POLL_INTERVAL_NANOS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveFlushPolicyTest {
+
+  private static final long MAX_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final AdaptiveFlushPolicy policy = new AdaptiveFlushPolicy(4, MAX_DELAY_NANOS);
+
+  @Test
+  public void shouldFlushImmediatelyUnderLightLoad() {
+    for (int i = 0; i < 100; i++) {
+      assertThat(policy.nextPollDelayNanos(true, 1, 0)).isEqualTo(FLUSH_NOW);
+      policy.flushed(1);
+    }
+    assertThat(policy.isCoalescing()).isFalse();
+  }
+
+  @Test
+  public void shouldSwitchToCoalescingUnderSustainedLoad() {
+    policy.flushed(10);
+    assertThat(policy.isCoalescing()).isFalse();
+
+    loadUp();
+
+    assertThat(policy.isCoalescing()).isTrue();
+    assertThat(policy.nextPollDelayNanos(true, 1, 0)).isEqualTo(POLL_INTERVAL_NANOS);
+  }
+
+  @Test
+  public void shouldSwitchBackToImmediateFlushesWhenLoadDrops() {
+    loadUp();
+
+    int flushes = 0;
+    while (policy.isCoalescing()) {
+      policy.flushed(1);
+      flushes++;
+    }
+
+    assertThat(flushes).isGreaterThan(1);
+    assertThat(policy.nextPollDelayNanos(true, 1, 0)).isEqualTo(FLUSH_NOW);
+  }
+
+  @Test
+  public void shouldBoundCoalescing() {
+    loadUp();
+
+    // Nothing new since the last poll
+    assertThat(policy.nextPollDelayNanos(false, 5, 0)).isEqualTo(FLUSH_NOW);
+    // The batch is full
+    assertThat(policy.nextPollDelayNanos(true, MAX_BATCH_SIZE, 0)).isEqualTo(FLUSH_NOW);
+    // The oldest response has waited long enough
+    assertThat(policy.nextPollDelayNanos(true, 5, MAX_DELAY_NANOS)).isEqualTo(FLUSH_NOW);
+    // The last poll never goes past the maximum delay
+    assertThat(policy.nextPollDelayNanos(true, 5, MAX_DELAY_NANOS - 1)).isEqualTo(1);
+  }
+
+  private void loadUp() {
+    for (int i = 0; i < 10; i++) {
+      policy.flushed(10);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.cassandra.net.ResourceLimits;
+import org.junit.jupiter.api.Test;
+
+public class UserPayloadTrackerTest {
+
+  @Test
+  public void shouldLimitRequestCount() {
+    UserPayloadTracker tracker = new UserPayloadTracker("user", 2, -1);
+
+    assertThat(tracker.tryAllocate(100)).isTrue();
+    assertThat(tracker.tryAllocate(100)).isTrue();
+    assertThat(tracker.tryAllocate(100)).isFalse();
+    assertThat(tracker.requestsInFlight()).isEqualTo(2);
+    assertThat(tracker.bytesInFlight()).isEqualTo(200);
+
+    assertThat(tracker.release(100)).isEqualTo(ResourceLimits.Outcome.BELOW_LIMIT);
+    assertThat(tracker.tryAllocate(100)).isTrue();
+  }
+
+  @Test
+  public void shouldLimitBytes() {
+    UserPayloadTracker tracker = new UserPayloadTracker("user", -1, 150);
+
+    assertThat(tracker.tryAllocate(100)).isTrue();
+    assertThat(tracker.tryAllocate(100)).isFalse();
+    // A failed allocation doesn't leak a request
+    assertThat(tracker.requestsInFlight()).isEqualTo(1);
+
+    // Forced allocations can go over the limit
+    tracker.allocate(100);
+    assertThat(tracker.release(100)).isEqualTo(ResourceLimits.Outcome.BELOW_LIMIT);
+    assertThat(tracker.bytesInFlight()).isEqualTo(100);
+  }
+}
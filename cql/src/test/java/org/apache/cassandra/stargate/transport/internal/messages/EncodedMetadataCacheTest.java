@@ -0,0 +1,125 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.cassandra.stargate.transport.internal.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.stargate.db.Result;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.ImmutableColumn;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.apache.cassandra.stargate.transport.ProtocolVersion;
+import org.apache.cassandra.stargate.utils.MD5Digest;
+import org.junit.jupiter.api.Test;
+
+public class EncodedMetadataCacheTest {
+
+  private static final MD5Digest STATEMENT_ID = MD5Digest.compute("SELECT v FROM ks.t WHERE k = ?");
+
+  private final EncodedMetadataCache cache = new EncodedMetadataCache(10);
+
+  @Test
+  public void shouldEncodePreparedMetadataOnce() {
+    Result.Prepared prepared = prepared(Column.Type.Int, Column.Type.Text);
+
+    byte[] first = cache.prepared(prepared, ProtocolVersion.V4);
+    // A new instance with the same metadata, as returned by the persistence for every PREPARE
+    byte[] second = cache.prepared(prepared(Column.Type.Int, Column.Type.Text), ProtocolVersion.V4);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first).isEqualTo(encodeUncached(prepared, ProtocolVersion.V4));
+    assertThat(cache.prepared(prepared, ProtocolVersion.V5)).isNotSameAs(first);
+  }
+
+  @Test
+  public void shouldReencodeWhenResultMetadataIdChanges() {
+    byte[] first = cache.prepared(prepared(Column.Type.Int, Column.Type.Text), ProtocolVersion.V4);
+
+    Result.Prepared altered = prepared(Column.Type.Int, Column.Type.Varint);
+    byte[] second = cache.prepared(altered, ProtocolVersion.V4);
+
+    assertThat(second).isNotEqualTo(first);
+    assertThat(second).isEqualTo(encodeUncached(altered, ProtocolVersion.V4));
+  }
+
+  @Test
+  public void shouldReencodeAfterSchemaChange() {
+    // Cassandra 3.11 doesn't provide result metadata ids
+    byte[] first =
+        cache.prepared(prepared(Column.Type.Int, Column.Type.Text, null), ProtocolVersion.V4);
+    assertThat(
+            cache.prepared(prepared(Column.Type.Int, Column.Type.Text, null), ProtocolVersion.V4))
+        .isSameAs(first);
+
+    // Same statement id, but the bind column was altered
+    cache.invalidatePrepared();
+    Result.Prepared altered = prepared(Column.Type.Bigint, Column.Type.Text, null);
+    byte[] second = cache.prepared(altered, ProtocolVersion.V4);
+
+    assertThat(second).isNotEqualTo(first);
+    assertThat(second).isEqualTo(encodeUncached(altered, ProtocolVersion.V4));
+  }
+
+  @Test
+  public void shouldReencodeAfterInvalidation() {
+    byte[] first = cache.prepared(prepared(Column.Type.Int, Column.Type.Text), ProtocolVersion.V4);
+
+    cache.invalidate(STATEMENT_ID);
+
+    assertThat(cache.prepared(prepared(Column.Type.Int, Column.Type.Text), ProtocolVersion.V4))
+        .isNotSameAs(first)
+        .isEqualTo(first);
+  }
+
+  private static Result.Prepared prepared(Column.Type keyType, Column.Type valueType) {
+    return prepared(keyType, valueType, MD5Digest.compute(valueType.name()));
+  }
+
+  private static Result.Prepared prepared(
+      Column.Type keyType, Column.Type valueType, MD5Digest resultMetadataId) {
+    Column k = column("k", keyType);
+    Column v = column("v", valueType);
+    Result.ResultMetadata resultMetadata =
+        new Result.ResultMetadata(
+            EnumSet.of(Result.Flag.GLOBAL_TABLES_SPEC),
+            Collections.singletonList(v),
+            resultMetadataId,
+            null);
+    Result.PreparedMetadata metadata =
+        new Result.PreparedMetadata(
+            EnumSet.of(Result.Flag.GLOBAL_TABLES_SPEC), Arrays.asList(k), new short[] {0});
+    return new Result.Prepared(
+        STATEMENT_ID, resultMetadata.resultMetadataId, resultMetadata, metadata);
+  }
+
+  private static Column column(String name, Column.Type type) {
+    return ImmutableColumn.builder().keyspace("ks").table("t").name(name).type(type).build();
+  }
+
+  private static byte[] encodeUncached(Result.Prepared prepared, ProtocolVersion version) {
+    ByteBuf buffer = Unpooled.buffer();
+    ResultMessage.PreparedSubCodec.METADATA_CODEC.encode(prepared.metadata, buffer, version);
+    ResultMessage.RowsSubCodec.METADATA_CODEC.encode(prepared.resultMetadata, buffer, version);
+    byte[] bytes = new byte[buffer.readableBytes()];
+    buffer.readBytes(bytes);
+    buffer.release();
+    return bytes;
+  }
+}
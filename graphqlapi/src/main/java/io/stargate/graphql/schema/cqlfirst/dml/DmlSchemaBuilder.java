@@ -24,6 +24,7 @@ import static io.stargate.graphql.schema.cqlfirst.dml.fetchers.aggregations.Supp
 import com.google.common.collect.ImmutableList;
 import com.google.errorprone.annotations.FormatMethod;
 import com.google.errorprone.annotations.FormatString;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import graphql.Scalars;
 import graphql.introspection.Introspection;
 import graphql.schema.*;
@@ -32,10 +33,12 @@ import io.stargate.db.schema.Keyspace;
 import io.stargate.db.schema.Table;
 import io.stargate.graphql.schema.CassandraFetcher;
 import io.stargate.graphql.schema.SchemaConstants;
+import io.stargate.graphql.schema.cqlfirst.dml.DmlTypeCache.TableFragment;
 import io.stargate.graphql.schema.cqlfirst.dml.fetchers.*;
 import io.stargate.graphql.schema.cqlfirst.dml.fetchers.aggregations.SupportedGraphqlFunction;
 import io.stargate.graphql.schema.scalars.CqlScalar;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -57,6 +60,10 @@ public class DmlSchemaBuilder {
   private final FieldFilterInputTypeCache fieldFilterInputTypes;
   private final NameMapping nameMapping;
   private final Keyspace keyspace;
+  private final Map<String, TableFragment> previousTableFragments;
+  private final Map<String, TableFragment> tableFragments = new HashMap<>();
+  private final GraphQLType queryOptionsType;
+  private DmlTypeCache typeCache;
 
   /** Describes the different kind of types generated from a table */
   private enum DmlType {
@@ -68,14 +75,49 @@ public class DmlSchemaBuilder {
   }
 
   public DmlSchemaBuilder(Keyspace keyspace) {
+    this(keyspace, null);
+  }
+
+  /**
+   * @param previousTypes the types generated by a previous build of the same keyspace, if any. The
+   *     tables that haven't changed since then will reuse their existing types instead of
+   *     regenerating them.
+   */
+  public DmlSchemaBuilder(Keyspace keyspace, @Nullable DmlTypeCache previousTypes) {
 
     this.keyspace = keyspace;
 
     this.nameMapping = new NameMapping(keyspace.tables(), keyspace.userDefinedTypes(), warnings);
-    this.fieldInputTypes = new FieldInputTypeCache(this.nameMapping, warnings);
-    this.fieldOutputTypes = new FieldOutputTypeCache(this.nameMapping, warnings);
-    this.fieldFilterInputTypes =
-        new FieldFilterInputTypeCache(this.fieldInputTypes, this.nameMapping);
+    if (previousTypes != null && previousTypes.nameMapping.hasSameUdtNames(nameMapping)) {
+      this.fieldInputTypes =
+          new FieldInputTypeCache(this.nameMapping, warnings, previousTypes.fieldInputTypes);
+      this.fieldOutputTypes =
+          new FieldOutputTypeCache(this.nameMapping, warnings, previousTypes.fieldOutputTypes);
+      this.fieldFilterInputTypes =
+          new FieldFilterInputTypeCache(
+              this.fieldInputTypes, this.nameMapping, previousTypes.fieldFilterInputTypes);
+      this.previousTableFragments = previousTypes.tableFragments;
+      this.queryOptionsType = previousTypes.queryOptionsType;
+    } else {
+      // If UDTs are mapped differently, the previous types might reference obsolete names
+      this.fieldInputTypes = new FieldInputTypeCache(this.nameMapping, warnings);
+      this.fieldOutputTypes = new FieldOutputTypeCache(this.nameMapping, warnings);
+      this.fieldFilterInputTypes =
+          new FieldFilterInputTypeCache(this.fieldInputTypes, this.nameMapping);
+      this.previousTableFragments = Collections.emptyMap();
+      this.queryOptionsType = buildQueryOptionsInputType();
+    }
+  }
+
+  /**
+   * The types generated by the last call to {@link #build()}, that can be passed to the next build
+   * of the same keyspace.
+   */
+  public DmlTypeCache getTypeCache() {
+    if (typeCache == null) {
+      throw new IllegalStateException("The schema must be built first");
+    }
+    return typeCache;
   }
 
   @SuppressWarnings("deprecation")
@@ -85,29 +127,46 @@ public class DmlSchemaBuilder {
     List<GraphQLFieldDefinition> queryFields = new ArrayList<>();
     List<GraphQLFieldDefinition> mutationFields = new ArrayList<>();
 
+    int reusedTables = 0;
     // Tables must be iterated one at a time. If a table is unfulfillable, it is skipped
     for (Table table : keyspace.tables()) {
-      if (nameMapping.getGraphqlName(table) == null) {
+      String graphqlName = nameMapping.getGraphqlName(table);
+      if (graphqlName == null) {
         // This means there was a name clash. We already added a warning in NameMapping.
         continue;
       }
-      Set<GraphQLType> additionalTypes;
-      List<GraphQLFieldDefinition> tableQueryField;
-      List<GraphQLFieldDefinition> tableMutationFields;
-
-      try {
-        additionalTypes = buildTypesForTable(table);
-        tableQueryField = buildQuery(table);
-        tableMutationFields = buildMutations(table);
-      } catch (Exception e) {
-        warn(e, "Could not convert table %s, skipping", table.name());
-        continue;
+
+      TableFragment fragment = previousTableFragments.get(table.name());
+      if (fragment != null && fragment.matches(table, graphqlName)) {
+        warnings.addAll(fragment.warnings);
+        reusedTables += 1;
+      } else {
+        int warningCount = warnings.size();
+        try {
+          fragment =
+              new TableFragment(
+                  table,
+                  graphqlName,
+                  buildTypesForTable(table),
+                  buildQuery(table),
+                  buildMutations(table),
+                  new ArrayList<>(warnings.subList(warningCount, warnings.size())));
+        } catch (Exception e) {
+          warn(e, "Could not convert table %s, skipping", table.name());
+          continue;
+        }
       }
+      tableFragments.put(table.name(), fragment);
 
-      builder.additionalTypes(additionalTypes);
-      queryFields.addAll(tableQueryField);
-      mutationFields.addAll(tableMutationFields);
+      builder.additionalTypes(fragment.additionalTypes);
+      queryFields.addAll(fragment.queryFields);
+      mutationFields.addAll(fragment.mutationFields);
     }
+    LOG.debug(
+        "Built GraphQL schema for keyspace {} ({} of {} tables reused)",
+        keyspace.name(),
+        reusedTables,
+        tableFragments.size());
 
     addAtomicDirective(builder);
 
@@ -137,10 +196,20 @@ public class DmlSchemaBuilder {
 
     queryFields.add(buildWarnings());
 
-    builder.additionalType(buildQueryOptionsInputType());
+    builder.additionalType(queryOptionsType);
     builder.query(buildQueries(queryFields));
     builder.mutation(buildMutationRoot(mutationFields));
-    return builder.build();
+    GraphQLSchema schema = builder.build();
+
+    typeCache =
+        new DmlTypeCache(
+            nameMapping,
+            tableFragments,
+            fieldInputTypes,
+            fieldOutputTypes,
+            fieldFilterInputTypes,
+            queryOptionsType);
+    return schema;
   }
 
   private void addAtomicDirective(GraphQLSchema.Builder builder) {
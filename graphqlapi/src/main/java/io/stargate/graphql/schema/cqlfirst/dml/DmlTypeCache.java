@@ -0,0 +1,107 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.schema.cqlfirst.dml;
+
+import com.google.common.collect.ImmutableMap;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLType;
+import io.stargate.db.schema.Table;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.jcip.annotations.Immutable;
+
+/**
+ * The GraphQL types that {@link DmlSchemaBuilder} generated for a keyspace.
+ *
+ * <p>It can be passed to the next build of the same keyspace (after a CQL schema change), in order
+ * to only regenerate the tables that have changed.
+ *
+ * <p>This is never modified once the build that produced it has completed, so it can safely be
+ * shared by concurrent builds.
+ *
+ * <p>The types are reused as is, while they are also part of the live schema. This is safe because
+ * the only in-place modification that graphql-java does when building a {@link
+ * graphql.schema.GraphQLSchema} is to replace the {@link graphql.schema.GraphQLTypeReference}
+ * instances with the actual types. This cache is only created once that build succeeded, so the
+ * types it holds have no references left: they only point to other types of this cache (their own
+ * table types, the field types and the {@code QueryOptions} type), that are reused along with them.
+ * A later build therefore has nothing to replace in them.
+ */
+@Immutable
+public class DmlTypeCache {
+
+  final NameMapping nameMapping;
+  final Map<String, TableFragment> tableFragments;
+  final FieldInputTypeCache fieldInputTypes;
+  final FieldOutputTypeCache fieldOutputTypes;
+  final FieldFilterInputTypeCache fieldFilterInputTypes;
+  final GraphQLType queryOptionsType;
+
+  DmlTypeCache(
+      NameMapping nameMapping,
+      Map<String, TableFragment> tableFragments,
+      FieldInputTypeCache fieldInputTypes,
+      FieldOutputTypeCache fieldOutputTypes,
+      FieldFilterInputTypeCache fieldFilterInputTypes,
+      GraphQLType queryOptionsType) {
+    this.nameMapping = nameMapping;
+    this.tableFragments = ImmutableMap.copyOf(tableFragments);
+    this.fieldInputTypes = fieldInputTypes;
+    this.fieldOutputTypes = fieldOutputTypes;
+    this.fieldFilterInputTypes = fieldFilterInputTypes;
+    this.queryOptionsType = queryOptionsType;
+  }
+
+  /** The GraphQL types and fields generated for a single table. */
+  static class TableFragment {
+
+    final Table table;
+    final String graphqlName;
+    final Set<GraphQLType> additionalTypes;
+    final List<GraphQLFieldDefinition> queryFields;
+    final List<GraphQLFieldDefinition> mutationFields;
+    /** The conversion warnings that were emitted while generating the table. */
+    final List<String> warnings;
+
+    TableFragment(
+        Table table,
+        String graphqlName,
+        Set<GraphQLType> additionalTypes,
+        List<GraphQLFieldDefinition> queryFields,
+        List<GraphQLFieldDefinition> mutationFields,
+        List<String> warnings) {
+      this.table = table;
+      this.graphqlName = graphqlName;
+      this.additionalTypes = additionalTypes;
+      this.queryFields = queryFields;
+      this.mutationFields = mutationFields;
+      this.warnings = warnings;
+    }
+
+    /**
+     * Whether this fragment can be reused for the given table.
+     *
+     * <p>The table definition includes its column types, and therefore the definitions of the UDTs
+     * it references. The prehashed hash code makes the common "unchanged" case cheap to detect.
+     */
+    boolean matches(Table otherTable, String otherGraphqlName) {
+      return table.hashCode() == otherTable.hashCode()
+          && table.equals(otherTable)
+          && graphqlName.equals(otherGraphqlName);
+    }
+  }
+}
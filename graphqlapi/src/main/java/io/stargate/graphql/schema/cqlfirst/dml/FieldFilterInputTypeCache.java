@@ -57,6 +57,14 @@ public class FieldFilterInputTypeCache extends FieldTypeCache<GraphQLInputType>
     this.inputTypeCache = inputTypeCache;
   }
 
+  FieldFilterInputTypeCache(
+      FieldInputTypeCache inputTypeCache,
+      NameMapping nameMapping,
+      FieldFilterInputTypeCache previous) {
+    super(nameMapping, previous);
+    this.inputTypeCache = inputTypeCache;
+  }
+
   @Override
   protected GraphQLInputType compute(Column.ColumnType columnType) {
     GraphQLInputType gqlInputType = inputTypeCache.get(columnType);
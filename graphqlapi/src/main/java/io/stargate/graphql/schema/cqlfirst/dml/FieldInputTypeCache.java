@@ -48,6 +48,12 @@ class FieldInputTypeCache extends FieldTypeCache<GraphQLInputType> {
     this.warnings = warnings;
   }
 
+  FieldInputTypeCache(
+      NameMapping nameMapping, List<String> warnings, FieldInputTypeCache previous) {
+    super(nameMapping, previous);
+    this.warnings = warnings;
+  }
+
   @Override
   protected GraphQLInputType compute(Column.ColumnType columnType) {
     if (columnType.isMap()) {
@@ -48,6 +48,12 @@ class FieldOutputTypeCache extends FieldTypeCache<GraphQLOutputType> {
     this.warnings = warnings;
   }
 
+  FieldOutputTypeCache(
+      NameMapping nameMapping, List<String> warnings, FieldOutputTypeCache previous) {
+    super(nameMapping, previous);
+    this.warnings = warnings;
+  }
+
   @Override
   protected GraphQLOutputType compute(Column.ColumnType columnType) {
     if (columnType.isMap()) {
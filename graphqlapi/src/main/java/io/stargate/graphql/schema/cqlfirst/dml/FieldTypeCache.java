@@ -31,6 +31,10 @@ import net.jcip.annotations.NotThreadSafe;
  * <p>There are different categories, each implemented by a subclass. Note that this cache does not
  * contain table types, they are handled as top-level entities in {@link DmlSchemaBuilder}.
  *
+ * <p>A cache can be seeded with the entries of a previous instance, when a keyspace's schema gets
+ * rebuilt. This is required to reuse GraphQL types across builds: a schema can't reference two
+ * different instances of a type with the same name.
+ *
  * @param <GraphqlT> the returned GraphQL type.
  */
 @NotThreadSafe
@@ -43,6 +47,11 @@ abstract class FieldTypeCache<GraphqlT> {
     this.nameMapping = nameMapping;
   }
 
+  FieldTypeCache(NameMapping nameMapping, FieldTypeCache<GraphqlT> previous) {
+    this(nameMapping);
+    types.putAll(previous.types);
+  }
+
   GraphqlT get(ColumnType type) {
     type = normalize(type);
     return computeIfAbsent(type);
@@ -115,6 +115,13 @@ public class NameMapping {
     return map;
   }
 
+  /**
+   * Whether the UDTs and their fields are mapped to the same GraphQL names as in another mapping.
+   */
+  boolean hasSameUdtNames(NameMapping other) {
+    return udtNames.equals(other.udtNames) && fieldNames.equals(other.fieldNames);
+  }
+
   public String getGraphqlName(Table table) {
     return entityNames.get(table.name());
   }
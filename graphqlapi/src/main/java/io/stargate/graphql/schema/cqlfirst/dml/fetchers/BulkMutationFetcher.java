@@ -19,31 +19,53 @@ import static io.stargate.graphql.schema.SchemaConstants.ASYNC_DIRECTIVE;
 import static io.stargate.graphql.schema.SchemaConstants.ATOMIC_DIRECTIVE;
 import static java.util.stream.Stream.concat;
 
+import com.google.common.annotations.VisibleForTesting;
+import graphql.ExceptionWhileDataFetching;
+import graphql.GraphQLError;
 import graphql.GraphQLException;
+import graphql.execution.DataFetcherResult;
 import graphql.language.OperationDefinition;
 import graphql.schema.DataFetchingEnvironment;
+import io.stargate.db.BatchType;
 import io.stargate.db.Parameters;
+import io.stargate.db.query.BoundDMLQuery;
+import io.stargate.db.query.BoundDMLQueryWithConditions;
+import io.stargate.db.query.BoundInsert;
 import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.PartitionKey;
+import io.stargate.db.query.RowsImpacted;
 import io.stargate.db.schema.Table;
 import io.stargate.graphql.schema.cqlfirst.dml.NameMapping;
 import io.stargate.graphql.web.StargateGraphqlContext;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public abstract class BulkMutationFetcher
-    extends DmlFetcher<CompletableFuture<List<Map<String, Object>>>> {
+    extends DmlFetcher<CompletableFuture<DataFetcherResult<List<Map<String, Object>>>>> {
+
+  @VisibleForTesting
+  static final int MAX_CONCURRENT_BATCHES =
+      Integer.getInteger("stargate.graphql.bulk.max_concurrent_batches", 64);
+
+  private static final int MAX_BATCH_SIZE =
+      Integer.getInteger("stargate.graphql.bulk.max_batch_size", 50);
+
   protected BulkMutationFetcher(Table table, NameMapping nameMapping) {
     super(table, nameMapping);
   }
 
   @Override
-  protected CompletableFuture<List<Map<String, Object>>> get(
+  protected CompletableFuture<DataFetcherResult<List<Map<String, Object>>>> get(
       DataFetchingEnvironment environment, StargateGraphqlContext context) {
     List<BoundQuery> queries = new ArrayList<>();
     Exception buildException = null;
@@ -61,11 +83,12 @@ public abstract class BulkMutationFetcher
 
     if (containsDirective(operation, ATOMIC_DIRECTIVE)
         && (operation.getSelectionSet().getSelections().size() > 1 || queries.size() > 1)) {
-      return executeAsPartOfBatch(environment, queries, buildException, operation);
+      return executeAsPartOfBatch(environment, queries, buildException, operation)
+          .thenApply(BulkMutationFetcher::toResult);
     }
 
     if (buildException != null) {
-      CompletableFuture<List<Map<String, Object>>> f = new CompletableFuture<>();
+      CompletableFuture<DataFetcherResult<List<Map<String, Object>>>> f = new CompletableFuture<>();
       f.completeExceptionally(buildException);
       return f;
     }
@@ -75,22 +98,172 @@ public abstract class BulkMutationFetcher
       throw new IllegalStateException("Number of values to insert should match number of queries");
     }
 
-    List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>(values.size());
     UnaryOperator<Parameters> parameters = buildParameters(environment);
+    if (containsDirective(operation, ASYNC_DIRECTIVE)) {
+      List<CompletableFuture<Map<String, Object>>> results = new ArrayList<>(values.size());
+      for (int i = 0; i < queries.size(); i++) {
+        results.add(executeAsyncAccepted(queries.get(i), values.get(i), parameters, context));
+      }
+      return convert(results).thenApply(BulkMutationFetcher::toResult);
+    }
+    return executeByPartition(environment, context, queries, values, parameters);
+  }
+
+  /**
+   * Executes the queries of a non-atomic bulk mutation.
+   *
+   * <p>The queries that target the same partition are grouped into unlogged batches (up to {@link
+   * #MAX_BATCH_SIZE} queries each), which is cheap for the coordinator since each batch is
+   * partition-local. At most {@link #MAX_CONCURRENT_BATCHES} groups are in flight at a given time:
+   * the groups are taken in order from a shared queue, and each completion frees a slot for the
+   * next one, so that a slow group never delays the others. A failed group only fails its own
+   * values, the others are reported normally.
+   */
+  private CompletableFuture<DataFetcherResult<List<Map<String, Object>>>> executeByPartition(
+      DataFetchingEnvironment environment,
+      StargateGraphqlContext context,
+      List<BoundQuery> queries,
+      List<Map<String, Object>> values,
+      UnaryOperator<Parameters> parameters) {
+
+    List<List<Integer>> groups = groupByPartition(queries);
+    List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(values.size(), null));
+    List<GraphQLError> errors = new ArrayList<>();
+    AtomicInteger nextGroup = new AtomicInteger();
+
+    Function<List<Integer>, CompletableFuture<Void>> groupExecutor =
+        group ->
+            executeGroup(context, queries, values, group, parameters)
+                .handle(
+                    (groupResults, throwable) -> {
+                      synchronized (results) {
+                        for (int j = 0; j < group.size(); j++) {
+                          int index = group.get(j);
+                          if (throwable == null) {
+                            results.set(index, groupResults.get(j));
+                          } else {
+                            errors.add(toError(environment, index, throwable));
+                          }
+                        }
+                      }
+                      return null;
+                    });
+
+    int slotCount = Math.min(MAX_CONCURRENT_BATCHES, groups.size());
+    List<CompletableFuture<Void>> slots = new ArrayList<>(slotCount);
+    for (int slot = 0; slot < slotCount; slot++) {
+      slots.add(executeNextGroups(groups, nextGroup, groupExecutor));
+    }
+    return CompletableFuture.allOf(slots.toArray(new CompletableFuture<?>[0]))
+        .thenApply(
+            v -> {
+              synchronized (results) {
+                return DataFetcherResult.<List<Map<String, Object>>>newResult()
+                    .data(results)
+                    .errors(errors)
+                    .build();
+              }
+            });
+  }
+
+  /**
+   * Executes the next group that no other slot has taken yet, then the next one once it completes,
+   * and so on until the queue is drained.
+   */
+  private static CompletableFuture<Void> executeNextGroups(
+      List<List<Integer>> groups,
+      AtomicInteger nextGroup,
+      Function<List<Integer>, CompletableFuture<Void>> groupExecutor) {
+    int i = nextGroup.getAndIncrement();
+    if (i >= groups.size()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return groupExecutor
+        .apply(groups.get(i))
+        .thenCompose(v -> executeNextGroups(groups, nextGroup, groupExecutor));
+  }
+
+  private CompletableFuture<List<Map<String, Object>>> executeGroup(
+      StargateGraphqlContext context,
+      List<BoundQuery> queries,
+      List<Map<String, Object>> values,
+      List<Integer> group,
+      UnaryOperator<Parameters> parameters) {
+    if (group.size() == 1) {
+      int index = group.get(0);
+      return context
+          .getDataStore()
+          .execute(queries.get(index), parameters)
+          .thenApply(rs -> Collections.singletonList(toMutationResult(rs, values.get(index))));
+    }
+    List<BoundQuery> groupQueries = new ArrayList<>(group.size());
+    List<Map<String, Object>> groupValues = new ArrayList<>(group.size());
+    for (int index : group) {
+      groupQueries.add(queries.get(index));
+      groupValues.add(values.get(index));
+    }
+    return context
+        .getDataStore()
+        .batch(groupQueries, BatchType.UNLOGGED, parameters)
+        .thenApply(rs -> toBatchResults(rs.currentPageRows(), groupValues));
+  }
+
+  /**
+   * Groups the indices of the queries that target the same partition, preserving the order of the
+   * input. Conditional queries are never grouped: a conditional batch is applied or rejected as a
+   * whole, whereas each value of a bulk mutation is independent.
+   */
+  @VisibleForTesting
+  static List<List<Integer>> groupByPartition(List<BoundQuery> queries) {
+    Map<PartitionKey, List<Integer>> byPartition = new LinkedHashMap<>();
+    List<List<Integer>> groups = new ArrayList<>();
     for (int i = 0; i < queries.size(); i++) {
-      int finalI = i;
-      // Execute as a single statement
-      if (containsDirective(operation, ASYNC_DIRECTIVE)) {
-        results.add(executeAsyncAccepted(queries.get(i), values.get(finalI), parameters, context));
+      PartitionKey partitionKey = groupablePartitionKey(queries.get(i));
+      if (partitionKey == null) {
+        groups.add(Collections.singletonList(i));
       } else {
-        results.add(
-            context
-                .getDataStore()
-                .execute(queries.get(i), parameters)
-                .thenApply(rs -> toMutationResult(rs, values.get(finalI))));
+        List<Integer> group = byPartition.computeIfAbsent(partitionKey, k -> new ArrayList<>());
+        group.add(i);
+        if (group.size() == MAX_BATCH_SIZE) {
+          groups.add(group);
+          byPartition.remove(partitionKey);
+        }
       }
     }
-    return convert(results);
+    groups.addAll(byPartition.values());
+    return groups;
+  }
+
+  private static PartitionKey groupablePartitionKey(BoundQuery query) {
+    if (!(query instanceof BoundDMLQuery)) {
+      return null;
+    }
+    if ((query instanceof BoundInsert && ((BoundInsert) query).ifNotExists())
+        || (query instanceof BoundDMLQueryWithConditions
+            && ((BoundDMLQueryWithConditions) query).isConditional())) {
+      return null;
+    }
+    RowsImpacted rows = ((BoundDMLQuery) query).rowsUpdated();
+    if (rows.isRanges() || rows.partitionKeys().size() != 1) {
+      return null;
+    }
+    return rows.partitionKeys().iterator().next();
+  }
+
+  private static GraphQLError toError(
+      DataFetchingEnvironment environment, int index, Throwable throwable) {
+    Throwable cause =
+        (throwable instanceof CompletionException && throwable.getCause() != null)
+            ? throwable.getCause()
+            : throwable;
+    return new ExceptionWhileDataFetching(
+        environment.getExecutionStepInfo().getPath().segment(index),
+        cause,
+        environment.getField().getSourceLocation());
+  }
+
+  private static <T> DataFetcherResult<T> toResult(T data) {
+    return DataFetcherResult.<T>newResult().data(data).build();
   }
 
   private CompletableFuture<List<Map<String, Object>>> executeAsPartOfBatch(
@@ -20,6 +20,7 @@ import io.dropwizard.Configuration;
 import io.dropwizard.cli.Cli;
 import io.dropwizard.configuration.ResourceConfigurationSourceProvider;
 import io.dropwizard.forms.MultiPartBundle;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 import io.dropwizard.util.JarLocation;
@@ -97,7 +98,20 @@ public class DropwizardServer extends Application<Configuration> {
   @Override
   public void run(final Configuration config, final Environment environment) throws Exception {
 
-    GraphqlCache graphqlCache = new GraphqlCache(persistence, dataStoreFactory, enableGraphqlFirst);
+    GraphqlCache graphqlCache =
+        new GraphqlCache(persistence, dataStoreFactory, metrics, enableGraphqlFirst);
+    environment
+        .lifecycle()
+        .manage(
+            new Managed() {
+              @Override
+              public void start() {}
+
+              @Override
+              public void stop() {
+                graphqlCache.close();
+              }
+            });
     environment
         .jersey()
         .register(
@@ -0,0 +1,52 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.web.instrumentation;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounds the number of distinct values of a metric tag that come from user input: once the limit is
+ * reached, new values are reported as {@link #OTHER}.
+ */
+public class BoundedTagValues {
+
+  public static final String OTHER = "other";
+
+  private final int maxValues;
+  private final Set<String> values = ConcurrentHashMap.newKeySet();
+
+  public BoundedTagValues(int maxValues) {
+    this.maxValues = maxValues;
+  }
+
+  /** Whether the value can be used as a tag, registering it if there is still room. */
+  public boolean accept(String value) {
+    if (values.contains(value)) {
+      return true;
+    }
+    // Approximate under concurrency, but the overshoot is bounded by the number of threads
+    if (values.size() < maxValues && values.add(value)) {
+      return true;
+    }
+    return values.contains(value);
+  }
+
+  /** Returns the value if it can be used as a tag, or {@link #OTHER}. */
+  public String get(String value) {
+    return accept(value) ? value : OTHER;
+  }
+}
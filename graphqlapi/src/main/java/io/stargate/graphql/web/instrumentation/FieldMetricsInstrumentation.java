@@ -0,0 +1,143 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.web.instrumentation;
+
+import graphql.execution.DataFetcherResult;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and errors of the data fetchers of a keyspace's schema.
+ *
+ * <p>Trivial fetchers (that just read a property of their parent object) are ignored, in practice
+ * this covers the top-level queries and mutations, which are the ones that access the database.
+ *
+ * <p>To keep the overhead low, only a fraction of the fetches can be timed (errors are always
+ * counted). The number of distinct fields is also capped globally, beyond that fields are reported
+ * under a common "other" name.
+ */
+public class FieldMetricsInstrumentation extends SimpleInstrumentation {
+
+  public static final String FIELD_FETCH_METRIC = "graphql.field.fetch";
+  public static final String FIELD_ERRORS_METRIC = "graphql.field.errors";
+  public static final String KEYSPACE_TAG = "keyspace";
+  public static final String PARENT_TYPE_TAG = "parent_type";
+  public static final String FIELD_TAG = "field";
+  public static final String OPERATION_TYPE_TAG = "operation_type";
+
+  private final String keyspace;
+  private final double sampleRate;
+  private final BoundedTagValues fields;
+  private final MeterRegistry meterRegistry;
+  private final Tags tags;
+  private final ConcurrentMap<String, FieldMeters> meters = new ConcurrentHashMap<>();
+
+  /**
+   * @param sampleRate the fraction of fetches that get timed, between 0 and 1.
+   * @param fields the fields that are allowed to be used as tags. This should be shared by all the
+   *     keyspaces, since that's where the cardinality concern lies.
+   */
+  public FieldMetricsInstrumentation(
+      String keyspace,
+      double sampleRate,
+      BoundedTagValues fields,
+      MeterRegistry meterRegistry,
+      Tags tags) {
+    this.keyspace = keyspace;
+    this.sampleRate = sampleRate;
+    this.fields = fields;
+    this.meterRegistry = meterRegistry;
+    this.tags = tags;
+  }
+
+  @Override
+  public InstrumentationContext<Object> beginFieldFetch(
+      InstrumentationFieldFetchParameters parameters) {
+    if (parameters.isTrivialDataFetcher()) {
+      return SimpleInstrumentationContext.noOp();
+    }
+    FieldMeters fieldMeters = getMeters(parameters);
+    boolean sampled = sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    long start = sampled ? System.nanoTime() : 0;
+    return SimpleInstrumentationContext.whenCompleted(
+        (result, throwable) -> {
+          if (sampled) {
+            fieldMeters.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+          }
+          if (throwable != null
+              || (result instanceof DataFetcherResult
+                  && ((DataFetcherResult<?>) result).hasErrors())) {
+            fieldMeters.errors.increment();
+          }
+        });
+  }
+
+  private FieldMeters getMeters(InstrumentationFieldFetchParameters parameters) {
+    String parentType = parameters.getExecutionStepInfo().getFieldContainer().getName();
+    String field = parameters.getField().getName();
+    String operationType =
+        parameters
+            .getExecutionContext()
+            .getOperationDefinition()
+            .getOperation()
+            .name()
+            .toLowerCase(Locale.ROOT);
+    String key = parentType + '.' + field + '/' + operationType;
+    FieldMeters fieldMeters = meters.get(key);
+    if (fieldMeters == null) {
+      fieldMeters =
+          fields.accept(keyspace + '.' + parentType + '.' + field)
+              ? meters.computeIfAbsent(key, k -> new FieldMeters(parentType, field, operationType))
+              : meters.computeIfAbsent(
+                  BoundedTagValues.OTHER + '/' + operationType,
+                  k ->
+                      new FieldMeters(
+                          BoundedTagValues.OTHER, BoundedTagValues.OTHER, operationType));
+    }
+    return fieldMeters;
+  }
+
+  private class FieldMeters {
+    final Timer latency;
+    final Counter errors;
+
+    FieldMeters(String parentType, String field, String operationType) {
+      Tags fieldTags =
+          tags.and(
+              KEYSPACE_TAG, keyspace,
+              PARENT_TYPE_TAG, parentType,
+              FIELD_TAG, field,
+              OPERATION_TYPE_TAG, operationType);
+      latency =
+          Timer.builder(FIELD_FETCH_METRIC)
+              .tags(fieldTags)
+              .publishPercentileHistogram()
+              .register(meterRegistry);
+      errors = Counter.builder(FIELD_ERRORS_METRIC).tags(fieldTags).register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.graphql.web.instrumentation;
+
+import graphql.analysis.QueryReducer;
+import graphql.analysis.QueryTraverser;
+import graphql.analysis.QueryVisitorFieldEnvironment;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.SimpleInstrumentation;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.NodeUtil;
+import graphql.language.OperationDefinition;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.validation.ValidationError;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.stargate.graphql.schema.CassandraFetcher;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the cost of each operation before it gets executed, and rejects the operations that
+ * exceed the configured limits.
+ *
+ * <p>This is meant for the schemas generated by {@code DmlSchemaBuilder}. The cost of a field is 1
+ * plus the cost of its sub-selection, except for:
+ *
+ * <ul>
+ *   <li>table queries: the cost of the sub-selection is multiplied by the number of rows that can
+ *       be returned, in other words the page size (or the limit if it's lower).
+ *   <li>bulk mutations: the cost of a single mutation is multiplied by the number of values.
+ * </ul>
+ *
+ * The cost is also recorded as a metric, tagged by operation name. Since the names come from the
+ * client, the number of distinct values is bounded (see {@link BoundedTagValues}).
+ */
+public class QueryCostInstrumentation extends SimpleInstrumentation {
+
+  public static final String OPERATION_COST_METRIC = "graphql.operation.cost";
+  public static final String OPERATION_NAME_TAG = "operation_name";
+  /** The tag value of operations that don't have a name. */
+  public static final String UNNAMED_OPERATION = "unnamed";
+
+  private static final String QUERY_OPTIONS_TYPE = "QueryOptions";
+
+  private final int maxCost;
+  private final int maxDepth;
+  private final BoundedTagValues operationNames;
+  private final MeterRegistry meterRegistry;
+  private final Tags tags;
+
+  /**
+   * @param maxCost the maximum cost of an operation, or a negative value to disable the check.
+   * @param maxDepth the maximum depth of an operation, or a negative value to disable the check.
+   * @param operationNames the operation names that are allowed to be used as tags.
+   */
+  public QueryCostInstrumentation(
+      int maxCost,
+      int maxDepth,
+      BoundedTagValues operationNames,
+      MeterRegistry meterRegistry,
+      Tags tags) {
+    this.maxCost = maxCost;
+    this.maxDepth = maxDepth;
+    this.operationNames = operationNames;
+    this.meterRegistry = meterRegistry;
+    this.tags = tags;
+  }
+
+  @Override
+  public InstrumentationContext<List<ValidationError>> beginValidation(
+      InstrumentationValidationParameters parameters) {
+    return SimpleInstrumentationContext.whenCompleted(
+        (errors, throwable) -> {
+          if ((errors != null && !errors.isEmpty()) || throwable != null) {
+            // Invalid queries won't be executed anyway
+            return;
+          }
+          QueryTraverser traverser =
+              QueryTraverser.newQueryTraverser()
+                  .schema(parameters.getSchema())
+                  .document(parameters.getDocument())
+                  .operationName(parameters.getOperation())
+                  .variables(parameters.getVariables())
+                  .build();
+          CostReducer reducer = new CostReducer();
+          traverser.reducePostOrder(reducer, null);
+
+          OperationDefinition operation =
+              NodeUtil.getOperation(parameters.getDocument(), parameters.getOperation())
+                  .operationDefinition;
+          DistributionSummary.builder(OPERATION_COST_METRIC)
+              .tags(tags)
+              .tag(OPERATION_NAME_TAG, operationNameTag(operation))
+              .register(meterRegistry)
+              .record(reducer.totalCost);
+
+          if (maxDepth >= 0 && reducer.maxDepth > maxDepth) {
+            throw new AbortExecutionException(
+                String.format(
+                    "The operation's depth (%d) exceeds the maximum allowed (%d)",
+                    reducer.maxDepth, maxDepth));
+          }
+          if (maxCost >= 0 && reducer.totalCost > maxCost) {
+            throw new AbortExecutionException(
+                String.format(
+                    "The operation's estimated cost (%d) exceeds the maximum allowed (%d)",
+                    reducer.totalCost, maxCost));
+          }
+        });
+  }
+
+  private String operationNameTag(OperationDefinition operation) {
+    String name = operation.getName();
+    return name == null ? UNNAMED_OPERATION : operationNames.get(name);
+  }
+
+  private static long fieldCost(QueryVisitorFieldEnvironment environment, long selectionCost) {
+    GraphQLFieldDefinition definition = environment.getFieldDefinition();
+    Map<String, Object> arguments = environment.getArguments();
+
+    GraphQLArgument options = definition.getArgument("options");
+    if (options != null && QUERY_OPTIONS_TYPE.equals(typeName(options.getType()))) {
+      return 1 + selectionCost * rowCount(arguments.get("options"));
+    }
+
+    GraphQLArgument values = definition.getArgument("values");
+    if (values != null && GraphQLTypeUtil.unwrapNonNull(values.getType()) instanceof GraphQLList) {
+      Object valuesArgument = arguments.get("values");
+      int count = (valuesArgument instanceof List) ? ((List<?>) valuesArgument).size() : 0;
+      return (1 + selectionCost) * Math.max(count, 1);
+    }
+
+    return 1 + selectionCost;
+  }
+
+  private static long rowCount(Object optionsArgument) {
+    int pageSize = CassandraFetcher.DEFAULT_PAGE_SIZE;
+    Integer limit = null;
+    if (optionsArgument instanceof Map) {
+      Map<?, ?> options = (Map<?, ?>) optionsArgument;
+      Object pageSizeValue = options.get("pageSize");
+      if (pageSizeValue instanceof Integer) {
+        pageSize = (Integer) pageSizeValue;
+      }
+      Object limitValue = options.get("limit");
+      if (limitValue instanceof Integer) {
+        limit = (Integer) limitValue;
+      }
+    }
+    int rows = (limit == null) ? pageSize : Math.min(pageSize, limit);
+    return Math.max(rows, 1);
+  }
+
+  private static String typeName(GraphQLType type) {
+    GraphQLType unwrapped = GraphQLTypeUtil.unwrapAll(type);
+    return (unwrapped instanceof GraphQLNamedType)
+        ? ((GraphQLNamedType) unwrapped).getName()
+        : null;
+  }
+
+  /**
+   * Computes the cost bottom-up: when a field is visited, the cost of its sub-selection has already
+   * been accumulated by its children.
+   */
+  private static class CostReducer implements QueryReducer<Void> {
+
+    private final Map<QueryVisitorFieldEnvironment, Long> selectionCosts = new HashMap<>();
+    private long totalCost;
+    private int maxDepth;
+
+    @Override
+    public Void reduceField(QueryVisitorFieldEnvironment environment, Void acc) {
+      long cost = fieldCost(environment, selectionCosts.getOrDefault(environment, 0L));
+      QueryVisitorFieldEnvironment parent = environment.getParentEnvironment();
+      if (parent == null) {
+        totalCost += cost;
+      } else {
+        selectionCosts.merge(parent, cost, Long::sum);
+      }
+      maxDepth = Math.max(maxDepth, depth(environment));
+      return null;
+    }
+
+    private static int depth(QueryVisitorFieldEnvironment environment) {
+      int depth = 0;
+      while (environment != null) {
+        depth += 1;
+        environment = environment.getParentEnvironment();
+      }
+      return depth;
+    }
+  }
+}
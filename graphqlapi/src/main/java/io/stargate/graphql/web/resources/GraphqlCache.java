@@ -17,33 +17,59 @@ package io.stargate.graphql.web.resources;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.errorprone.annotations.FormatMethod;
 import com.google.errorprone.annotations.FormatString;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import graphql.GraphQL;
 import graphql.execution.AsyncExecutionStrategy;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
 import graphql.schema.GraphQLSchema;
+import io.micrometer.core.instrument.Timer;
 import io.stargate.auth.AuthenticationSubject;
+import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.Persistence;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.DataStoreFactory;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
 import io.stargate.db.schema.Keyspace;
+import io.stargate.graphql.GraphqlActivator;
 import io.stargate.graphql.persistence.graphqlfirst.SchemaSource;
 import io.stargate.graphql.persistence.graphqlfirst.SchemaSourceDao;
 import io.stargate.graphql.schema.cqlfirst.SchemaFactory;
+import io.stargate.graphql.schema.cqlfirst.dml.DmlSchemaBuilder;
+import io.stargate.graphql.schema.cqlfirst.dml.DmlTypeCache;
 import io.stargate.graphql.schema.graphqlfirst.AdminSchemaBuilder;
 import io.stargate.graphql.schema.graphqlfirst.migration.CassandraMigrator;
 import io.stargate.graphql.schema.graphqlfirst.processor.ProcessedSchema;
 import io.stargate.graphql.schema.graphqlfirst.processor.SchemaProcessor;
+import io.stargate.graphql.web.instrumentation.BoundedTagValues;
+import io.stargate.graphql.web.instrumentation.FieldMetricsInstrumentation;
+import io.stargate.graphql.web.instrumentation.QueryCostInstrumentation;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,15 +77,58 @@ import org.slf4j.LoggerFactory;
 /**
  * Manages the {@link GraphQL} instances used by our REST resources.
  *
- * <p>This includes staying up to date with CQL schema changes.
+ * <p>This includes staying up to date with CQL schema changes: when a CQL-first keyspace changes,
+ * its schema is rebuilt in the background, and the previous version keeps serving requests until
+ * the new one is ready.
  */
 public class GraphqlCache implements KeyspaceChangeListener {
 
   private static final Logger LOG = LoggerFactory.getLogger(GraphqlCache.class);
   private static final boolean DISABLE_DEFAULT_KEYSPACE =
       Boolean.getBoolean("stargate.graphql.default_keyspace.disabled");
+  private static final int SCHEMA_BUILDER_THREADS =
+      Integer.getInteger("stargate.graphql.schema_builder_threads", 2);
+
+  /**
+   * Where to record the CQL-first keyspaces that recently served requests, in order to pre-warm
+   * them the next time the cache starts. Pre-warming is disabled if this is not set.
+   */
+  private static final String PREWARM_FILE = System.getProperty("stargate.graphql.prewarm.file");
+
+  private static final long PREWARM_MAX_AGE_MILLIS =
+      TimeUnit.MINUTES.toMillis(Long.getLong("stargate.graphql.prewarm.max_age_minutes", 1440));
+  private static final long PREWARM_SAVE_PERIOD_SECONDS =
+      Long.getLong("stargate.graphql.prewarm.save_period_seconds", 300);
+
+  /** The maximum estimated cost of a CQL-first operation. Negative means unlimited. */
+  private static final int MAX_OPERATION_COST =
+      Integer.getInteger("stargate.graphql.max_operation_cost", -1);
+  /** The maximum field depth of a CQL-first operation. Negative means unlimited. */
+  private static final int MAX_OPERATION_DEPTH =
+      Integer.getInteger("stargate.graphql.max_operation_depth", -1);
+
+  private static final boolean DISABLE_FIELD_METRICS =
+      Boolean.getBoolean("stargate.graphql.field_metrics.disabled");
+  /** The fraction of CQL-first field fetches that get timed. */
+  private static final double FIELD_METRICS_SAMPLE_RATE =
+      Double.parseDouble(System.getProperty("stargate.graphql.field_metrics.sample_rate", "1"));
+  /** How many distinct fields (across all keyspaces) can be tagged in the field metrics. */
+  private static final int FIELD_METRICS_MAX_FIELDS =
+      Integer.getInteger("stargate.graphql.field_metrics.max_fields", 200);
+
+  /** How many distinct operation names can be tagged in the operation cost metric. */
+  private static final int OPERATION_METRICS_MAX_NAMES =
+      Integer.getInteger("stargate.graphql.operation_metrics.max_names", 100);
+
+  /** How many distinct keyspaces can be tagged in the schema build metric. */
+  private static final int SCHEMA_METRICS_MAX_KEYSPACES =
+      Integer.getInteger("stargate.graphql.schema_metrics.max_keyspaces", 100);
+
+  private static final String SCHEMA_BUILD_METRIC = "graphql.schema.build";
+  private static final String KEYSPACE_TAG = "keyspace";
 
   private final Persistence persistence;
+  private final Metrics metrics;
   private final boolean enableGraphqlFirst;
 
   private final GraphQL ddlGraphql;
@@ -67,16 +136,70 @@ public class GraphqlCache implements KeyspaceChangeListener {
   private final String defaultKeyspace;
   private final ConcurrentMap<String, GraphqlHolder> dmlGraphqls = new ConcurrentHashMap<>();
 
+  /** The keyspaces that have a background rebuild scheduled but not started yet. */
+  private final Set<String> pendingRebuilds = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Orders CQL-first builds: a build only replaces the cached version if it was started after it.
+   */
+  private final AtomicLong buildGenerations = new AtomicLong();
+
+  private final ScheduledExecutorService schemaBuilder;
+  private final Instrumentation dmlInstrumentation;
+  private final BoundedTagValues metricFields = new BoundedTagValues(FIELD_METRICS_MAX_FIELDS);
+  private final BoundedTagValues metricKeyspaces =
+      new BoundedTagValues(SCHEMA_METRICS_MAX_KEYSPACES);
+
   public GraphqlCache(
-      Persistence persistence, DataStoreFactory dataStoreFactory, boolean enableGraphqlFirst) {
+      Persistence persistence,
+      DataStoreFactory dataStoreFactory,
+      Metrics metrics,
+      boolean enableGraphqlFirst) {
     this.persistence = persistence;
+    this.metrics = metrics;
     this.enableGraphqlFirst = enableGraphqlFirst;
+    this.dmlInstrumentation =
+        new QueryCostInstrumentation(
+            MAX_OPERATION_COST,
+            MAX_OPERATION_DEPTH,
+            new BoundedTagValues(OPERATION_METRICS_MAX_NAMES),
+            metrics.getMeterRegistry(),
+            metrics.tagsForModule(GraphqlActivator.MODULE_NAME));
 
     this.ddlGraphql = newGraphql(SchemaFactory.newDdlSchema());
     this.schemaFirstAdminGraphql = GraphQL.newGraphQL(new AdminSchemaBuilder().build()).build();
     this.defaultKeyspace = findDefaultKeyspace(dataStoreFactory.createInternal());
+    this.schemaBuilder =
+        Executors.newScheduledThreadPool(
+            SCHEMA_BUILDER_THREADS,
+            new ThreadFactoryBuilder()
+                .setNameFormat("graphql-schema-builder-%d")
+                .setDaemon(true)
+                .build());
 
     persistence.registerEventListener(this);
+
+    if (PREWARM_FILE != null) {
+      Path prewarmFile = Paths.get(PREWARM_FILE);
+      prewarm(prewarmFile);
+      schemaBuilder.scheduleWithFixedDelay(
+          () -> saveRecentKeyspaces(prewarmFile),
+          PREWARM_SAVE_PERIOD_SECONDS,
+          PREWARM_SAVE_PERIOD_SECONDS,
+          TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Stops listening to schema changes and stops background builds, and records the recently used
+   * keyspaces if pre-warming is enabled.
+   */
+  public void close() {
+    persistence.unregisterEventListener(this);
+    schemaBuilder.shutdownNow();
+    if (PREWARM_FILE != null) {
+      saveRecentKeyspaces(Paths.get(PREWARM_FILE));
+    }
   }
 
   public GraphQL getDdl() {
@@ -97,6 +220,7 @@ public class GraphqlCache implements KeyspaceChangeListener {
     final GraphqlHolder currentHolder = dmlGraphqls.get(decoratedKeyspaceName);
     if (currentHolder != null && currentHolder.matches(latestSource)) {
       LOG.trace("Returning cached schema for {}", decoratedKeyspaceName);
+      currentHolder.markAccessed();
       return currentHolder.getGraphql();
     }
 
@@ -112,7 +236,7 @@ public class GraphqlCache implements KeyspaceChangeListener {
         (currentHolder == null) ? "wasn't cached before" : "schema has changed");
     GraphqlHolder newHolder =
         (latestSource == null)
-            ? new LazyCqlFirstGraphqlHolder(keyspace)
+            ? new LazyCqlFirstGraphqlHolder(decoratedKeyspaceName, keyspace, null)
             : new LazySchemaFirstGraphqlHolder(latestSource, keyspace);
 
     // Put with a CAS, in case someone else deployed the new version before us:
@@ -138,10 +262,29 @@ public class GraphqlCache implements KeyspaceChangeListener {
   }
 
   private static GraphQL newGraphql(GraphQLSchema schema) {
+    return newGraphqlBuilder(schema).build();
+  }
+
+  private static GraphQL.Builder newGraphqlBuilder(GraphQLSchema schema) {
     return GraphQL.newGraphQL(schema)
         // Use parallel execution strategy for mutations (serial is default)
-        .mutationExecutionStrategy(new AsyncExecutionStrategy())
-        .build();
+        .mutationExecutionStrategy(new AsyncExecutionStrategy());
+  }
+
+  private GraphQL newDmlGraphql(GraphQLSchema schema, String keyspaceName) {
+    Instrumentation instrumentation =
+        DISABLE_FIELD_METRICS
+            ? dmlInstrumentation
+            : new ChainedInstrumentation(
+                Arrays.asList(
+                    dmlInstrumentation,
+                    new FieldMetricsInstrumentation(
+                        keyspaceName,
+                        FIELD_METRICS_SAMPLE_RATE,
+                        metricFields,
+                        metrics.getMeterRegistry(),
+                        metrics.tagsForModule(GraphqlActivator.MODULE_NAME))));
+    return newGraphqlBuilder(schema).instrumentation(instrumentation).build();
   }
 
   /** Populate a default keyspace to allow for omitting the keyspace from the path of requests. */
@@ -191,17 +334,17 @@ public class GraphqlCache implements KeyspaceChangeListener {
   public void onKeyspaceChanged(
       String decoratedKeyspaceName, @FormatString String reason, Object... reasonArguments) {
 
-    // CQL-first schemas react to CQL schema changes: invalidate the cached version so that it gets
-    // regenerated.
+    // CQL-first schemas react to CQL schema changes: regenerate the cached version in the
+    // background. It keeps serving requests in the meantime.
     GraphqlHolder holder = dmlGraphqls.get(decoratedKeyspaceName);
-    if (holder != null
-        && holder.isCqlFirst()
-        && dmlGraphqls.remove(decoratedKeyspaceName) != null
-        && LOG.isDebugEnabled()) {
-      LOG.debug(
-          "Invalidated GraphQL schema for keyspace {} because {}",
-          decoratedKeyspaceName,
-          String.format(reason, reasonArguments));
+    if (holder != null && holder.isCqlFirst()) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(
+            "Rebuilding GraphQL schema for keyspace {} because {}",
+            decoratedKeyspaceName,
+            String.format(reason, reasonArguments));
+      }
+      scheduleRebuild(decoratedKeyspaceName);
     }
 
     // Don't do anything for GraphQL-first schemas: we can't really accommodate external CQL
@@ -209,6 +352,131 @@ public class GraphqlCache implements KeyspaceChangeListener {
     // It is assumed that the data model will only evolve by deploying new GraphQL schema versions.
   }
 
+  private void scheduleRebuild(String decoratedKeyspaceName) {
+    // If a rebuild is already pending, it hasn't read the schema yet so it will see this change.
+    if (pendingRebuilds.add(decoratedKeyspaceName)) {
+      try {
+        schemaBuilder.execute(() -> rebuild(decoratedKeyspaceName));
+      } catch (RejectedExecutionException e) {
+        // We're shutting down
+        pendingRebuilds.remove(decoratedKeyspaceName);
+      }
+    }
+  }
+
+  private void rebuild(String decoratedKeyspaceName) {
+    pendingRebuilds.remove(decoratedKeyspaceName);
+
+    GraphqlHolder currentHolder = dmlGraphqls.get(decoratedKeyspaceName);
+    if (!(currentHolder instanceof LazyCqlFirstGraphqlHolder)) {
+      return;
+    }
+    String keyspaceName = ((LazyCqlFirstGraphqlHolder) currentHolder).keyspaceName;
+    Keyspace keyspace = persistence.schema().keyspace(keyspaceName);
+    if (keyspace == null) {
+      LOG.debug("Keyspace {} does not exist anymore, invalidating", decoratedKeyspaceName);
+      dmlGraphqls.remove(decoratedKeyspaceName, currentHolder);
+      return;
+    }
+
+    // Reuse the types of the tables that haven't changed
+    LazyCqlFirstGraphqlHolder newHolder =
+        new LazyCqlFirstGraphqlHolder(
+            decoratedKeyspaceName, keyspace, ((LazyCqlFirstGraphqlHolder) currentHolder).typeCache);
+    newHolder.lastAccessMillis = currentHolder.getLastAccessMillis();
+    try {
+      newHolder.getGraphql();
+    } catch (Exception e) {
+      // Keep the previous entry in place, it still serves requests, and we'll retry on the next
+      // change.
+      LOG.warn("Error while rebuilding GraphQL schema for keyspace {}", decoratedKeyspaceName, e);
+      return;
+    }
+    dmlGraphqls.computeIfPresent(
+        decoratedKeyspaceName,
+        (__, v) ->
+            (v instanceof LazyCqlFirstGraphqlHolder
+                    && ((LazyCqlFirstGraphqlHolder) v).generation < newHolder.generation)
+                ? newHolder
+                : v);
+  }
+
+  private void prewarm(Path prewarmFile) {
+    if (!Files.exists(prewarmFile)) {
+      return;
+    }
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(prewarmFile, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      LOG.warn("Could not read GraphQL pre-warm file {}", prewarmFile, e);
+      return;
+    }
+    long minAccessMillis = System.currentTimeMillis() - PREWARM_MAX_AGE_MILLIS;
+    for (String line : lines) {
+      String[] fields = line.split("\t");
+      if (fields.length != 3) {
+        continue;
+      }
+      String decoratedKeyspaceName = fields[0];
+      String keyspaceName = fields[1];
+      long lastAccessMillis;
+      try {
+        lastAccessMillis = Long.parseLong(fields[2]);
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      if (lastAccessMillis < minAccessMillis) {
+        continue;
+      }
+      Keyspace keyspace = persistence.schema().keyspace(keyspaceName);
+      if (keyspace == null) {
+        continue;
+      }
+      LazyCqlFirstGraphqlHolder holder =
+          new LazyCqlFirstGraphqlHolder(decoratedKeyspaceName, keyspace, null);
+      holder.lastAccessMillis = lastAccessMillis;
+      if (dmlGraphqls.putIfAbsent(decoratedKeyspaceName, holder) == null) {
+        LOG.debug("Pre-warming GraphQL schema for keyspace {}", decoratedKeyspaceName);
+        schemaBuilder.execute(
+            () -> {
+              try {
+                holder.getGraphql();
+              } catch (Exception e) {
+                LOG.warn(
+                    "Error while pre-warming GraphQL schema for keyspace {}",
+                    decoratedKeyspaceName,
+                    e);
+              }
+            });
+      }
+    }
+  }
+
+  private void saveRecentKeyspaces(Path prewarmFile) {
+    long minAccessMillis = System.currentTimeMillis() - PREWARM_MAX_AGE_MILLIS;
+    List<String> lines = new ArrayList<>();
+    for (GraphqlHolder holder : dmlGraphqls.values()) {
+      if (holder instanceof LazyCqlFirstGraphqlHolder
+          && holder.getLastAccessMillis() >= minAccessMillis) {
+        LazyCqlFirstGraphqlHolder cqlFirstHolder = (LazyCqlFirstGraphqlHolder) holder;
+        lines.add(
+            String.format(
+                "%s\t%s\t%d",
+                cqlFirstHolder.decoratedKeyspaceName,
+                cqlFirstHolder.keyspaceName,
+                cqlFirstHolder.getLastAccessMillis()));
+      }
+    }
+    try {
+      Path tmpFile = prewarmFile.resolveSibling(prewarmFile.getFileName() + ".tmp");
+      Files.write(tmpFile, lines, StandardCharsets.UTF_8);
+      Files.move(tmpFile, prewarmFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOG.warn("Could not write GraphQL pre-warm file {}", prewarmFile, e);
+    }
+  }
+
   /**
    * An entry that holds the GraphQL schema cached for a particular keyspace (either CQL-first or
    * GraphQL-first, depending on whether a custom schema was deployed).
@@ -223,15 +491,60 @@ public class GraphqlCache implements KeyspaceChangeListener {
     boolean matches(@Nullable SchemaSource source);
 
     boolean isCqlFirst();
+
+    /** Records that the schema was used to serve a request. */
+    default void markAccessed() {}
+
+    default long getLastAccessMillis() {
+      return 0;
+    }
   }
 
-  /** Entry for a CQL-first keyspace. */
-  static class LazyCqlFirstGraphqlHolder implements GraphqlHolder {
+  /**
+   * Entry for a CQL-first keyspace.
+   *
+   * <p>The schema is built on first access, or eagerly by a background rebuild.
+   */
+  class LazyCqlFirstGraphqlHolder implements GraphqlHolder {
 
+    private final String decoratedKeyspaceName;
+    private final String keyspaceName;
+    private final long generation;
     private final Supplier<GraphQL> graphqlSupplier;
+    private volatile long lastAccessMillis;
+    /** The types generated by the build, or null if it hasn't happened yet. */
+    private volatile DmlTypeCache typeCache;
+
+    LazyCqlFirstGraphqlHolder(
+        String decoratedKeyspaceName, Keyspace keyspace, @Nullable DmlTypeCache previousTypes) {
+      this.decoratedKeyspaceName = decoratedKeyspaceName;
+      this.keyspaceName = keyspace.name();
+      this.generation = buildGenerations.incrementAndGet();
+      this.lastAccessMillis = System.currentTimeMillis();
+      graphqlSupplier =
+          Suppliers.memoize(
+              () -> {
+                long start = System.nanoTime();
+                DmlSchemaBuilder dmlSchemaBuilder = new DmlSchemaBuilder(keyspace, previousTypes);
+                GraphQL graphql = newDmlGraphql(dmlSchemaBuilder.build(), keyspaceName);
+                typeCache = dmlSchemaBuilder.getTypeCache();
+                Timer.builder(SCHEMA_BUILD_METRIC)
+                    .tags(metrics.tagsForModule(GraphqlActivator.MODULE_NAME))
+                    .tag(KEYSPACE_TAG, metricKeyspaces.get(decoratedKeyspaceName))
+                    .register(metrics.getMeterRegistry())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return graphql;
+              });
+    }
 
-    LazyCqlFirstGraphqlHolder(Keyspace keyspace) {
-      graphqlSupplier = Suppliers.memoize(() -> newGraphql(SchemaFactory.newDmlSchema(keyspace)));
+    @Override
+    public void markAccessed() {
+      lastAccessMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public long getLastAccessMillis() {
+      return lastAccessMillis;
     }
 
     @Override
@@ -110,6 +110,16 @@ public abstract class GraphQlTestBase {
    * <p>You can also access {@link #graphQl} directly in subclasses.
    */
   protected ExecutionResult executeGraphQl(String query) {
+    return graphQl.execute(ExecutionInput.newExecutionInput(query).context(newContext()).build());
+  }
+
+  /** Same as {@link #executeGraphQl(String)}, but without waiting for the result. */
+  protected CompletableFuture<ExecutionResult> executeGraphQlAsync(String query) {
+    return graphQl.executeAsync(
+        ExecutionInput.newExecutionInput(query).context(newContext()).build());
+  }
+
+  private StargateGraphqlContext newContext() {
     // Use a context mock per execution
     StargateGraphqlContext context = mock(StargateGraphqlContext.class);
 
@@ -120,8 +130,7 @@ public abstract class GraphQlTestBase {
     when(context.getSubject()).thenReturn(authenticationSubject);
     when(context.getAuthorizationService()).thenReturn(authorizationService);
     when(context.getDataStore()).thenReturn(dataStore);
-
-    return graphQl.execute(ExecutionInput.newExecutionInput(query).context(context).build());
+    return context;
   }
 
   private String queryString(BoundQuery boundQuery) {
@@ -0,0 +1,151 @@
+package io.stargate.graphql.schema.cqlfirst.dml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLSchemaElement;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeReference;
+import graphql.schema.GraphQLTypeVisitorStub;
+import graphql.schema.SchemaTraverser;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.ImmutableColumn;
+import io.stargate.db.schema.ImmutableKeyspace;
+import io.stargate.db.schema.ImmutableTable;
+import io.stargate.db.schema.Keyspace;
+import io.stargate.db.schema.Table;
+import io.stargate.db.schema.UserDefinedType;
+import io.stargate.graphql.schema.SampleKeyspaces;
+import io.stargate.graphql.schema.cqlfirst.dml.DmlTypeCache.TableFragment;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DmlSchemaReuseTest {
+
+  @Test
+  @DisplayName("Should only regenerate the tables that have changed")
+  public void regenerateChangedTables() {
+    DmlSchemaBuilder firstBuilder = new DmlSchemaBuilder(SampleKeyspaces.LIBRARY);
+    GraphQLSchema firstSchema = firstBuilder.build();
+
+    Table books = SampleKeyspaces.LIBRARY.table("books");
+    Table alteredBooks =
+        ImmutableTable.builder()
+            .from(books)
+            .addColumns(
+                ImmutableColumn.builder()
+                    .keyspace("library")
+                    .table("books")
+                    .name("isbn")
+                    .type(Type.Text)
+                    .kind(Column.Kind.Regular)
+                    .build())
+            .build();
+    Keyspace alteredLibrary =
+        ImmutableKeyspace.builder()
+            .from(SampleKeyspaces.LIBRARY)
+            .tables(ImmutableSet.of(SampleKeyspaces.LIBRARY.table("authors"), alteredBooks))
+            .build();
+
+    GraphQLSchema secondSchema =
+        new DmlSchemaBuilder(alteredLibrary, firstBuilder.getTypeCache()).build();
+
+    assertThat(secondSchema.getType("authors")).isSameAs(firstSchema.getType("authors"));
+    assertThat(secondSchema.getType("authorsInput")).isSameAs(firstSchema.getType("authorsInput"));
+    assertThat(secondSchema.getType("books")).isNotSameAs(firstSchema.getType("books"));
+    assertThat(((GraphQLObjectType) secondSchema.getType("books")).getFieldDefinition("isbn"))
+        .isNotNull();
+    assertThat(secondSchema.getQueryType().getFieldDefinition("authors"))
+        .isSameAs(firstSchema.getQueryType().getFieldDefinition("authors"));
+  }
+
+  @Test
+  @DisplayName("Should reuse UDT types across builds")
+  public void reuseUdtTypes() {
+    DmlSchemaBuilder firstBuilder = new DmlSchemaBuilder(SampleKeyspaces.UDTS);
+    GraphQLSchema firstSchema = firstBuilder.build();
+
+    UserDefinedType aType = SampleKeyspaces.UDTS.userDefinedType("A");
+    Keyspace alteredUdts =
+        ImmutableKeyspace.builder()
+            .from(SampleKeyspaces.UDTS)
+            .addTables(
+                ImmutableTable.builder()
+                    .keyspace("udts")
+                    .name("OtherTable")
+                    .addColumns(
+                        ImmutableColumn.builder()
+                            .keyspace("udts")
+                            .table("OtherTable")
+                            .name("a")
+                            .type(aType.frozen(true))
+                            .kind(Column.Kind.PartitionKey)
+                            .build())
+                    .build())
+            .build();
+
+    // This would fail if the new table used a different instance of the UDT types
+    GraphQLSchema secondSchema =
+        new DmlSchemaBuilder(alteredUdts, firstBuilder.getTypeCache()).build();
+
+    assertThat(secondSchema.getType("TestTable")).isSameAs(firstSchema.getType("TestTable"));
+    assertThat(secondSchema.getType("AUdt")).isSameAs(firstSchema.getType("AUdt"));
+    assertThat(secondSchema.getType("AUdtInput")).isSameAs(firstSchema.getType("AUdtInput"));
+    assertThat(secondSchema.getType("OtherTable")).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Should not modify the reused types when building a new schema")
+  public void reusedTypesAreNotModified() {
+    DmlSchemaBuilder firstBuilder = new DmlSchemaBuilder(SampleKeyspaces.LIBRARY);
+    GraphQLSchema firstSchema = firstBuilder.build();
+    DmlTypeCache firstTypes = firstBuilder.getTypeCache();
+
+    // graphql-java only modifies types in place to replace their type references, the reused
+    // types must not have any left
+    List<GraphQLSchemaElement> reusedElements = new ArrayList<>();
+    for (TableFragment fragment : firstTypes.tableFragments.values()) {
+      reusedElements.addAll(fragment.additionalTypes);
+      reusedElements.addAll(fragment.queryFields);
+      reusedElements.addAll(fragment.mutationFields);
+    }
+    List<GraphQLTypeReference> references = new ArrayList<>();
+    new SchemaTraverser()
+        .depthFirst(
+            new GraphQLTypeVisitorStub() {
+              @Override
+              public TraversalControl visitGraphQLTypeReference(
+                  GraphQLTypeReference node, TraverserContext<GraphQLSchemaElement> context) {
+                references.add(node);
+                return TraversalControl.CONTINUE;
+              }
+            },
+            reusedElements);
+    assertThat(references).isEmpty();
+
+    GraphQLFieldDefinition authorsQuery = firstSchema.getQueryType().getFieldDefinition("authors");
+    GraphQLType filterType = authorsQuery.getArgument("filter").getType();
+    GraphQLType optionsType = authorsQuery.getArgument("options").getType();
+
+    Keyspace alteredLibrary =
+        ImmutableKeyspace.builder()
+            .from(SampleKeyspaces.LIBRARY)
+            .tables(ImmutableSet.of(SampleKeyspaces.LIBRARY.table("authors")))
+            .build();
+    GraphQLSchema secondSchema = new DmlSchemaBuilder(alteredLibrary, firstTypes).build();
+
+    assertThat(secondSchema.getQueryType().getFieldDefinition("authors")).isSameAs(authorsQuery);
+    assertThat(authorsQuery.getArgument("filter").getType()).isSameAs(filterType);
+    assertThat(authorsQuery.getArgument("options").getType()).isSameAs(optionsType);
+    assertThat(secondSchema.getType("authorsFilterInput")).isSameAs(filterType);
+    assertThat(secondSchema.getType("QueryOptions")).isSameAs(optionsType);
+  }
+}
@@ -16,19 +16,37 @@
 package io.stargate.graphql.schema.cqlfirst.dml.fetchers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableMap;
 import graphql.ExecutionResult;
 import graphql.GraphQLError;
+import io.stargate.db.BatchType;
 import io.stargate.db.Parameters;
+import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.query.BoundQuery;
 import io.stargate.db.schema.Schema;
 import io.stargate.graphql.schema.SampleKeyspaces;
 import io.stargate.graphql.schema.cqlfirst.dml.DmlTestBase;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.cassandra.stargate.db.ConsistencyLevel;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 
 public class BulkMutationFetcherTest extends DmlTestBase {
   @Override
@@ -128,4 +146,108 @@ public class BulkMutationFetcherTest extends DmlTestBase {
             "Exception while fetching data (/m1) : graphql.GraphQLException: options can only de defined once in an @atomic mutation selection",
             "Exception while fetching data (/m2) : graphql.GraphQLException: options can only de defined once in an @atomic mutation selection");
   }
+
+  @Test
+  @DisplayName("Bulk mutations should group values by partition into unlogged batches")
+  public void mutationBulkGroupedByPartitionTest() {
+    ArgumentCaptor<Collection<BoundQuery>> unloggedBatchCaptor = mockUnloggedBatch();
+
+    ExecutionResult result =
+        executeGraphQl(
+            "mutation { bulkInsertauthors(values: ["
+                + "{ author: \"G.O.\", title: \"1984\" },"
+                + "{ author: \"A.H.\", title: \"Brave New World\" },"
+                + "{ author: \"G.O.\", title: \"Animal Farm\" }"
+                + "]) { applied, value { title } } }");
+
+    assertThat(result.getErrors()).isEmpty();
+    assertThat(unloggedBatchCaptor.getAllValues()).hasSize(1);
+    assertThat(unloggedBatchCaptor.getValue()).hasSize(2);
+    verify(dataStore, times(1)).execute(any(BoundQuery.class), any(UnaryOperator.class));
+    // Results are returned in the order of the values
+    Map<String, List<Map<String, Map<String, Object>>>> data = result.getData();
+    assertThat(data.get("bulkInsertauthors"))
+        .extracting(r -> r.get("value").get("title"))
+        .containsExactly("1984", "Brave New World", "Animal Farm");
+  }
+
+  @Test
+  @DisplayName("Bulk mutations should report errors for the failed values only")
+  public void mutationBulkPartialFailureTest() {
+    mockUnloggedBatch();
+    CompletableFuture<ResultSet> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("Mock failure"));
+    when(dataStore.execute(any(BoundQuery.class), any(UnaryOperator.class))).thenReturn(failed);
+
+    ExecutionResult result =
+        executeGraphQl(
+            "mutation { bulkInsertauthors(values: ["
+                + "{ author: \"G.O.\", title: \"1984\" },"
+                + "{ author: \"A.H.\", title: \"Brave New World\" },"
+                + "{ author: \"G.O.\", title: \"Animal Farm\" }"
+                + "]) { applied } }");
+
+    assertThat(result.getErrors()).hasSize(1);
+    assertThat(result.getErrors().get(0).getPath()).containsExactly("bulkInsertauthors", 1);
+    Map<String, Object> data = result.getData();
+    assertThat(data.get("bulkInsertauthors"))
+        .asList()
+        .containsExactly(ImmutableMap.of("applied", true), null, ImmutableMap.of("applied", true));
+  }
+
+  @Test
+  @DisplayName("Conditional bulk mutations should not be grouped")
+  public void mutationBulkConditionalNotGroupedTest() {
+    ArgumentCaptor<Collection<BoundQuery>> unloggedBatchCaptor = mockUnloggedBatch();
+
+    ExecutionResult result =
+        executeGraphQl(
+            "mutation { bulkInsertauthors(ifNotExists: true, values: ["
+                + "{ author: \"G.O.\", title: \"1984\" },"
+                + "{ author: \"G.O.\", title: \"Animal Farm\" }"
+                + "]) { applied } }");
+
+    assertThat(result.getErrors()).isEmpty();
+    assertThat(unloggedBatchCaptor.getAllValues()).isEmpty();
+    verify(dataStore, times(2)).execute(any(BoundQuery.class), any(UnaryOperator.class));
+  }
+
+  @Test
+  @DisplayName("Bulk mutations should not wait for a slow group to execute the other groups")
+  public void mutationBulkSlowGroupTest() {
+    int count = BulkMutationFetcher.MAX_CONCURRENT_BATCHES * 2;
+    ResultSet resultSet = mock(ResultSet.class);
+    when(resultSet.currentPageRows()).thenReturn(Collections.emptyList());
+    CompletableFuture<ResultSet> slow = new CompletableFuture<>();
+    when(dataStore.execute(any(BoundQuery.class), any(UnaryOperator.class)))
+        .thenReturn(slow)
+        .thenReturn(CompletableFuture.completedFuture(resultSet));
+
+    // Conditional queries are not grouped, so each value is its own group
+    String values =
+        IntStream.range(0, count)
+            .mapToObj(i -> String.format("{ author: \"a%d\", title: \"t%d\" }", i, i))
+            .collect(Collectors.joining(","));
+    CompletableFuture<ExecutionResult> result =
+        executeGraphQlAsync(
+            "mutation { bulkInsertauthors(ifNotExists: true, values: ["
+                + values
+                + "]) { applied } }");
+
+    verify(dataStore, times(count)).execute(any(BoundQuery.class), any(UnaryOperator.class));
+    assertThat(result).isNotDone();
+
+    slow.complete(resultSet);
+    assertThat(result.join().getErrors()).isEmpty();
+  }
+
+  private ArgumentCaptor<Collection<BoundQuery>> mockUnloggedBatch() {
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Collection<BoundQuery>> captor = ArgumentCaptor.forClass(Collection.class);
+    ResultSet batchResultSet = mock(ResultSet.class);
+    when(batchResultSet.currentPageRows()).thenReturn(Collections.emptyList());
+    when(dataStore.batch(captor.capture(), eq(BatchType.UNLOGGED), any()))
+        .thenReturn(CompletableFuture.completedFuture(batchResultSet));
+    return captor;
+  }
 }
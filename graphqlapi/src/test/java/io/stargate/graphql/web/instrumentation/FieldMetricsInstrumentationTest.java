@@ -0,0 +1,121 @@
+package io.stargate.graphql.web.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.AsyncExecutionStrategy;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.query.BoundQuery;
+import io.stargate.db.schema.Schema;
+import io.stargate.graphql.schema.SampleKeyspaces;
+import io.stargate.graphql.schema.cqlfirst.dml.DmlTestBase;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FieldMetricsInstrumentationTest extends DmlTestBase {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Override
+  public Schema getCQLSchema() {
+    return Schema.create(Collections.singleton(SampleKeyspaces.LIBRARY));
+  }
+
+  @BeforeEach
+  public void setupInstrumentation() {
+    when(resultSet.currentPageRows()).thenReturn(Collections.emptyList());
+    when(resultSet.rows()).thenReturn(Collections.emptyList());
+    useInstrumentation(new BoundedTagValues(10));
+  }
+
+  @Test
+  @DisplayName("Should time non-trivial fetchers")
+  public void recordLatency() {
+    ExecutionResult result = executeGraphQl("{ books { values { title } } }");
+    assertThat(result.getErrors()).isEmpty();
+
+    assertThat(
+            meterRegistry
+                .get(FieldMetricsInstrumentation.FIELD_FETCH_METRIC)
+                .tag(FieldMetricsInstrumentation.KEYSPACE_TAG, "library")
+                .tag(FieldMetricsInstrumentation.PARENT_TYPE_TAG, "Query")
+                .tag(FieldMetricsInstrumentation.FIELD_TAG, "books")
+                .tag(FieldMetricsInstrumentation.OPERATION_TYPE_TAG, "query")
+                .timer()
+                .count())
+        .isEqualTo(1);
+    // Trivial fetchers are not instrumented
+    assertThat(
+            meterRegistry
+                .find(FieldMetricsInstrumentation.FIELD_FETCH_METRIC)
+                .tag(FieldMetricsInstrumentation.FIELD_TAG, "title")
+                .timers())
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should count fetcher errors")
+  public void countErrors() {
+    CompletableFuture<ResultSet> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("Mock failure"));
+    when(dataStore.execute(any(BoundQuery.class), any(UnaryOperator.class))).thenReturn(failed);
+
+    ExecutionResult result =
+        executeGraphQl("mutation { insertbooks(value: { title: \"a\" }) { applied } }");
+    assertThat(result.getErrors()).hasSize(1);
+
+    assertThat(
+            meterRegistry
+                .get(FieldMetricsInstrumentation.FIELD_ERRORS_METRIC)
+                .tag(FieldMetricsInstrumentation.PARENT_TYPE_TAG, "Mutation")
+                .tag(FieldMetricsInstrumentation.FIELD_TAG, "insertbooks")
+                .tag(FieldMetricsInstrumentation.OPERATION_TYPE_TAG, "mutation")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should report fields beyond the cap as 'other'")
+  public void capFields() {
+    useInstrumentation(new BoundedTagValues(1));
+
+    executeGraphQl("{ books { values { title } } }");
+    executeGraphQl("{ authors { values { title } } }");
+
+    assertThat(
+            meterRegistry
+                .get(FieldMetricsInstrumentation.FIELD_FETCH_METRIC)
+                .tag(FieldMetricsInstrumentation.FIELD_TAG, "books")
+                .timer()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            meterRegistry
+                .get(FieldMetricsInstrumentation.FIELD_FETCH_METRIC)
+                .tag(FieldMetricsInstrumentation.PARENT_TYPE_TAG, BoundedTagValues.OTHER)
+                .tag(FieldMetricsInstrumentation.FIELD_TAG, BoundedTagValues.OTHER)
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  private void useInstrumentation(BoundedTagValues fields) {
+    meterRegistry.clear();
+    graphQl =
+        GraphQL.newGraphQL(graphQlSchema)
+            .mutationExecutionStrategy(new AsyncExecutionStrategy())
+            .instrumentation(
+                new FieldMetricsInstrumentation("library", 1, fields, meterRegistry, Tags.empty()))
+            .build();
+  }
+}
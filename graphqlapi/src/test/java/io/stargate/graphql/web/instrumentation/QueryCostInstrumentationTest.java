@@ -0,0 +1,125 @@
+package io.stargate.graphql.web.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.stargate.graphql.schema.SampleKeyspaces;
+import io.stargate.graphql.schema.cqlfirst.SchemaFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class QueryCostInstrumentationTest {
+
+  private static final GraphQLSchema SCHEMA = SchemaFactory.newDmlSchema(SampleKeyspaces.LIBRARY);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  @DisplayName("Should multiply the cost of table queries by the number of rows")
+  public void queryCost() {
+    // books: 1 + 100 rows * (values: 1 + title: 1) = 201
+    assertThat(cost("query Books { books { values { title } } }", "Books")).isEqualTo(201);
+    // books: 1 + 10 rows * (values: 1 + title: 1 + author: 1) = 31
+    assertThat(
+            cost(
+                "query Books { books(options: { pageSize: 10 }) { values { title, author } } }",
+                "Books"))
+        .isEqualTo(31);
+    // The limit wins if it's lower than the page size
+    assertThat(
+            cost(
+                "query Books { books(options: { pageSize: 10, limit: 2 }) { values { title } } }",
+                "Books"))
+        .isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should multiply the cost of bulk mutations by the number of values")
+  public void bulkMutationCost() {
+    // 3 * (bulkInsertbooks: 1 + applied: 1) = 6
+    assertThat(
+            cost(
+                "mutation Insert { bulkInsertbooks(values: ["
+                    + "{ title: \"a\" }, { title: \"b\" }, { title: \"c\" }"
+                    + "]) { applied } }",
+                "Insert"))
+        .isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("Should reject operations that exceed the maximum cost")
+  public void rejectOverMaxCost() {
+    GraphQL graphql = newGraphql(newInstrumentation(200, -1, new BoundedTagValues(10)));
+
+    ExecutionResult result = graphql.execute("{ books { values { title } } }");
+
+    assertThat(result.getErrors()).hasSize(1);
+    assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The operation's estimated cost (201) exceeds the maximum allowed (200)");
+  }
+
+  @Test
+  @DisplayName("Should reject operations that exceed the maximum depth")
+  public void rejectOverMaxDepth() {
+    GraphQL graphql = newGraphql(newInstrumentation(-1, 2, new BoundedTagValues(10)));
+
+    ExecutionResult result = graphql.execute("{ books { values { title } } }");
+
+    assertThat(result.getErrors()).hasSize(1);
+    assertThat(result.getErrors().get(0).getMessage())
+        .isEqualTo("The operation's depth (3) exceeds the maximum allowed (2)");
+  }
+
+  @Test
+  @DisplayName("Should bound the number of operation names used as tags")
+  public void boundOperationNames() {
+    GraphQL graphql = newGraphql(newInstrumentation(-1, -1, new BoundedTagValues(1)));
+
+    execute(graphql, "query Books1 { books { values { title } } }", "Books1");
+    execute(graphql, "query Books2 { books { values { title } } }", "Books2");
+    execute(graphql, "{ books { values { title } } }", null);
+
+    assertThat(summary("Books1").count()).isEqualTo(1);
+    assertThat(summary(BoundedTagValues.OTHER).count()).isEqualTo(1);
+    assertThat(summary(QueryCostInstrumentation.UNNAMED_OPERATION).count()).isEqualTo(1);
+    assertThat(meterRegistry.find(QueryCostInstrumentation.OPERATION_COST_METRIC).summaries())
+        .hasSize(3);
+  }
+
+  private long cost(String query, String operationName) {
+    GraphQL graphql = newGraphql(newInstrumentation(-1, -1, new BoundedTagValues(10)));
+    execute(graphql, query, operationName);
+    long cost = (long) summary(operationName).max();
+    meterRegistry.clear();
+    return cost;
+  }
+
+  private static void execute(GraphQL graphql, String query, String operationName) {
+    // We don't care about the result: the fetchers fail without a context, but the cost has been
+    // recorded by then.
+    graphql.execute(ExecutionInput.newExecutionInput(query).operationName(operationName).build());
+  }
+
+  private DistributionSummary summary(String operationNameTag) {
+    return meterRegistry
+        .get(QueryCostInstrumentation.OPERATION_COST_METRIC)
+        .tag(QueryCostInstrumentation.OPERATION_NAME_TAG, operationNameTag)
+        .summary();
+  }
+
+  private QueryCostInstrumentation newInstrumentation(
+      int maxCost, int maxDepth, BoundedTagValues operationNames) {
+    return new QueryCostInstrumentation(
+        maxCost, maxDepth, operationNames, meterRegistry, Tags.empty());
+  }
+
+  private static GraphQL newGraphql(QueryCostInstrumentation instrumentation) {
+    return GraphQL.newGraphQL(SCHEMA).instrumentation(instrumentation).build();
+  }
+}
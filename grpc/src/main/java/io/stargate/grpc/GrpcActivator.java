@@ -20,14 +20,20 @@ import io.stargate.core.activator.BaseActivator;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.DbActivator;
 import io.stargate.db.Persistence;
+import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
 import io.stargate.grpc.impl.GrpcImpl;
 import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.Nullable;
 
 public class GrpcActivator extends BaseActivator {
+
+  public static final String MODULE_NAME = "grpc";
+
   private GrpcImpl grpc;
   private final ServicePointer<Metrics> metrics = ServicePointer.create(Metrics.class);
+  private final ServicePointer<ClientInfoMetricsTagProvider> clientInfoTagProvider =
+      ServicePointer.create(ClientInfoMetricsTagProvider.class);
   private final ServicePointer<AuthenticationService> authentication =
       ServicePointer.create(
           AuthenticationService.class,
@@ -46,7 +52,9 @@ public class GrpcActivator extends BaseActivator {
     if (grpc != null) { // Already started
       return null;
     }
-    grpc = new GrpcImpl(persistence.get(), metrics.get(), authentication.get());
+    grpc =
+        new GrpcImpl(
+            persistence.get(), metrics.get(), authentication.get(), clientInfoTagProvider.get());
     grpc.start();
 
     return null;
@@ -63,6 +71,6 @@ public class GrpcActivator extends BaseActivator {
 
   @Override
   protected List<ServicePointer<?>> dependencies() {
-    return Arrays.asList(metrics, persistence, authentication);
+    return Arrays.asList(metrics, clientInfoTagProvider, persistence, authentication);
   }
 }
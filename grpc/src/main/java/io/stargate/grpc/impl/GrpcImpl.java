@@ -16,15 +16,27 @@
 package io.stargate.grpc.impl;
 
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
 import io.stargate.auth.AuthenticationService;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.Persistence;
+import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
+import io.stargate.grpc.GrpcActivator;
 import io.stargate.grpc.service.Service;
 import io.stargate.grpc.service.interceptors.AuthenticationInterceptor;
+import io.stargate.grpc.service.interceptors.MetricsInterceptor;
+import io.stargate.grpc.service.interceptors.OverloadInterceptor;
 import io.stargate.grpc.service.interceptors.RemoteAddressInterceptor;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,14 +45,96 @@ public class GrpcImpl {
 
   private static final int PORT = Integer.getInteger("stargate.grpc.port", 8090);
 
+  private static final boolean EPOLL_ENABLED =
+      Boolean.parseBoolean(System.getProperty("stargate.grpc.epoll.enabled", "true"));
+  private static final int BOSS_THREADS = Integer.getInteger("stargate.grpc.boss_threads", 1);
+  // 0 means Netty's default (twice the number of cores)
+  private static final int WORKER_THREADS = Integer.getInteger("stargate.grpc.worker_threads", 0);
+
+  private static final int EXECUTOR_THREADS =
+      Integer.getInteger(
+          "stargate.grpc.executor_threads", Runtime.getRuntime().availableProcessors() * 8);
+  private static final int EXECUTOR_QUEUE_SIZE =
+      Integer.getInteger("stargate.grpc.executor_queue_size", 10_000);
+  private static final int EXECUTOR_OVERFLOW_QUEUE_SIZE =
+      Integer.getInteger("stargate.grpc.executor_overflow_queue_size", 1_000);
+
+  private static final long KEEP_ALIVE_TIME_SECONDS =
+      Long.getLong("stargate.grpc.keep_alive_time_seconds", 120);
+  private static final long KEEP_ALIVE_TIMEOUT_SECONDS =
+      Long.getLong("stargate.grpc.keep_alive_timeout_seconds", 20);
+  private static final long PERMIT_KEEP_ALIVE_TIME_SECONDS =
+      Long.getLong("stargate.grpc.permit_keep_alive_time_seconds", 30);
+  private static final long MAX_CONNECTION_IDLE_SECONDS =
+      Long.getLong("stargate.grpc.max_connection_idle_seconds", -1);
+  private static final int MAX_CONCURRENT_CALLS_PER_CONNECTION =
+      Integer.getInteger("stargate.grpc.max_concurrent_calls_per_connection", -1);
+  private static final int FLOW_CONTROL_WINDOW =
+      Integer.getInteger(
+          "stargate.grpc.flow_control_window", NettyServerBuilder.DEFAULT_FLOW_CONTROL_WINDOW);
+  private static final int MAX_INBOUND_MESSAGE_SIZE =
+      Integer.getInteger("stargate.grpc.max_inbound_message_size", 4 * 1024 * 1024);
+
   private final Server server;
+  private final EventLoopGroup bossGroup;
+  private final EventLoopGroup workerGroup;
+  private final HandlerExecutor executor;
 
   public GrpcImpl(
-      Persistence persistence, Metrics metrics, AuthenticationService authenticationService) {
+      Persistence persistence,
+      Metrics metrics,
+      AuthenticationService authenticationService,
+      ClientInfoMetricsTagProvider clientInfoTagProvider) {
+
+    NettyServerBuilder builder = NettyServerBuilder.forPort(PORT);
+
+    if (useEpoll()) {
+      bossGroup =
+          new EpollEventLoopGroup(BOSS_THREADS, new DefaultThreadFactory("grpc-boss", true));
+      workerGroup =
+          new EpollEventLoopGroup(WORKER_THREADS, new DefaultThreadFactory("grpc-worker", true));
+      builder.channelType(EpollServerSocketChannel.class);
+      logger.info("gRPC using native Epoll event loop");
+    } else {
+      bossGroup = new NioEventLoopGroup(BOSS_THREADS, new DefaultThreadFactory("grpc-boss", true));
+      workerGroup =
+          new NioEventLoopGroup(WORKER_THREADS, new DefaultThreadFactory("grpc-worker", true));
+      builder.channelType(NioServerSocketChannel.class);
+      logger.info("gRPC using Java NIO event loop");
+    }
+    builder.bossEventLoopGroup(bossGroup).workerEventLoopGroup(workerGroup);
+
+    // The handlers never run on the transport threads, because they validate the tokens, which
+    // may block with any of the authentication services
+    executor =
+        new HandlerExecutor(EXECUTOR_THREADS, EXECUTOR_QUEUE_SIZE, EXECUTOR_OVERFLOW_QUEUE_SIZE);
+    builder.executor(executor);
+
+    builder
+        .keepAliveTime(KEEP_ALIVE_TIME_SECONDS, TimeUnit.SECONDS)
+        .keepAliveTimeout(KEEP_ALIVE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        .permitKeepAliveTime(PERMIT_KEEP_ALIVE_TIME_SECONDS, TimeUnit.SECONDS)
+        .flowControlWindow(FLOW_CONTROL_WINDOW)
+        .maxInboundMessageSize(MAX_INBOUND_MESSAGE_SIZE);
+    if (MAX_CONNECTION_IDLE_SECONDS > 0) {
+      builder.maxConnectionIdle(MAX_CONNECTION_IDLE_SECONDS, TimeUnit.SECONDS);
+    }
+    if (MAX_CONCURRENT_CALLS_PER_CONNECTION > 0) {
+      builder.maxConcurrentCallsPerConnection(MAX_CONCURRENT_CALLS_PER_CONNECTION);
+    }
+
     server =
-        ServerBuilder.forPort(PORT)
+        builder
             .intercept(new AuthenticationInterceptor(authenticationService))
             .intercept(new RemoteAddressInterceptor())
+            // Rejects the calls before they authenticate
+            .intercept(new OverloadInterceptor(HandlerExecutor::isOverflow))
+            // Registered last so that it runs first, and sees the calls rejected by the others
+            .intercept(
+                new MetricsInterceptor(
+                    metrics.getMeterRegistry(),
+                    metrics.tagsForModule(GrpcActivator.MODULE_NAME),
+                    clientInfoTagProvider))
             .addService(new Service(persistence, metrics))
             .build();
   }
@@ -59,5 +153,16 @@ public class GrpcImpl {
     } catch (InterruptedException e) {
       logger.error("Failed waiting for gRPC shutdown", e);
     }
+    // The server doesn't own the resources that were passed to the builder
+    bossGroup.shutdownGracefully();
+    workerGroup.shutdownGracefully();
+    executor.shutdown();
+  }
+
+  private static boolean useEpoll() {
+    if (EPOLL_ENABLED && !Epoll.isAvailable()) {
+      logger.debug("epoll not available", Epoll.unavailabilityCause());
+    }
+    return EPOLL_ENABLED && Epoll.isAvailable();
   }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.impl;
+
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
+import io.stargate.grpc.service.interceptors.OverloadInterceptor;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executor of the gRPC handlers: a fixed-size pool with a bounded queue.
+ *
+ * <p>grpc-java can't report a task rejected by its executor to the client (the stream is reset with
+ * an internal error), so the tasks that don't fit in the queue are handed to a single overflow
+ * thread instead. They are flagged so that {@link OverloadInterceptor} fails any call that they
+ * start with {@code RESOURCE_EXHAUSTED}, before the authentication runs. The remaining tasks are
+ * the callbacks of calls that were already accepted, which must run for those calls to complete.
+ * Either way, the transport threads never run handler code.
+ *
+ * <p>The overflow thread has a bounded queue as well. When it is full too, the task is rejected and
+ * grpc-java fails its call.
+ */
+class HandlerExecutor implements Executor {
+
+  private static final ThreadLocal<Boolean> OVERFLOW = ThreadLocal.withInitial(() -> false);
+
+  private final ThreadPoolExecutor pool;
+  private final ThreadPoolExecutor overflow;
+
+  HandlerExecutor(int threads, int queueSize, int overflowQueueSize) {
+    pool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueSize),
+            new DefaultThreadFactory("grpc-executor", true),
+            new ThreadPoolExecutor.AbortPolicy());
+    pool.allowCoreThreadTimeOut(true);
+    overflow =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(overflowQueueSize),
+            new DefaultThreadFactory("grpc-executor-overflow", true),
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    try {
+      pool.execute(task);
+    } catch (RejectedExecutionException e) {
+      overflow.execute(
+          () -> {
+            OVERFLOW.set(true);
+            try {
+              task.run();
+            } finally {
+              OVERFLOW.set(false);
+            }
+          });
+    }
+  }
+
+  /** Whether the current thread is running a task that the pool rejected. */
+  static boolean isOverflow() {
+    return OVERFLOW.get();
+  }
+
+  void shutdown() {
+    pool.shutdown();
+    overflow.shutdown();
+  }
+}
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.grpc.Status;
+import io.stargate.grpc.payload.cql.RawValuesHandler;
 import io.stargate.grpc.payload.cql.ValuesHandler;
 import io.stargate.proto.QueryOuterClass.Payload;
 
@@ -28,6 +29,7 @@ public class PayloadHandlers {
       Maps.immutableEnumMap(
           ImmutableMap.<Payload.Type, PayloadHandler>builder()
               .put(Payload.Type.CQL, new ValuesHandler())
+              .put(Payload.Type.CQL_BYTES, new RawValuesHandler())
               .build());
 
   @NonNull
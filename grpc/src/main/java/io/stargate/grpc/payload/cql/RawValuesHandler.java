@@ -0,0 +1,133 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.payload.cql;
+
+import static io.stargate.grpc.payload.cql.ValuesHandler.columnTypeNotNull;
+import static io.stargate.grpc.payload.cql.ValuesHandler.convertType;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
+import io.grpc.StatusException;
+import io.stargate.db.BoundStatement;
+import io.stargate.db.Result.Prepared;
+import io.stargate.db.Result.Rows;
+import io.stargate.db.schema.Column;
+import io.stargate.grpc.payload.PayloadHandler;
+import io.stargate.proto.QueryOuterClass.ColumnSpec;
+import io.stargate.proto.QueryOuterClass.QueryParameters;
+import io.stargate.proto.QueryOuterClass.RawResultSet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Binds values like {@link ValuesHandler}, but returns the rows as they were received from the
+ * persistence layer, in the CQL native protocol format. This skips the decoding of every cell into
+ * a {@link io.stargate.proto.QueryOuterClass.Value}, at the cost of requiring clients to decode the
+ * CQL values themselves.
+ */
+public class RawValuesHandler implements PayloadHandler {
+
+  private static final String TYPE_URL =
+      "type.googleapis.com/" + RawResultSet.getDescriptor().getFullName();
+
+  private final ValuesHandler valuesHandler = new ValuesHandler();
+
+  @Override
+  public BoundStatement bindValues(Prepared prepared, Any payload, ByteBuffer unsetValue)
+      throws InvalidProtocolBufferException, StatusException {
+    return valuesHandler.bindValues(prepared, payload, unsetValue);
+  }
+
+  @Override
+  public Any processResult(Rows rows, QueryParameters parameters) throws StatusException {
+    RawResultSet.Builder resultSetBuilder = RawResultSet.newBuilder();
+
+    if (!parameters.getSkipMetadata()) {
+      for (Column column : rows.resultMetadata.columns) {
+        resultSetBuilder.addColumns(
+            ColumnSpec.newBuilder()
+                .setType(convertType(columnTypeNotNull(column)))
+                .setName(column.name())
+                .build());
+      }
+    }
+
+    resultSetBuilder.setRowCount(rows.rows.size());
+
+    if (rows.resultMetadata.pagingState != null) {
+      resultSetBuilder.setPagingState(
+          BytesValue.newBuilder()
+              .setValue(
+                  // The paging state is never modified once it's been returned by the persistence
+                  UnsafeByteOperations.unsafeWrap(rows.resultMetadata.pagingState.duplicate()))
+              .build());
+      resultSetBuilder.setPageSize(Int32Value.newBuilder().setValue(rows.rows.size()).build());
+    }
+
+    // Any.pack() would serialize the whole message, copying the rows again. Instead, the other
+    // fields are serialized on their own, and the rows field is appended as is (the order of the
+    // fields doesn't matter on the wire).
+    return Any.newBuilder()
+        .setTypeUrl(TYPE_URL)
+        .setValue(resultSetBuilder.build().toByteString().concat(encodeRowsField(rows.rows)))
+        .build();
+  }
+
+  /**
+   * Concatenates all the cells into a single array, prefixed with the tag and length of the {@code
+   * rows} field of {@link RawResultSet}, that is then handed over to protobuf without another copy.
+   */
+  private static ByteString encodeRowsField(List<List<ByteBuffer>> rows) {
+    int size = 0;
+    for (List<ByteBuffer> row : rows) {
+      for (ByteBuffer value : row) {
+        size += 4 + (value == null ? 0 : value.remaining());
+      }
+    }
+    int headerSize =
+        CodedOutputStream.computeTagSize(RawResultSet.ROWS_FIELD_NUMBER)
+            + CodedOutputStream.computeUInt32SizeNoTag(size);
+    byte[] array = new byte[headerSize + size];
+    CodedOutputStream header = CodedOutputStream.newInstance(array, 0, headerSize);
+    try {
+      header.writeTag(RawResultSet.ROWS_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      header.writeUInt32NoTag(size);
+    } catch (IOException e) {
+      // Can't happen, the array is large enough
+      throw new UncheckedIOException(e);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(array, headerSize, size);
+    for (List<ByteBuffer> row : rows) {
+      for (ByteBuffer value : row) {
+        if (value == null) {
+          buffer.putInt(-1);
+        } else {
+          buffer.putInt(value.remaining());
+          buffer.put(value.duplicate());
+        }
+      }
+    }
+    return UnsafeByteOperations.unsafeWrap(array);
+  }
+}
@@ -18,13 +18,17 @@ package io.stargate.grpc.service;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import io.grpc.Context;
+import io.grpc.Deadline;
 import io.grpc.Metadata;
 import io.grpc.Metadata.Key;
 import io.grpc.Status;
 import io.grpc.StatusException;
 import io.grpc.StatusRuntimeException;
 import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Tags;
 import io.stargate.auth.AuthenticationSubject;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.AuthenticatedUser;
@@ -39,6 +43,7 @@ import io.stargate.db.Result.Kind;
 import io.stargate.db.Result.Prepared;
 import io.stargate.db.Result.Rows;
 import io.stargate.db.Statement;
+import io.stargate.grpc.GrpcActivator;
 import io.stargate.grpc.payload.PayloadHandler;
 import io.stargate.grpc.payload.PayloadHandlers;
 import io.stargate.proto.QueryOuterClass.AlreadyExists;
@@ -53,6 +58,8 @@ import io.stargate.proto.QueryOuterClass.QueryParameters;
 import io.stargate.proto.QueryOuterClass.ReadFailure;
 import io.stargate.proto.QueryOuterClass.ReadTimeout;
 import io.stargate.proto.QueryOuterClass.Response;
+import io.stargate.proto.QueryOuterClass.StreamingQuery;
+import io.stargate.proto.QueryOuterClass.StreamingResponse;
 import io.stargate.proto.QueryOuterClass.Unavailable;
 import io.stargate.proto.QueryOuterClass.WriteFailure;
 import io.stargate.proto.QueryOuterClass.WriteTimeout;
@@ -60,8 +67,11 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -102,11 +112,18 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
   public static Key<CasWriteUnknown> CAS_WRITE_UNKNOWN_KEY =
       ProtoUtils.keyForProto(CasWriteUnknown.getDefaultInstance());
 
+  public static final String ABANDONED_QUERIES_METRIC = "grpc.server.queries.abandoned";
+  public static final String REASON_TAG = "reason";
+
   private static final InetSocketAddress DUMMY_ADDRESS = new InetSocketAddress(9042);
 
   /** The maximum number of batch queries to prepare simultaneously. */
   private static final int MAX_CONCURRENT_PREPARES_FOR_BATCH =
-      Math.max(Integer.getInteger("stargate.grpc.max_concurrent_prepares_for_batch", 1), 1);
+      Math.max(Integer.getInteger("stargate.grpc.max_concurrent_prepares_for_batch", 8), 1);
+
+  /** The maximum number of queries executing simultaneously for an {@code ExecuteQueryStream}. */
+  private static final int MAX_IN_FLIGHT_QUERIES_PER_STREAM =
+      Math.max(Integer.getInteger("stargate.grpc.max_in_flight_queries_per_stream", 128), 1);
 
   // TODO: Add a maximum size and add tuning options
   private final Cache<PrepareInfo, Prepared> preparedCache = Caffeine.newBuilder().build();
@@ -114,8 +131,9 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
   private final Persistence persistence;
   private final ByteBuffer unsetValue;
 
-  @SuppressWarnings("unused")
   private final Metrics metrics;
+  private final Counter queriesAbandonedOnDeadline;
+  private final Counter queriesAbandonedOnCancellation;
 
   /** Used as key for the the local prepare cache. */
   @Value.Immutable
@@ -135,6 +153,15 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
     this.metrics = metrics;
     assert this.metrics != null;
     unsetValue = persistence.unsetValue();
+    Tags tags = metrics.tagsForModule(GrpcActivator.MODULE_NAME);
+    queriesAbandonedOnDeadline =
+        metrics
+            .getMeterRegistry()
+            .counter(ABANDONED_QUERIES_METRIC, tags.and(REASON_TAG, "deadline_exceeded"));
+    queriesAbandonedOnCancellation =
+        metrics
+            .getMeterRegistry()
+            .counter(ABANDONED_QUERIES_METRIC, tags.and(REASON_TAG, "cancelled"));
   }
 
   @Override
@@ -142,6 +169,26 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
     try {
       AuthenticationSubject authenticationSubject = AUTHENTICATION_KEY.get();
       Connection connection = newConnection(authenticationSubject.asUser());
+      executeQuery(connection, query, responseObserver);
+    } catch (Throwable t) {
+      handleException(t, responseObserver);
+    }
+  }
+
+  @Override
+  public StreamObserver<StreamingQuery> executeQueryStream(
+      StreamObserver<StreamingResponse> responseObserver) {
+    return new QueryStream((ServerCallStreamObserver<StreamingResponse>) responseObserver);
+  }
+
+  private void executeQuery(
+      Connection connection, Query query, StreamObserver<Response> responseObserver) {
+    try {
+      // The callbacks below run on persistence threads, where the call's context is not current
+      Context context = Context.current();
+      if (isAbandoned(context, responseObserver)) {
+        return;
+      }
       QueryParameters queryParameters = query.getParameters();
 
       PrepareInfo prepareInfo =
@@ -158,7 +205,8 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
                 if (t != null) {
                   handleException(t, responseObserver);
                 } else {
-                  executePrepared(connection, prepared, query, responseObserver, prepareInfo);
+                  executePrepared(
+                      connection, prepared, query, responseObserver, prepareInfo, context);
                 }
               });
     } catch (Throwable t) {
@@ -171,6 +219,7 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
     try {
       AuthenticationSubject authenticationSubject = AUTHENTICATION_KEY.get();
       Connection connection = newConnection(authenticationSubject.asUser());
+      Context context = Context.current();
 
       if (batch.getQueriesCount() == 0) {
         responseObserver.onError(
@@ -181,6 +230,10 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
       // TODO: Add a limit for the maximum number of queries in a batch? The setting
       // `batch_size_fail_threshold_in_kb` provides some protection at the persistence layer.
 
+      if (isAbandoned(context, responseObserver)) {
+        return;
+      }
+
       new BatchPreparer(connection, batch)
           .prepare()
           .whenComplete(
@@ -188,7 +241,7 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
                 if (t != null) {
                   handleException(t, responseObserver);
                 } else {
-                  executeBatch(connection, preparedBatch, batch, responseObserver);
+                  executeBatch(connection, preparedBatch, batch, responseObserver, context);
                 }
               });
 
@@ -428,8 +481,12 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
       Prepared prepared,
       Query query,
       StreamObserver<Response> responseObserver,
-      PrepareInfo prepareInfo) {
+      PrepareInfo prepareInfo,
+      Context context) {
     try {
+      if (isAbandoned(context, responseObserver)) {
+        return;
+      }
       long queryStartNanoTime = System.nanoTime();
 
       Payload values = query.getValues();
@@ -451,13 +508,13 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
                                 handleException(t1, responseObserver);
                               } else {
                                 executePrepared(
-                                    connection, p, query, responseObserver, prepareInfo);
+                                    connection, p, query, responseObserver, prepareInfo, context);
                               }
                             });
                   } else {
                     handleException(t, responseObserver);
                   }
-                } else {
+                } else if (!isAbandoned(context, responseObserver)) {
                   try {
                     Response.Builder responseBuilder = makeResponseBuilder(result);
                     switch (result.kind) {
@@ -519,8 +576,12 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
       Connection connection,
       io.stargate.db.Batch preparedBatch,
       Batch batch,
-      StreamObserver<Response> responseObserver) {
+      StreamObserver<Response> responseObserver,
+      Context context) {
     try {
+      if (isAbandoned(context, responseObserver)) {
+        return;
+      }
       long queryStartNanoTime = System.nanoTime();
       BatchParameters parameters = batch.getParameters();
 
@@ -537,13 +598,13 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
                               if (t1 != null) {
                                 handleException(t1, responseObserver);
                               } else {
-                                executeBatch(connection, p, batch, responseObserver);
+                                executeBatch(connection, p, batch, responseObserver, context);
                               }
                             });
                   } else {
                     handleException(t, responseObserver);
                   }
-                } else {
+                } else if (!isAbandoned(context, responseObserver)) {
                   try {
                     Response.Builder responseBuilder = makeResponseBuilder(result);
                     handleTraceId(result.getTracingId(), parameters, responseBuilder);
@@ -562,6 +623,27 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
     }
   }
 
+  /**
+   * Checks if the client has stopped waiting for the outcome of a call, either because it cancelled
+   * it or because its deadline has passed. If so, the call is failed right away: there is no point
+   * in starting more work for it, or in converting the results that were already fetched.
+   */
+  private boolean isAbandoned(Context context, StreamObserver<?> responseObserver) {
+    Deadline deadline = context.getDeadline();
+    Status status;
+    if (deadline != null && deadline.isExpired()) {
+      queriesAbandonedOnDeadline.increment();
+      status = Status.DEADLINE_EXCEEDED.withDescription("The call's deadline has passed");
+    } else if (context.isCancelled()) {
+      queriesAbandonedOnCancellation.increment();
+      status = Status.CANCELLED.withDescription("The call was cancelled");
+    } else {
+      return false;
+    }
+    responseObserver.onError(status.asRuntimeException());
+    return true;
+  }
+
   private BoundStatement bindValues(PayloadHandler handler, Prepared prepared, Payload values)
       throws Exception {
     if (!values.hasData()) {
@@ -660,21 +742,32 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
   }
 
   /**
-   * Concurrently prepares queries in a batch. It'll prepare up to {@link
-   * Service#MAX_CONCURRENT_PREPARES_FOR_BATCH} queries simultaneously.
+   * Concurrently prepares queries in a batch. Queries that share the same CQL are only prepared
+   * once, and up to {@link Service#MAX_CONCURRENT_PREPARES_FOR_BATCH} distinct queries are prepared
+   * simultaneously.
    */
   private class BatchPreparer {
 
-    private final AtomicInteger queryIndex = new AtomicInteger();
+    private final AtomicInteger cqlIndex = new AtomicInteger();
+    private final AtomicInteger remaining;
     private final Connection connection;
     private final Batch batch;
-    private final List<Statement> statements;
+    /** The distinct CQL strings of the batch, and the indices of the queries that use them. */
+    private final List<Map.Entry<String, List<Integer>>> queriesByCql;
+
+    private final Statement[] statements;
     private final CompletableFuture<io.stargate.db.Batch> future;
 
     public BatchPreparer(Connection connection, Batch batch) {
       this.connection = connection;
       this.batch = batch;
-      statements = Collections.synchronizedList(new ArrayList<>(batch.getQueriesCount()));
+      Map<String, List<Integer>> indices = new LinkedHashMap<>();
+      for (int i = 0; i < batch.getQueriesCount(); i++) {
+        indices.computeIfAbsent(batch.getQueries(i).getCql(), k -> new ArrayList<>()).add(i);
+      }
+      queriesByCql = new ArrayList<>(indices.entrySet());
+      remaining = new AtomicInteger(queriesByCql.size());
+      statements = new Statement[batch.getQueriesCount()];
       future = new CompletableFuture<>();
     }
 
@@ -685,35 +778,30 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
      * @return An future which completes with an internal batch statement with all queries prepared.
      */
     public CompletableFuture<io.stargate.db.Batch> prepare() {
-      int numToPrepare = Math.min(batch.getQueriesCount(), MAX_CONCURRENT_PREPARES_FOR_BATCH);
-      assert numToPrepare != 0;
-      for (int i = 0; i < numToPrepare; ++i) {
-        next(false);
-      }
-      return future;
+      return prepare(false);
     }
 
     public CompletableFuture<io.stargate.db.Batch> prepareForRetry() {
-      int numToPrepare = Math.min(batch.getQueriesCount(), MAX_CONCURRENT_PREPARES_FOR_BATCH);
+      return prepare(true);
+    }
+
+    private CompletableFuture<io.stargate.db.Batch> prepare(boolean shouldInvalidate) {
+      int numToPrepare = Math.min(queriesByCql.size(), MAX_CONCURRENT_PREPARES_FOR_BATCH);
       assert numToPrepare != 0;
       for (int i = 0; i < numToPrepare; ++i) {
-        next(true);
+        next(shouldInvalidate);
       }
       return future;
     }
 
-    /** Asynchronously prepares the next query in the batch. */
+    /** Asynchronously prepares the next distinct query in the batch. */
     private void next(boolean shouldInvalidate) {
-      int index = this.queryIndex.getAndIncrement();
-      // When there are no more queries to prepare then construct the batch with the prepared
-      // statements and complete the future.
-      if (index >= batch.getQueriesCount()) {
-        future.complete(
-            new io.stargate.db.Batch(BatchType.fromId(batch.getTypeValue()), statements));
+      int index = cqlIndex.getAndIncrement();
+      if (index >= queriesByCql.size() || future.isDone()) {
         return;
       }
 
-      BatchQuery query = batch.getQueries(index);
+      Map.Entry<String, List<Integer>> entry = queriesByCql.get(index);
       BatchParameters batchParameters = batch.getParameters();
 
       PrepareInfo prepareInfo =
@@ -721,7 +809,7 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
               .keyspace(
                   batchParameters.hasKeyspace() ? batchParameters.getKeyspace().getValue() : null)
               .user(connection.loggedUser().map(AuthenticatedUser::name).orElse(null))
-              .cql(query.getCql())
+              .cql(entry.getKey())
               .build();
 
       prepareQuery(connection, prepareInfo, batchParameters.getTracing(), shouldInvalidate)
@@ -731,9 +819,22 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
                   future.completeExceptionally(t);
                 } else {
                   try {
-                    PayloadHandler handler = PayloadHandlers.get(query.getValues().getType());
-                    statements.add(bindValues(handler, prepared, query.getValues()));
-                    next(shouldInvalidate); // Prepare the next query in the batch
+                    // Each query only writes its own slot, the final read is ordered by the
+                    // decrement of `remaining`.
+                    for (int queryIndex : entry.getValue()) {
+                      BatchQuery query = batch.getQueries(queryIndex);
+                      PayloadHandler handler = PayloadHandlers.get(query.getValues().getType());
+                      statements[queryIndex] = bindValues(handler, prepared, query.getValues());
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                      // When all the queries are prepared then construct the batch with the
+                      // bound statements (in the original order) and complete the future.
+                      future.complete(
+                          new io.stargate.db.Batch(
+                              BatchType.fromId(batch.getTypeValue()), Arrays.asList(statements)));
+                    } else {
+                      next(shouldInvalidate); // Prepare the next query in the batch
+                    }
                   } catch (Throwable th) {
                     future.completeExceptionally(th);
                   }
@@ -741,4 +842,134 @@ public class Service extends io.stargate.proto.StargateGrpc.StargateImplBase {
               });
     }
   }
+
+  /**
+   * Handles an {@code ExecuteQueryStream} call: each incoming query is executed like a unary {@code
+   * ExecuteQuery}, and its outcome is sent back tagged with the client's request id.
+   *
+   * <p>Flow control is manual: we only request as many queries from the client as can be executed
+   * simultaneously ({@link Service#MAX_IN_FLIGHT_QUERIES_PER_STREAM}), and stop requesting more
+   * while the client is not consuming the responses.
+   */
+  private class QueryStream implements StreamObserver<StreamingQuery> {
+
+    private final ServerCallStreamObserver<StreamingResponse> responseObserver;
+    private final AuthenticatedUser user;
+    // All the fields below are guarded by `this`, which also serializes the calls to
+    // responseObserver (it is not thread-safe).
+    private Connection connection;
+    private int inFlight;
+    /** Queries that we could request from the client, but didn't because it wasn't ready. */
+    private int pendingRequests;
+
+    private boolean halfClosed;
+    private boolean done;
+
+    QueryStream(ServerCallStreamObserver<StreamingResponse> responseObserver) {
+      this.responseObserver = responseObserver;
+      this.user = AUTHENTICATION_KEY.get().asUser();
+      responseObserver.disableAutoRequest();
+      responseObserver.setOnReadyHandler(this::onReady);
+      responseObserver.setOnCancelHandler(this::onCancel);
+      responseObserver.request(MAX_IN_FLIGHT_QUERIES_PER_STREAM);
+    }
+
+    @Override
+    public void onNext(StreamingQuery streamingQuery) {
+      long requestId = streamingQuery.getRequestId();
+      StreamObserver<Response> queryObserver =
+          new StreamObserver<Response>() {
+            @Override
+            public void onNext(Response response) {
+              send(
+                  StreamingResponse.newBuilder()
+                      .setRequestId(requestId)
+                      .setResponse(response)
+                      .build());
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+              Status status = Status.fromThrowable(throwable);
+              StreamingResponse.Error.Builder error =
+                  StreamingResponse.Error.newBuilder().setCode(status.getCode().value());
+              if (status.getDescription() != null) {
+                error.setMessage(status.getDescription());
+              }
+              send(StreamingResponse.newBuilder().setRequestId(requestId).setError(error).build());
+              onQueryCompleted();
+            }
+
+            @Override
+            public void onCompleted() {
+              onQueryCompleted();
+            }
+          };
+
+      Connection connection;
+      synchronized (this) {
+        inFlight += 1;
+        try {
+          if (this.connection == null) {
+            this.connection = newConnection(user);
+          }
+        } catch (Throwable t) {
+          handleException(t, queryObserver);
+          return;
+        }
+        connection = this.connection;
+      }
+      executeQuery(connection, streamingQuery.getQuery(), queryObserver);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      // The client aborted the call, there is no one to respond to anymore
+      onCancel();
+    }
+
+    @Override
+    public synchronized void onCompleted() {
+      halfClosed = true;
+      maybeComplete();
+    }
+
+    private synchronized void send(StreamingResponse response) {
+      if (!done) {
+        responseObserver.onNext(response);
+      }
+    }
+
+    private synchronized void onQueryCompleted() {
+      inFlight -= 1;
+      if (halfClosed) {
+        maybeComplete();
+      } else if (!done) {
+        if (responseObserver.isReady()) {
+          responseObserver.request(1);
+        } else {
+          pendingRequests += 1;
+        }
+      }
+    }
+
+    private synchronized void onReady() {
+      if (!done && pendingRequests > 0) {
+        responseObserver.request(pendingRequests);
+        pendingRequests = 0;
+      }
+    }
+
+    private synchronized void onCancel() {
+      done = true;
+    }
+
+    private void maybeComplete() {
+      assert Thread.holdsLock(this);
+      if (!done && inFlight == 0) {
+        done = true;
+        responseObserver.onCompleted();
+      }
+    }
+  }
 }
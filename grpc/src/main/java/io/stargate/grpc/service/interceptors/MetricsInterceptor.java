@@ -0,0 +1,192 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.service.interceptors;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCall.Listener;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.stargate.db.ClientInfo;
+import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An interceptor that records per-method metrics: call latency, final status, calls in flight and
+ * message sizes.
+ *
+ * <p>The metrics are tagged with the full method name, and the tags of the {@link
+ * ClientInfoMetricsTagProvider}. It should be registered last, so that it also observes the calls
+ * rejected by the other interceptors (e.g. authentication failures).
+ */
+public class MetricsInterceptor implements ServerInterceptor {
+
+  public static final String CALL_DURATION_METRIC = "grpc.server.call.duration";
+  public static final String CALLS_METRIC = "grpc.server.calls";
+  public static final String CALLS_IN_FLIGHT_METRIC = "grpc.server.calls.in_flight";
+  public static final String REQUEST_SIZE_METRIC = "grpc.server.request.size";
+  public static final String RESPONSE_SIZE_METRIC = "grpc.server.response.size";
+  public static final String METHOD_TAG = "method";
+  public static final String STATUS_TAG = "status";
+
+  private final MeterRegistry meterRegistry;
+  private final Tags moduleTags;
+  private final ClientInfoMetricsTagProvider clientInfoTagProvider;
+  private final ConcurrentMap<Tags, MethodMeters> meters = new ConcurrentHashMap<>();
+
+  public MetricsInterceptor(
+      MeterRegistry meterRegistry,
+      Tags moduleTags,
+      ClientInfoMetricsTagProvider clientInfoTagProvider) {
+    this.meterRegistry = meterRegistry;
+    this.moduleTags = moduleTags;
+    this.clientInfoTagProvider = clientInfoTagProvider;
+  }
+
+  @Override
+  public <ReqT, RespT> Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    MethodMeters methodMeters = getMeters(call);
+    CallRecorder recorder = new CallRecorder(methodMeters);
+
+    ServerCall<ReqT, RespT> recordingCall =
+        new SimpleForwardingServerCall<ReqT, RespT>(call) {
+          @Override
+          public void sendMessage(RespT message) {
+            methodMeters.responseSize.record(serializedSize(message));
+            super.sendMessage(message);
+          }
+
+          @Override
+          public void close(Status status, Metadata trailers) {
+            recorder.finish(status);
+            super.close(status, trailers);
+          }
+        };
+
+    Listener<ReqT> listener;
+    try {
+      listener = next.startCall(recordingCall, headers);
+    } catch (RuntimeException e) {
+      recorder.finish(Status.fromThrowable(e));
+      throw e;
+    }
+    return new SimpleForwardingServerCallListener<ReqT>(listener) {
+      @Override
+      public void onMessage(ReqT message) {
+        methodMeters.requestSize.record(serializedSize(message));
+        super.onMessage(message);
+      }
+
+      @Override
+      public void onCancel() {
+        // The call will never be closed (client cancellation, deadline, connection lost)
+        recorder.finish(Status.CANCELLED);
+        super.onCancel();
+      }
+    };
+  }
+
+  private MethodMeters getMeters(ServerCall<?, ?> call) {
+    Tags tags =
+        moduleTags
+            .and(clientInfoTagProvider.getClientInfoTags(clientInfo(call)))
+            .and(METHOD_TAG, call.getMethodDescriptor().getFullMethodName());
+    MethodMeters methodMeters = meters.get(tags);
+    return methodMeters == null ? meters.computeIfAbsent(tags, MethodMeters::new) : methodMeters;
+  }
+
+  private static ClientInfo clientInfo(ServerCall<?, ?> call) {
+    SocketAddress remoteAddress = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+    return new ClientInfo(
+        remoteAddress instanceof InetSocketAddress ? (InetSocketAddress) remoteAddress : null,
+        null);
+  }
+
+  private static int serializedSize(Object message) {
+    // Protobuf memoizes the size, and it will be needed for serialization anyway
+    return message instanceof MessageLite ? ((MessageLite) message).getSerializedSize() : 0;
+  }
+
+  private class MethodMeters {
+    final Tags tags;
+    final Timer duration;
+    final AtomicInteger inFlight;
+    final DistributionSummary requestSize;
+    final DistributionSummary responseSize;
+    final ConcurrentMap<Status.Code, Counter> calls = new ConcurrentHashMap<>();
+
+    MethodMeters(Tags tags) {
+      this.tags = tags;
+      duration =
+          Timer.builder(CALL_DURATION_METRIC)
+              .tags(tags)
+              .publishPercentileHistogram()
+              .register(meterRegistry);
+      inFlight = meterRegistry.gauge(CALLS_IN_FLIGHT_METRIC, tags, new AtomicInteger());
+      requestSize =
+          DistributionSummary.builder(REQUEST_SIZE_METRIC)
+              .baseUnit("bytes")
+              .tags(tags)
+              .register(meterRegistry);
+      responseSize =
+          DistributionSummary.builder(RESPONSE_SIZE_METRIC)
+              .baseUnit("bytes")
+              .tags(tags)
+              .register(meterRegistry);
+    }
+
+    Counter calls(Status.Code code) {
+      return calls.computeIfAbsent(
+          code, c -> meterRegistry.counter(CALLS_METRIC, tags.and(STATUS_TAG, c.name())));
+    }
+  }
+
+  private static class CallRecorder {
+    private final MethodMeters meters;
+    private final long startNanos = System.nanoTime();
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    CallRecorder(MethodMeters meters) {
+      this.meters = meters;
+      meters.inFlight.incrementAndGet();
+    }
+
+    void finish(Status status) {
+      if (finished.compareAndSet(false, true)) {
+        meters.inFlight.decrementAndGet();
+        meters.duration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meters.calls(status.getCode()).increment();
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.service.interceptors;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCall.Listener;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An interceptor that fails calls with {@code RESOURCE_EXHAUSTED} when the server is overloaded,
+ * without invoking the next interceptors. It must run before {@link AuthenticationInterceptor}, so
+ * that rejected calls don't validate their token.
+ */
+public class OverloadInterceptor implements ServerInterceptor {
+
+  private final BooleanSupplier overloaded;
+
+  /**
+   * @param overloaded whether the server is overloaded. It is evaluated on the thread that starts
+   *     the call.
+   */
+  public OverloadInterceptor(BooleanSupplier overloaded) {
+    this.overloaded = overloaded;
+  }
+
+  @Override
+  public <ReqT, RespT> Listener<ReqT> interceptCall(
+      ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+    if (overloaded.getAsBoolean()) {
+      call.close(
+          Status.RESOURCE_EXHAUSTED.withDescription("Too many pending requests, try again later"),
+          new Metadata());
+      return new NopListener<>();
+    }
+    return next.startCall(call, headers);
+  }
+
+  private static class NopListener<ReqT> extends ServerCall.Listener<ReqT> {}
+}
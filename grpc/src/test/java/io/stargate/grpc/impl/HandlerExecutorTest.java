@@ -0,0 +1,99 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class HandlerExecutorTest {
+  @Test
+  public void overflowWhenSaturated() throws Exception {
+    HandlerExecutor executor = new HandlerExecutor(1, 1, 1);
+    try {
+      CountDownLatch blocked = new CountDownLatch(1);
+      CompletableFuture<Boolean> running = new CompletableFuture<>();
+      CompletableFuture<Boolean> queued = new CompletableFuture<>();
+      CompletableFuture<Boolean> rejected = new CompletableFuture<>();
+      CompletableFuture<Thread> rejectedThread = new CompletableFuture<>();
+
+      executor.execute(
+          () -> {
+            running.complete(HandlerExecutor.isOverflow());
+            try {
+              blocked.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          });
+      // Make sure the first task is running, so that the next one stays in the queue
+      assertThat(running.get(1, TimeUnit.MINUTES)).isFalse();
+      executor.execute(() -> queued.complete(HandlerExecutor.isOverflow()));
+      executor.execute(
+          () -> {
+            rejectedThread.complete(Thread.currentThread());
+            rejected.complete(HandlerExecutor.isOverflow());
+          });
+
+      // The rejected task doesn't wait for the pool, nor does it run on the calling thread
+      assertThat(rejected.get(1, TimeUnit.MINUTES)).isTrue();
+      assertThat(rejectedThread.get()).isNotSameAs(Thread.currentThread());
+      assertThat(queued).isNotDone();
+
+      blocked.countDown();
+      assertThat(queued.get(1, TimeUnit.MINUTES)).isFalse();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void rejectWhenOverflowSaturated() throws Exception {
+    HandlerExecutor executor = new HandlerExecutor(1, 1, 1);
+    CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      CountDownLatch running = new CountDownLatch(2);
+      Runnable blocking =
+          () -> {
+            running.countDown();
+            try {
+              blocked.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          };
+
+      // Occupy the pool thread, then fill the pool queue
+      executor.execute(blocking);
+      executor.execute(() -> {});
+      // Occupy the overflow thread, then fill the overflow queue
+      executor.execute(blocking);
+      assertThat(running.await(1, TimeUnit.MINUTES)).isTrue();
+      executor.execute(() -> {});
+
+      assertThatThrownBy(() -> executor.execute(() -> {}))
+          .isInstanceOf(RejectedExecutionException.class);
+    } finally {
+      blocked.countDown();
+      executor.shutdown();
+    }
+  }
+}
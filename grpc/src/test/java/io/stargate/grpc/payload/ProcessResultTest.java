@@ -16,6 +16,7 @@
 package io.stargate.grpc.payload;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
@@ -28,6 +29,7 @@ import io.stargate.grpc.Values;
 import io.stargate.proto.QueryOuterClass.ColumnSpec;
 import io.stargate.proto.QueryOuterClass.Payload;
 import io.stargate.proto.QueryOuterClass.QueryParameters;
+import io.stargate.proto.QueryOuterClass.RawResultSet;
 import io.stargate.proto.QueryOuterClass.ResultSet;
 import io.stargate.proto.QueryOuterClass.Row;
 import io.stargate.proto.QueryOuterClass.TypeSpec;
@@ -38,6 +40,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -53,6 +56,35 @@ public class ProcessResultTest {
     assertThat(actual).isEqualTo(expected);
   }
 
+  @Test
+  public void processRawResult() throws Exception {
+    Column c1 = Column.create("c1", Column.Type.Int);
+    Column c2 = Column.create("c2", Column.Type.Varchar);
+    ByteBuffer one = Column.Type.Int.codec().encode(1, ProtocolVersion.DEFAULT);
+    ByteBuffer a = Column.Type.Varchar.codec().encode("a", ProtocolVersion.DEFAULT);
+    ByteBuffer two = Column.Type.Int.codec().encode(2, ProtocolVersion.DEFAULT);
+    Rows rows =
+        new Rows(
+            Arrays.asList(Arrays.asList(one, a), Arrays.asList(two, null)),
+            Utils.makeResultMetadata(c1, c2));
+
+    PayloadHandler handler = PayloadHandlers.get(Payload.Type.CQL_BYTES);
+    Any any = handler.processResult(rows, QueryParameters.getDefaultInstance());
+    RawResultSet actual = any.unpack(RawResultSet.class);
+    assertThat(any.getTypeUrl()).isEqualTo(Any.pack(actual).getTypeUrl());
+
+    assertThat(actual.getColumnsList())
+        .extracting(ColumnSpec::getName, c -> c.getType().getBasic())
+        .containsExactly(tuple("c1", TypeSpec.Basic.INT), tuple("c2", TypeSpec.Basic.VARCHAR));
+    assertThat(actual.getRowCount()).isEqualTo(2);
+    ByteBuffer expected = ByteBuffer.allocate(4 + 4 + 4 + 1 + 4 + 4 + 4);
+    expected.putInt(4).putInt(1).putInt(1).put((byte) 'a').putInt(4).putInt(2).putInt(-1);
+    expected.flip();
+    assertThat(actual.getRows().asReadOnlyByteBuffer()).isEqualTo(expected);
+    // The source buffers must not have been consumed
+    assertThat(one.remaining()).isEqualTo(4);
+  }
+
   public static Stream<Arguments> results() {
     return Stream.of(
         ResultSetBuilder.builder()
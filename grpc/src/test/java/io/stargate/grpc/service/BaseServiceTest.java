@@ -16,13 +16,17 @@
 package io.stargate.grpc.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.google.protobuf.Any;
 import io.grpc.ManagedChannel;
 import io.grpc.Server;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.stargate.core.metrics.api.Metrics;
 import io.stargate.db.BoundStatement;
 import io.stargate.db.Persistence;
@@ -40,6 +44,7 @@ import io.stargate.proto.QueryOuterClass.Value;
 import io.stargate.proto.QueryOuterClass.Values;
 import io.stargate.proto.StargateGrpc;
 import io.stargate.proto.StargateGrpc.StargateBlockingStub;
+import io.stargate.proto.StargateGrpc.StargateStub;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
@@ -62,6 +67,8 @@ public class BaseServiceTest {
 
   protected @Mock Connection connection;
 
+  protected final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
   @AfterEach
   public void cleanUp() {
     try {
@@ -83,6 +90,13 @@ public class BaseServiceTest {
     return StargateGrpc.newBlockingStub(clientChannel);
   }
 
+  protected StargateStub makeAsyncStub() {
+    if (clientChannel == null) {
+      clientChannel = InProcessChannelBuilder.forName(SERVER_NAME).usePlaintext().build();
+    }
+    return StargateGrpc.newStub(clientChannel);
+  }
+
   protected QueryOuterClass.Response executeQuery(
       StargateBlockingStub stub, String cql, Value... values) {
     return stub.executeQuery(Query.newBuilder().setCql(cql).setValues(cqlPayload(values)).build());
@@ -104,11 +118,14 @@ public class BaseServiceTest {
 
   protected void startServer(Persistence persistence) {
     assertThat(server).isNull();
+    Metrics metrics = mock(Metrics.class);
+    when(metrics.getMeterRegistry()).thenReturn(meterRegistry);
+    when(metrics.tagsForModule(any())).thenReturn(Tags.empty());
     server =
         InProcessServerBuilder.forName(SERVER_NAME)
             .directExecutor()
             .intercept(new MockInterceptor())
-            .addService(new Service(persistence, mock(Metrics.class)))
+            .addService(new Service(persistence, metrics))
             .build();
     try {
       server.start();
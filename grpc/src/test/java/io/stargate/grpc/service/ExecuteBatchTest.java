@@ -21,8 +21,12 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.grpc.StatusRuntimeException;
 import io.stargate.db.Batch;
 import io.stargate.db.BatchType;
@@ -38,7 +42,9 @@ import io.stargate.proto.QueryOuterClass.Value;
 import io.stargate.proto.StargateGrpc.StargateBlockingStub;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
+import org.apache.cassandra.stargate.utils.MD5Digest;
 import org.assertj.core.util.Arrays;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -55,6 +61,69 @@ public class ExecuteBatchTest extends BaseServiceTest {
     System.setProperty("stargate.grpc.max_concurrent_prepares_for_batch", "2");
   }
 
+  @Test
+  public void batchWithRepeatedQueries() {
+    String insertA = "INSERT INTO a (k, v) VALUES (?, ?)";
+    String insertB = "INSERT INTO b (k, v) VALUES (?, ?)";
+    Prepared preparedA =
+        new Prepared(
+            MD5Digest.compute("a"),
+            Utils.RESULT_METADATA_ID,
+            Utils.makeResultMetadata(),
+            Utils.makePreparedMetadata(
+                Column.create("k", Type.Varchar), Column.create("v", Type.Int)));
+    Prepared preparedB =
+        new Prepared(
+            MD5Digest.compute("b"),
+            Utils.RESULT_METADATA_ID,
+            Utils.makeResultMetadata(),
+            Utils.makePreparedMetadata(
+                Column.create("k", Type.Varchar), Column.create("v", Type.Int)));
+    // The first query completes last, its statements must still come first
+    when(connection.prepare(eq(insertA), any(Parameters.class)))
+        .then(
+            invocation ->
+                CompletableFuture.supplyAsync(
+                    () -> {
+                      Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+                      return preparedA;
+                    }));
+    when(connection.prepare(eq(insertB), any(Parameters.class)))
+        .thenReturn(CompletableFuture.completedFuture(preparedB));
+
+    when(connection.batch(any(Batch.class), any(Parameters.class), anyLong()))
+        .then(
+            invocation -> {
+              Batch batch = invocation.getArgument(0, Batch.class);
+              assertThat(batch.size()).isEqualTo(4);
+              assertStatement(preparedA, batch.statements().get(0), Values.of("a"), Values.of(1));
+              assertStatement(preparedB, batch.statements().get(1), Values.of("b"), Values.of(2));
+              assertStatement(preparedA, batch.statements().get(2), Values.of("c"), Values.of(3));
+              assertStatement(preparedB, batch.statements().get(3), Values.of("d"), Values.of(4));
+              return CompletableFuture.completedFuture(new Result.Void());
+            });
+
+    when(persistence.newConnection()).thenReturn(connection);
+
+    startServer(persistence);
+
+    StargateBlockingStub stub = makeBlockingStub();
+
+    QueryOuterClass.Response response =
+        stub.executeBatch(
+            QueryOuterClass.Batch.newBuilder()
+                .addQueries(cqlBatchQuery(insertA, Values.of("a"), Values.of(1)))
+                .addQueries(cqlBatchQuery(insertB, Values.of("b"), Values.of(2)))
+                .addQueries(cqlBatchQuery(insertA, Values.of("c"), Values.of(3)))
+                .addQueries(cqlBatchQuery(insertB, Values.of("d"), Values.of(4)))
+                .build());
+
+    assertThat(response.hasResultSet()).isFalse();
+    // Each distinct query is prepared only once
+    verify(connection, times(1)).prepare(eq(insertA), any(Parameters.class));
+    verify(connection, times(1)).prepare(eq(insertB), any(Parameters.class));
+  }
+
   @Test
   public void simpleBatch() {
     Prepared prepared =
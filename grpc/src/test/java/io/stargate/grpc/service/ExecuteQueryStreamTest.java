@@ -0,0 +1,115 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.stargate.db.Parameters;
+import io.stargate.db.Result;
+import io.stargate.db.Result.Prepared;
+import io.stargate.db.Statement;
+import io.stargate.grpc.Utils;
+import io.stargate.proto.QueryOuterClass.Query;
+import io.stargate.proto.QueryOuterClass.StreamingQuery;
+import io.stargate.proto.QueryOuterClass.StreamingResponse;
+import io.stargate.proto.StargateGrpc.StargateStub;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class ExecuteQueryStreamTest extends BaseServiceTest {
+
+  @Test
+  public void multipleQueries() throws InterruptedException {
+    Prepared prepared = Utils.makePrepared();
+    when(connection.prepare(eq("INSERT INTO test (k) VALUES (1)"), any(Parameters.class)))
+        .thenReturn(CompletableFuture.completedFuture(prepared));
+    CompletableFuture<Prepared> failedPrepare = new CompletableFuture<>();
+    failedPrepare.completeExceptionally(
+        Status.INVALID_ARGUMENT.withDescription("Mock syntax error").asException());
+    when(connection.prepare(eq("NOT CQL"), any(Parameters.class))).thenReturn(failedPrepare);
+    when(connection.execute(any(Statement.class), any(Parameters.class), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(new Result.Void()));
+    when(persistence.newConnection()).thenReturn(connection);
+
+    startServer(persistence);
+
+    List<StreamingResponse> responses =
+        executeStream(
+            "INSERT INTO test (k) VALUES (1)", "NOT CQL", "INSERT INTO test (k) VALUES (1)");
+
+    Map<Long, StreamingResponse> byId =
+        responses.stream()
+            .collect(Collectors.toMap(StreamingResponse::getRequestId, Function.identity()));
+    assertThat(byId).hasSize(3);
+    assertThat(byId.get(0L).hasResponse()).isTrue();
+    assertThat(byId.get(2L).hasResponse()).isTrue();
+    assertThat(byId.get(1L).hasError()).isTrue();
+    assertThat(byId.get(1L).getError().getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT.value());
+    assertThat(byId.get(1L).getError().getMessage()).isEqualTo("Mock syntax error");
+
+    // A single connection is shared by all the queries of the stream
+    verify(persistence, times(1)).newConnection();
+  }
+
+  private List<StreamingResponse> executeStream(String... cqls) throws InterruptedException {
+    StargateStub stub = makeAsyncStub();
+    List<StreamingResponse> responses = new CopyOnWriteArrayList<>();
+    CountDownLatch completed = new CountDownLatch(1);
+    StreamObserver<StreamingQuery> requestObserver =
+        stub.executeQueryStream(
+            new StreamObserver<StreamingResponse>() {
+              @Override
+              public void onNext(StreamingResponse response) {
+                responses.add(response);
+              }
+
+              @Override
+              public void onError(Throwable t) {
+                completed.countDown();
+              }
+
+              @Override
+              public void onCompleted() {
+                completed.countDown();
+              }
+            });
+    for (int i = 0; i < cqls.length; i++) {
+      requestObserver.onNext(
+          StreamingQuery.newBuilder()
+              .setRequestId(i)
+              .setQuery(Query.newBuilder().setCql(cqls[i]))
+              .build());
+    }
+    requestObserver.onCompleted();
+    assertThat(completed.await(10, TimeUnit.SECONDS)).isTrue();
+    return responses;
+  }
+}
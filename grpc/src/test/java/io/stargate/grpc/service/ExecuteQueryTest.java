@@ -22,12 +22,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.Context;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
 import io.stargate.db.BoundStatement;
 import io.stargate.db.Parameters;
 import io.stargate.db.Result;
@@ -54,6 +60,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -211,6 +219,40 @@ public class ExecuteQueryTest extends BaseServiceTest {
     assertThat(response.getWarningsList()).containsAll(expectedWarnings);
   }
 
+  @Test
+  public void abandonedQuery() throws InterruptedException {
+    CompletableFuture<Prepared> prepareFuture = new CompletableFuture<>();
+    CountDownLatch serverCancelled = new CountDownLatch(1);
+    when(connection.prepare(anyString(), any(Parameters.class)))
+        .thenAnswer(
+            i -> {
+              // Runs on the server, with the context of the call
+              Context.current()
+                  .addListener(c -> serverCancelled.countDown(), MoreExecutors.directExecutor());
+              return prepareFuture;
+            });
+    when(persistence.newConnection()).thenReturn(connection);
+
+    startServer(persistence);
+
+    StargateBlockingStub stub = makeBlockingStub().withDeadlineAfter(100, TimeUnit.MILLISECONDS);
+
+    assertThatThrownBy(() -> executeQuery(stub, "SELECT * FROM test"))
+        .isInstanceOf(StatusRuntimeException.class)
+        .extracting(t -> ((StatusRuntimeException) t).getStatus().getCode())
+        .isEqualTo(Status.Code.DEADLINE_EXCEEDED);
+
+    assertThat(serverCancelled.await(1, TimeUnit.MINUTES)).isTrue();
+    prepareFuture.complete(Utils.makePrepared());
+
+    verify(connection, never()).execute(any(Statement.class), any(Parameters.class), anyLong());
+    double abandoned =
+        meterRegistry.get(Service.ABANDONED_QUERIES_METRIC).counters().stream()
+            .mapToDouble(Counter::count)
+            .sum();
+    assertThat(abandoned).isEqualTo(1);
+  }
+
   @ParameterizedTest
   @MethodSource("columnMetadataValues")
   public void columnMetadata(
@@ -0,0 +1,133 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.service.interceptors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.stargate.db.ClientInfo;
+import io.stargate.db.metrics.api.ClientInfoMetricsTagProvider;
+import io.stargate.proto.QueryOuterClass.Query;
+import io.stargate.proto.QueryOuterClass.Response;
+import io.stargate.proto.StargateGrpc;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MetricsInterceptorTest {
+  private static final String SERVER_NAME = "MetricsInterceptorTest";
+  private static final String EXECUTE_QUERY = "stargate.Stargate/ExecuteQuery";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Server server;
+  private ManagedChannel channel;
+
+  @BeforeEach
+  public void setup() throws IOException {
+    ClientInfoMetricsTagProvider tagProvider =
+        new ClientInfoMetricsTagProvider() {
+          @Override
+          public Tags getClientInfoTags(ClientInfo clientInfo) {
+            return Tags.of("client", "test");
+          }
+        };
+    server =
+        InProcessServerBuilder.forName(SERVER_NAME)
+            .directExecutor()
+            .intercept(
+                new MetricsInterceptor(meterRegistry, Tags.of("module", "grpc"), tagProvider))
+            .addService(
+                new StargateGrpc.StargateImplBase() {
+                  @Override
+                  public void executeQuery(Query query, StreamObserver<Response> observer) {
+                    if (query.getCql().isEmpty()) {
+                      observer.onError(Status.INVALID_ARGUMENT.asException());
+                    } else {
+                      observer.onNext(Response.newBuilder().addWarnings("warning").build());
+                      observer.onCompleted();
+                    }
+                  }
+                })
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(SERVER_NAME).directExecutor().build();
+  }
+
+  @AfterEach
+  public void cleanUp() throws InterruptedException {
+    channel.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+    server.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void shouldRecordCallMetrics() {
+    StargateGrpc.StargateBlockingStub stub = StargateGrpc.newBlockingStub(channel);
+    Query query = Query.newBuilder().setCql("SELECT * FROM test").build();
+    stub.executeQuery(query);
+    stub.executeQuery(query);
+    assertThatThrownBy(() -> stub.executeQuery(Query.getDefaultInstance()))
+        .isInstanceOf(StatusRuntimeException.class);
+
+    assertThat(
+            meterRegistry
+                .get(MetricsInterceptor.CALL_DURATION_METRIC)
+                .tags(
+                    "module",
+                    "grpc",
+                    "client",
+                    "test",
+                    MetricsInterceptor.METHOD_TAG,
+                    EXECUTE_QUERY)
+                .timer()
+                .count())
+        .isEqualTo(3);
+    assertThat(
+            meterRegistry
+                .get(MetricsInterceptor.CALLS_METRIC)
+                .tags(
+                    MetricsInterceptor.METHOD_TAG,
+                    EXECUTE_QUERY,
+                    MetricsInterceptor.STATUS_TAG,
+                    "OK")
+                .counter()
+                .count())
+        .isEqualTo(2);
+    assertThat(
+            meterRegistry
+                .get(MetricsInterceptor.CALLS_METRIC)
+                .tags(MetricsInterceptor.STATUS_TAG, "INVALID_ARGUMENT")
+                .counter()
+                .count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get(MetricsInterceptor.CALLS_IN_FLIGHT_METRIC).gauge().value())
+        .isEqualTo(0);
+    assertThat(meterRegistry.get(MetricsInterceptor.REQUEST_SIZE_METRIC).summary().totalAmount())
+        .isEqualTo(2 * query.getSerializedSize());
+    assertThat(meterRegistry.get(MetricsInterceptor.RESPONSE_SIZE_METRIC).summary().count())
+        .isEqualTo(2);
+  }
+}
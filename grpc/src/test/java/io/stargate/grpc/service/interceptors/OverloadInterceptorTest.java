@@ -0,0 +1,59 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.grpc.service.interceptors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+public class OverloadInterceptorTest {
+  @Test
+  public void notOverloaded() {
+    ServerCallHandler next = mock(ServerCallHandler.class);
+    ServerCall call = mock(ServerCall.class);
+
+    Metadata metadata = new Metadata();
+    OverloadInterceptor interceptor = new OverloadInterceptor(() -> false);
+    interceptor.interceptCall(call, metadata, next);
+
+    verify(call, never()).close(any(Status.class), any(Metadata.class));
+    verify(next, times(1)).startCall(call, metadata);
+  }
+
+  @Test
+  public void overloaded() {
+    ServerCallHandler next = mock(ServerCallHandler.class);
+    ServerCall call = mock(ServerCall.class);
+
+    Metadata metadata = new Metadata();
+    OverloadInterceptor interceptor = new OverloadInterceptor(() -> true);
+    interceptor.interceptCall(call, metadata, next);
+
+    verify(call, times(1))
+        .close(
+            argThat(s -> s.getCode() == Status.RESOURCE_EXHAUSTED.getCode()), any(Metadata.class));
+    verify(next, never()).startCall(any(ServerCall.class), any(Metadata.class));
+  }
+}
@@ -51,6 +51,12 @@ public interface Persistence {
    */
   void registerEventListener(EventListener listener);
 
+  /**
+   * Unregisters a listener previously registered with {@link #registerEventListener}, its methods
+   * won't be called anymore.
+   */
+  void unregisterEventListener(EventListener listener);
+
   Authenticator getAuthenticator();
 
   /**
@@ -49,6 +49,11 @@ public class RateLimitingPersistence implements Persistence {
     persistence.registerEventListener(listener);
   }
 
+  @Override
+  public void unregisterEventListener(EventListener listener) {
+    persistence.unregisterEventListener(listener);
+  }
+
   @Override
   public Authenticator getAuthenticator() {
     return persistence.getAuthenticator();
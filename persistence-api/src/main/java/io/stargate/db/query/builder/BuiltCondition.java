@@ -26,6 +26,8 @@ import io.stargate.db.schema.Column.ColumnType;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.db.schema.ColumnUtils;
 import io.stargate.db.schema.Table;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -164,8 +166,8 @@ public abstract class BuiltCondition {
     }
 
     public static LHS token(String... columnNames) {
-      // Not yet needed, but we should add it someday
-      throw new UnsupportedOperationException();
+      checkArgument(columnNames.length > 0, "TOKEN requires at least one column");
+      return new Token(Arrays.asList(columnNames));
     }
 
     abstract Column appendToBuilder(
@@ -302,5 +304,65 @@ public abstract class BuiltCondition {
         return format("%s[%s]", ColumnUtils.maybeQuote(columnName), keyValue);
       }
     }
+
+    static final class Token extends LHS {
+      // The name C* gives to the bind markers of token conditions
+      private static final String RECEIVER_NAME = "partition key token";
+
+      private final List<String> columnNames;
+
+      private Token(List<String> columnNames) {
+        this.columnNames = columnNames;
+      }
+
+      @Override
+      String columnName() {
+        return columnNames.get(0);
+      }
+
+      @Override
+      Column appendToBuilder(
+          Table table, QueryStringBuilder builder, Consumer<BindMarker> onMarker) {
+        builder.append("TOKEN(");
+        for (int i = 0; i < columnNames.size(); i++) {
+          if (i > 0) {
+            builder.appendForceNoSpace(",");
+          }
+          builder.append(table.existingColumn(columnNames.get(i)));
+        }
+        builder.appendForceNoSpace(")");
+        // Note: this assumes the Murmur3Partitioner, whose tokens are bigints
+        return Column.create(RECEIVER_NAME, Type.Bigint);
+      }
+
+      @Override
+      public boolean equals(Object o) {
+        if (this == o) {
+          return true;
+        }
+        if (!(o instanceof Token)) {
+          return false;
+        }
+        Token that = (Token) o;
+        return columnNames.equals(that.columnNames);
+      }
+
+      @Override
+      public int hashCode() {
+        return Objects.hash(columnNames);
+      }
+
+      @Override
+      public String toString() {
+        StringBuilder builder = new StringBuilder("TOKEN(");
+        for (int i = 0; i < columnNames.size(); i++) {
+          if (i > 0) {
+            builder.append(", ");
+          }
+          builder.append(ColumnUtils.maybeQuote(columnNames.get(i)));
+        }
+        return builder.append(")").toString();
+      }
+    }
   }
 }
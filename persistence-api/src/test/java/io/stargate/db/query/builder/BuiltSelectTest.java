@@ -351,6 +351,34 @@ class BuiltSelectTest extends BuiltQueryTest {
     assertThat(names(select.selectedColumns())).isEqualTo(asSet("k2", "v1"));
   }
 
+  @Test
+  public void testSelectWhereToken() {
+    QueryBuilder builder = newBuilder();
+
+    BuiltQuery<?> query =
+        builder
+            .select()
+            .from(KS_NAME, "t1")
+            .where(BuiltCondition.ofMarker(BuiltCondition.LHS.token("k1"), Predicate.GT))
+            .where(BuiltCondition.ofMarker(BuiltCondition.LHS.token("k1"), Predicate.LTE))
+            .build();
+
+    assertBuiltQuery(
+        query,
+        "SELECT * FROM ks.t1 WHERE TOKEN(k1) > ? AND TOKEN(k1) <= ?",
+        asList(
+            markerFor("partition key token", Type.Bigint),
+            markerFor("partition key token", Type.Bigint)));
+
+    BoundSelect select = checkedCast(query.bind(-10L, 10L));
+
+    assertBoundQuery(
+        select, "SELECT * FROM ks.t1 WHERE TOKEN(k1) > ? AND TOKEN(k1) <= ?", -10L, 10L);
+
+    assertThat(select.isStarSelect()).isTrue();
+    assertThat(select.selectedColumns()).isEmpty();
+  }
+
   @Test
   public void testSelectWhereIn() {
     QueryBuilder builder = newBuilder();
@@ -50,6 +50,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -136,6 +138,9 @@ public class CassandraPersistence
               2 * MigrationManager.MIGRATION_DELAY_IN_MS + 10_000));
 
   private final SchemaCheck schemaCheck = new SchemaCheck();
+  // The wrappers of the registered listeners, to unregister them
+  private final ConcurrentMap<EventListener, EventListenerWrapper> eventListenerWrappers =
+      new ConcurrentHashMap<>();
 
   private LocalAwareExecutorService executor;
 
@@ -234,10 +239,21 @@ public class CassandraPersistence
 
   @Override
   public void registerEventListener(EventListener listener) {
-    MigrationManager.instance.register(new EventListenerWrapper(listener));
+    EventListenerWrapper wrapper = new EventListenerWrapper(listener);
+    eventListenerWrappers.put(listener, wrapper);
+    MigrationManager.instance.register(wrapper);
     interceptor.register(listener);
   }
 
+  @Override
+  public void unregisterEventListener(EventListener listener) {
+    EventListenerWrapper wrapper = eventListenerWrappers.remove(listener);
+    if (wrapper != null) {
+      MigrationManager.instance.unregister(wrapper);
+    }
+    interceptor.unregister(listener);
+  }
+
   @Override
   public ByteBuffer unsetValue() {
     return ByteBufferUtil.UNSET_BYTE_BUFFER;
@@ -92,6 +92,11 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
     listeners.add(listener);
   }
 
+  @Override
+  public void unregister(EventListener listener) {
+    listeners.remove(listener);
+  }
+
   @Override
   public void onJoin(InetAddress endpoint, EndpointState state) {
     if (!isStargateNode(state)) {
@@ -23,4 +23,6 @@ public interface QueryInterceptor {
       long queryStartNanoTime);
 
   void register(EventListener listener);
+
+  void unregister(EventListener listener);
 }
@@ -34,6 +34,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -118,6 +120,9 @@ public class CassandraPersistence
       Duration.ofMillis(Long.getLong("stargate.schema_sync_grace_period_ms", 2 * 60_000 + 10_000));
 
   private final SchemaCheck schemaCheck = new SchemaCheck();
+  // The wrappers of the registered listeners, to unregister them
+  private final ConcurrentMap<EventListener, EventListenerWrapper> eventListenerWrappers =
+      new ConcurrentHashMap<>();
 
   private LocalAwareExecutorService executor;
 
@@ -217,10 +222,21 @@ public class CassandraPersistence
 
   @Override
   public void registerEventListener(EventListener listener) {
-    Schema.instance.registerListener(new EventListenerWrapper(listener));
+    EventListenerWrapper wrapper = new EventListenerWrapper(listener);
+    eventListenerWrappers.put(listener, wrapper);
+    Schema.instance.registerListener(wrapper);
     interceptor.register(listener);
   }
 
+  @Override
+  public void unregisterEventListener(EventListener listener) {
+    EventListenerWrapper wrapper = eventListenerWrappers.remove(listener);
+    if (wrapper != null) {
+      Schema.instance.unregisterListener(wrapper);
+    }
+    interceptor.unregister(listener);
+  }
+
   @Override
   public ByteBuffer unsetValue() {
     return ByteBufferUtil.UNSET_BYTE_BUFFER;
@@ -95,6 +95,11 @@ public class DefaultQueryInterceptor implements QueryInterceptor, IEndpointState
     listeners.add(listener);
   }
 
+  @Override
+  public void unregister(EventListener listener) {
+    listeners.remove(listener);
+  }
+
   @Override
   public void onJoin(InetAddressAndPort endpoint, EndpointState state) {
     if (!isStargateNode(state)) {
@@ -40,6 +40,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -124,6 +126,9 @@ public class DsePersistence
       Integer.getInteger("stargate.startup_delay_ms", 3 * MigrationManager.MIGRATION_DELAY_IN_MS);
 
   private CassandraDaemon cassandraDaemon;
+  // The wrappers of the registered listeners, to unregister them
+  private final ConcurrentMap<EventListener, EventListenerWrapper> eventListenerWrappers =
+      new ConcurrentHashMap<>();
   private Authenticator authenticator;
   private QueryInterceptor interceptor;
 
@@ -234,10 +239,21 @@ public class DsePersistence
 
   @Override
   public void registerEventListener(EventListener listener) {
-    SchemaManager.instance.registerListener(new EventListenerWrapper(listener));
+    EventListenerWrapper wrapper = new EventListenerWrapper(listener);
+    eventListenerWrappers.put(listener, wrapper);
+    SchemaManager.instance.registerListener(wrapper);
     interceptor.register(listener);
   }
 
+  @Override
+  public void unregisterEventListener(EventListener listener) {
+    EventListenerWrapper wrapper = eventListenerWrappers.remove(listener);
+    if (wrapper != null) {
+      SchemaManager.instance.unregisterListener(wrapper);
+    }
+    interceptor.unregister(listener);
+  }
+
   @Override
   public Authenticator getAuthenticator() {
     return authenticator;
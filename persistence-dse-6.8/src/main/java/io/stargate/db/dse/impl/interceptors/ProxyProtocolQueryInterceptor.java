@@ -187,6 +187,12 @@ public class ProxyProtocolQueryInterceptor implements QueryInterceptor {
     wrapped.ifPresent(w -> w.register(listener));
   }
 
+  @Override
+  public void unregister(EventListener listener) {
+    listeners.remove(listener);
+    wrapped.ifPresent(w -> w.unregister(listener));
+  }
+
   private void resolvePeers() {
     if (!Strings.isNullOrEmpty(proxyDnsName)) {
       try {
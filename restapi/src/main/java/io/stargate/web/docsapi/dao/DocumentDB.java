@@ -12,6 +12,7 @@ import io.stargate.auth.Scope;
 import io.stargate.auth.SourceAPI;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.DataStore;
+import io.stargate.db.datastore.Row;
 import io.stargate.db.query.BoundQuery;
 import io.stargate.db.query.Predicate;
 import io.stargate.db.query.TypedValue;
@@ -31,6 +32,7 @@ import io.stargate.web.docsapi.service.ExecutionContext;
 import io.stargate.web.docsapi.service.QueryExecutor;
 import io.stargate.web.docsapi.service.RawDocument;
 import io.stargate.web.docsapi.service.json.DeadLeaf;
+import io.stargate.web.docsapi.service.util.DocsApiUtils;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
@@ -52,6 +54,25 @@ public class DocumentDB {
   private Boolean useLoggedBatches;
   public static final Integer SEARCH_PAGE_SIZE =
       Integer.getInteger("stargate.document_search_page_size", 1000);
+  public static final Integer SEARCH_PAGE_DOCUMENTS =
+      Integer.getInteger("stargate.document_search_page_documents", 0);
+  public static final Integer MIN_SEARCH_PAGE_SIZE =
+      Integer.getInteger("stargate.document_search_min_page_size", 100);
+  public static final Integer MAX_SEARCH_PAGE_SIZE =
+      Integer.getInteger("stargate.document_search_max_page_size", 10000);
+  public static final Integer SEARCH_READ_AHEAD_PAGES =
+      Integer.getInteger("stargate.document_search_read_ahead_pages", 1);
+  public static final Integer MAX_SEARCH_UNION_SIZE =
+      Integer.getInteger("stargate.document_search_max_union_size", 20);
+  public static final Integer FULL_SCAN_TOKEN_RANGES =
+      Integer.getInteger("stargate.document_full_scan_token_ranges", 1);
+  public static final Integer FULL_SCAN_CONCURRENCY =
+      Integer.getInteger("stargate.document_full_scan_concurrency", 4);
+  public static final Integer MAX_MULTI_GET_SIZE =
+      Integer.getInteger("stargate.document_multi_get_max_size", 100);
+  public static final Integer MULTI_GET_CONCURRENCY =
+      Integer.getInteger("stargate.document_multi_get_concurrency", 8);
+  public static final boolean DIFF_WRITES = Boolean.getBoolean("stargate.document_diff_writes");
 
   // All array elements will be represented as 6 digits, so they get left-padded, such as [000010]
   // instead of [10]
@@ -699,6 +720,100 @@ public class DocumentDB {
     executeBatch(queries, context);
   }
 
+  /**
+   * Writes only the difference between the current rows of a document and the new rows, all in one
+   * batch: new rows and rows with changed values are inserted, and current rows that are not part
+   * of the new rows are deleted.
+   *
+   * <p>The writes use the same timestamps as {@link #deleteThenInsertBatch}: the inserts are done
+   * at {@code microsSinceEpoch} and the deletes one microsecond before. Current rows that were
+   * written at or after {@code microsSinceEpoch} are left as they are, as they would survive the
+   * delete of the whole path. This makes it safe to call this again with the rows read after the
+   * write, in order to replace the rows that a concurrent writer added in the meantime.
+   *
+   * @param currentRows the rows currently stored under the updated path
+   * @param vars the values of the new rows, in the same form as for {@link #getInsertStatement}
+   * @param microsSinceEpoch the timestamp of the update
+   * @return <code>true</code> if anything was written, <code>false</code> if the current rows were
+   *     already up to date
+   */
+  public boolean diffThenWriteBatch(
+      String keyspace,
+      String table,
+      String key,
+      List<Row> currentRows,
+      List<Object[]> vars,
+      long microsSinceEpoch,
+      ExecutionContext context)
+      throws UnauthorizedException {
+    Map<List<String>, Row> rowsByPath = new HashMap<>(currentRows.size());
+    for (Row row : currentRows) {
+      rowsByPath.put(getPath(row), row);
+    }
+
+    List<BoundQuery> queries = new ArrayList<>();
+    for (Object[] values : vars) {
+      Row row = rowsByPath.remove(getPath(values));
+      if (null == row
+          || (getWriteTime(row) < microsSinceEpoch
+              && !Arrays.equals(
+                  getValues(row), Arrays.copyOfRange(values, 1 + MAX_DEPTH, values.length)))) {
+        queries.add(getInsertStatement(keyspace, table, microsSinceEpoch, values));
+      }
+    }
+    for (Map.Entry<List<String>, Row> entry : rowsByPath.entrySet()) {
+      if (getWriteTime(entry.getValue()) < microsSinceEpoch) {
+        queries.add(
+            getExactPathDeleteStatement(
+                keyspace, table, key, microsSinceEpoch - 1, entry.getKey()));
+      }
+    }
+
+    if (queries.isEmpty()) {
+      return false;
+    }
+
+    getAuthorizationService()
+        .authorizeDataWrite(authenticationSubject, keyspace, table, Scope.DELETE, SourceAPI.REST);
+
+    getAuthorizationService()
+        .authorizeDataWrite(authenticationSubject, keyspace, table, Scope.MODIFY, SourceAPI.REST);
+
+    executeBatch(queries, context);
+    return true;
+  }
+
+  private List<String> getPath(Row row) {
+    List<String> path = new ArrayList<>(MAX_DEPTH);
+    for (int i = 0; i < MAX_DEPTH; i++) {
+      path.add(row.getString("p" + i));
+    }
+    return path;
+  }
+
+  private List<String> getPath(Object[] columnValues) {
+    List<String> path = new ArrayList<>(MAX_DEPTH);
+    for (int i = 0; i < MAX_DEPTH; i++) {
+      path.add((String) columnValues[1 + i]);
+    }
+    return path;
+  }
+
+  /** Returns the values of the row, in the same form as the ones used for inserts. */
+  private Object[] getValues(Row row) {
+    Boolean bool = DocsApiUtils.getBooleanFromRow(row, treatBooleansAsNumeric());
+    return new Object[] {
+      row.getString("leaf"),
+      DocsApiUtils.getStringFromRow(row),
+      DocsApiUtils.getDoubleFromRow(row),
+      null != bool && treatBooleansAsNumeric() ? (Object) (bool ? 1 : 0) : bool
+    };
+  }
+
+  private static long getWriteTime(Row row) {
+    return row.getLong(Column.reference("writetime(leaf)").name());
+  }
+
   public void delete(
       String keyspace, String table, String key, List<String> pathToDelete, long microsSinceEpoch)
       throws UnauthorizedException {
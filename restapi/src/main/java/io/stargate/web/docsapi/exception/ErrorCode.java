@@ -77,6 +77,13 @@ public enum ErrorCode {
       Response.Status.BAD_REQUEST,
       "When selecting `fields`, the field referenced by `where` must be in the selection."),
 
+  DOCS_API_GET_MANY_IDS_INVALID(
+      Response.Status.BAD_REQUEST,
+      "The payload must be a JSON array of document ids, each id being a non-empty string."),
+
+  DOCS_API_GET_MANY_SIZE_EXCEEDED(
+      Response.Status.BAD_REQUEST, "Too many documents requested in one request."),
+
   DOCS_API_PATCH_ARRAY_NOT_ACCEPTED(
       Response.Status.BAD_REQUEST,
       "A patch operation must be done with a JSON object, not an array."),
@@ -103,7 +110,7 @@ public enum ErrorCode {
 
   DOCS_API_SEARCH_OR_NOT_SUPPORTED(
       Response.Status.BAD_REQUEST,
-      "Searching documents with the $or condition is not yet supported."),
+      "Searching documents with the $or condition is only supported when all of its conditions can be resolved by the database."),
 
   DOCS_API_SEARCH_RESULTS_NOT_FITTING(
       Response.Status.BAD_REQUEST,
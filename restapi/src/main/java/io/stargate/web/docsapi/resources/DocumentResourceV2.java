@@ -5,6 +5,7 @@ import static io.stargate.web.docsapi.resources.RequestToHeadersMapper.getAllHea
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import io.stargate.web.docsapi.dao.DocumentDB;
@@ -244,6 +245,111 @@ public class DocumentResourceV2 {
         });
   }
 
+  @POST
+  @ManagedAsync
+  @ApiOperation(
+      value = "Get multiple documents in one request",
+      notes =
+          "Retrieve the JSON representation of the documents with the provided ids, keyed by id. Documents that don't exist are returned as null.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(code = 200, message = "OK", response = DocumentResponseWrapper.class),
+        @ApiResponse(code = 400, message = "Bad request", response = Error.class),
+        @ApiResponse(code = 401, message = "Unauthorized", response = Error.class),
+        @ApiResponse(code = 403, message = "Forbidden", response = Error.class),
+        @ApiResponse(code = 500, message = "Internal Server Error", response = Error.class)
+      })
+  @Path("collections/{collection-id}/batch/get")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response getManyDocs(
+      @Context HttpHeaders headers,
+      @Context UriInfo ui,
+      @ApiParam(
+              value =
+                  "The token returned from the authorization endpoint. Use this token in each request.",
+              required = true)
+          @HeaderParam("X-Cassandra-Token")
+          String authToken,
+      @ApiParam(value = "the namespace that the collection is in", required = true)
+          @PathParam("namespace-id")
+          String namespace,
+      @ApiParam(value = "the name of the collection", required = true) @PathParam("collection-id")
+          String collection,
+      @ApiParam(value = "A JSON array with the ids of the documents to get", required = true)
+          String payload,
+      @ApiParam(
+              value = "the field names that you want to restrict the results to",
+              required = false)
+          @QueryParam("fields")
+          String fields,
+      @ApiParam(
+              value = "Whether to include profiling information in the response (advanced)",
+              defaultValue = "false")
+          @QueryParam("profile")
+          Boolean profile,
+      @ApiParam(value = "Unwrap results", defaultValue = "false") @QueryParam("raw") Boolean raw,
+      @Context HttpServletRequest request) {
+    logger.debug("Batch Get: Collection = {}", collection);
+    return handle(
+        () -> {
+          List<String> ids = new ArrayList<>();
+          try {
+            JsonNode idsJson = mapper.readTree(payload);
+            if (idsJson == null || !idsJson.isArray()) {
+              throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GET_MANY_IDS_INVALID);
+            }
+            for (JsonNode idJson : idsJson) {
+              if (!idJson.isTextual() || idJson.asText().isEmpty()) {
+                throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GET_MANY_IDS_INVALID);
+              }
+              ids.add(idJson.asText());
+            }
+          } catch (JsonProcessingException e) {
+            throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_GET_MANY_IDS_INVALID);
+          }
+
+          int maxMultiGetSize = docsApiConfiguration.getMaxMultiGetSize();
+          if (ids.size() > maxMultiGetSize) {
+            throw new ErrorCodeRuntimeException(
+                ErrorCode.DOCS_API_GET_MANY_SIZE_EXCEEDED,
+                String.format(
+                    "At most %d documents can be fetched in one request.", maxMultiGetSize));
+          }
+
+          List<String> selectionList = new ArrayList<>();
+          if (fields != null) {
+            try {
+              JsonNode fieldsJson = mapper.readTree(fields);
+              selectionList = documentService.convertToSelectionList(fieldsJson);
+            } catch (JsonProcessingException e) {
+              throw new ErrorCodeRuntimeException(
+                  ErrorCode.DOCS_API_GENERAL_FIELDS_INVALID, "Malformed fields array provided.");
+            }
+          }
+
+          // check first that namespace and table exist
+          DocumentDB db = dbFactory.getDocDataStoreForToken(authToken, getAllHeaders(request));
+          schemaChecker.checkValidity(namespace, collection, db);
+
+          ExecutionContext context = ExecutionContext.create(profile);
+          ObjectNode docs =
+              documentService.getJsonForIds(db, namespace, collection, ids, selectionList, context);
+
+          String json;
+          if (raw == null || !raw) {
+            json =
+                mapper.writeValueAsString(
+                    new DocumentResponseWrapper<>(null, null, docs, context.toProfile()));
+          } else {
+            json = mapper.writeValueAsString(docs);
+          }
+
+          logger.debug(json);
+          return Response.ok(json).build();
+        });
+  }
+
   @PUT
   @ManagedAsync
   @ApiOperation(value = "Create or update a document with the provided document-id")
@@ -4,6 +4,7 @@ import io.dropwizard.setup.Environment;
 import io.stargate.web.docsapi.service.query.DocumentSearchService;
 import io.stargate.web.docsapi.service.query.ExpressionParser;
 import io.stargate.web.docsapi.service.query.condition.ConditionParser;
+import javax.inject.Singleton;
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 
 public class DocsApiComponentsBinder extends AbstractBinder {
@@ -19,10 +20,12 @@ public class DocsApiComponentsBinder extends AbstractBinder {
     bind(TimeSource.SYSTEM).to(TimeSource.class);
 
     bindAsContract(JsonConverter.class);
-    bindAsContract(DocsSchemaChecker.class);
+    // holds the cache of validated collections, so it must outlive the requests
+    bindAsContract(DocsSchemaChecker.class).in(Singleton.class);
     bindAsContract(DocumentService.class);
     bindAsContract(CollectionService.class);
-    bindAsContract(JsonSchemaHandler.class);
+    // holds the compiled schemas, so it must outlive the requests
+    bindAsContract(JsonSchemaHandler.class).in(Singleton.class);
     bindAsContract(ExpressionParser.class);
     bindAsContract(ConditionParser.class);
     bindAsContract(DocumentSearchService.class);
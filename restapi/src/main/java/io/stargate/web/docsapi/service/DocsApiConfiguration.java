@@ -13,6 +13,80 @@ public interface DocsApiConfiguration {
     return DocumentDB.SEARCH_PAGE_SIZE;
   }
 
+  /**
+   * @return the number of documents each database page should hold, the size of the pages after the
+   *     first one is then adapted to the number of rows per document fetched so far, within the min
+   *     and max search page size. Zero or less disables this, and all pages have the requested
+   *     size.
+   */
+  default int getSearchPageDocuments() {
+    return DocumentDB.SEARCH_PAGE_DOCUMENTS;
+  }
+
+  default int getMinSearchPageSize() {
+    return DocumentDB.MIN_SEARCH_PAGE_SIZE;
+  }
+
+  default int getMaxSearchPageSize() {
+    return DocumentDB.MAX_SEARCH_PAGE_SIZE;
+  }
+
+  /**
+   * @return the maximum number of database pages fetched ahead of the one being processed when
+   *     searching documents. Zero or less disables this, and each page is only fetched once the
+   *     previous one was consumed. Since this is enabled by default, a search whose results span
+   *     several database pages executes one more query than needed when the documents of its first
+   *     page are enough.
+   */
+  default int getSearchReadAheadPages() {
+    return DocumentDB.SEARCH_READ_AHEAD_PAGES;
+  }
+
+  /**
+   * @return the maximum number of concurrent queries a single filter can be executed with (e.g. one
+   *     query per value of <code>$in</code>), beyond that the filter is executed in memory.
+   */
+  default int getMaxSearchUnionSize() {
+    return DocumentDB.MAX_SEARCH_UNION_SIZE;
+  }
+
+  /**
+   * @return the number of token ranges the searches that scan the whole collection are split into,
+   *     so that the ranges can be queried concurrently. One or less disables this, and the
+   *     collection is scanned with a single query. Note that this assumes the Murmur3Partitioner.
+   */
+  default int getFullScanTokenRanges() {
+    return DocumentDB.FULL_SCAN_TOKEN_RANGES;
+  }
+
+  /** @return the maximum number of token ranges queried at the same time by a full scan. */
+  default int getFullScanConcurrency() {
+    return DocumentDB.FULL_SCAN_CONCURRENCY;
+  }
+
+  /** @return the maximum number of documents that can be fetched by id in a single request. */
+  default int getMaxMultiGetSize() {
+    return DocumentDB.MAX_MULTI_GET_SIZE;
+  }
+
+  /** @return the maximum number of documents fetched concurrently when fetching them by id. */
+  default int getMultiGetConcurrency() {
+    return DocumentDB.MULTI_GET_CONCURRENCY;
+  }
+
+  /**
+   * Note that in this mode the rows under the updated path are read before and after they are
+   * written, so updates also require the permission to select from the collection table. Unlike the
+   * delete of the whole path, the update does not shadow concurrent writes with an older timestamp
+   * that arrive after the rows were read again.
+   *
+   * @return if updates of existing documents only write the rows that changed, instead of deleting
+   *     and re-inserting the whole updated path.
+   */
+  default boolean isDiffWritesEnabled() {
+    return DocumentDB.DIFF_WRITES;
+  }
+
   default int getMaxDepth() {
     return DocumentDB.MAX_DEPTH;
   }
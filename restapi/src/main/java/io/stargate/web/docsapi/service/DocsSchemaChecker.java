@@ -1,28 +1,24 @@
 package io.stargate.web.docsapi.service;
 
-import io.stargate.db.schema.Schema;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.stargate.db.schema.Keyspace;
+import io.stargate.db.schema.Table;
 import io.stargate.web.docsapi.dao.DocumentDB;
 import io.stargate.web.docsapi.exception.ErrorCode;
 import io.stargate.web.docsapi.exception.ErrorCodeRuntimeException;
-import io.stargate.web.docsapi.service.util.ImmutableKeyspaceAndTable;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A helper class for checking that particular keyspace/table combinations exist and are valid
  * document API collections.
  */
 public class DocsSchemaChecker {
-  private Schema lastCheckedSchema;
 
-  private final ConcurrentHashMap<ImmutableKeyspaceAndTable, Boolean> validatedDocCollections =
-      new ConcurrentHashMap<>();
-
-  private void clearCacheOnSchemaChange(DocumentDB db) {
-    if (!db.schema().equals(lastCheckedSchema)) {
-      validatedDocCollections.clear();
-      this.lastCheckedSchema = db.schema();
-    }
-  }
+  // validity by the identity of the table, a table instance always describes the same version of
+  // the table schema (including its indexes), so that a schema change gives a new key and the
+  // tables of the previous schema versions are collected once no data store uses them
+  private final Cache<Table, Boolean> validatedDocCollections =
+      Caffeine.newBuilder().weakKeys().build();
 
   public void checkValidity(String keyspace, String table, DocumentDB db) {
     if (!isValid(keyspace, table, db)) {
@@ -35,17 +31,31 @@ public class DocsSchemaChecker {
   }
 
   public boolean isValid(String keyspace, String table, DocumentDB db) {
-    ImmutableKeyspaceAndTable keyspaceAndTable =
-        ImmutableKeyspaceAndTable.builder().keyspace(keyspace).table(table).build();
-    clearCacheOnSchemaChange(db);
-    return validatedDocCollections.computeIfAbsent(
-        keyspaceAndTable, ks -> performValidityCheck(ks, db));
+    db.tableExists(keyspace, table);
+    Table current = db.schema().keyspace(keyspace).table(table);
+    return validatedDocCollections.get(current, t -> db.isDocumentsTable(keyspace, table));
   }
 
-  private boolean performValidityCheck(ImmutableKeyspaceAndTable keyspaceAndTable, DocumentDB db) {
-    String keyspace = keyspaceAndTable.getKeyspace();
-    String table = keyspaceAndTable.getTable();
-    db.tableExists(keyspace, table);
-    return db.isDocumentsTable(keyspace, table);
+  /**
+   * Checks if the given table was already found to be a valid document API collection in its
+   * current schema version, without checking it otherwise. This lets writes skip the creation of
+   * the table and its indexes.
+   *
+   * @return <code>true</code> if the table exists and is known to be valid, <code>false</code> if
+   *     it does not exist or has not been checked yet in its current version
+   */
+  public boolean isKnownValid(String keyspace, String table, DocumentDB db) {
+    Keyspace ks = db.schema().keyspace(keyspace);
+    if (ks == null) {
+      return false;
+    }
+
+    Table current = ks.table(table);
+    if (current == null) {
+      return false;
+    }
+
+    Boolean valid = validatedDocCollections.getIfPresent(current);
+    return valid != null && valid;
   }
 }
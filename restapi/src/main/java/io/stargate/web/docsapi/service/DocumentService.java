@@ -6,6 +6,7 @@ import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.google.common.base.Splitter;
@@ -14,7 +15,10 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.FlowableTransformer;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.Row;
 import io.stargate.db.query.Predicate;
@@ -426,6 +430,11 @@ public class DocumentService {
       Map<String, String> headers,
       String authToken)
       throws UnauthorizedException {
+    // nothing to create if the collection was already validated in its current schema version
+    if (schemaChecker.isKnownValid(keyspace, collection, db)) {
+      return db;
+    }
+
     boolean created = db.maybeCreateTable(keyspace, collection);
     // After creating the table, it can take up to 2 seconds for permissions cache to be updated,
     // but we can force the permissions refetch by logging in again.
@@ -575,6 +584,21 @@ public class DocumentService {
     logger.debug("Bind {}", bindVariableList.size());
 
     long now = timeSource.currentTimeMicros();
+    if (docsApiConfiguration.isDiffWritesEnabled()
+        && diffWrite(
+            db,
+            keyspace,
+            collection,
+            id,
+            convertedPath,
+            bindVariableList,
+            patching,
+            firstLevelKeys,
+            now,
+            context)) {
+      return;
+    }
+
     if (patching) {
       db.deletePatchedPathsThenInsertBatch(
           keyspace,
@@ -597,6 +621,127 @@ public class DocumentService {
     }
   }
 
+  /**
+   * Reads the current rows that the update of the given path would replace, and writes only the
+   * difference to the new rows, with the same timestamps as the delete-then-insert batch.
+   *
+   * <p>As the rows are read before they are written, rows that a concurrent writer adds under the
+   * path in the meantime would not be deleted. So if anything was written over existing rows, the
+   * rows are read again and the ones older than this write that don't belong to the new rows are
+   * deleted as well. This is weaker than the delete of the whole path, which also shadows the
+   * concurrent writes with an older timestamp that arrive later: such writes that land after the
+   * second read are kept, and so are concurrent changes of rows that this update did not change.
+   * Reading the rows means that the update also needs the permission to select from the table.
+   *
+   * @return <code>false</code> if the path is too deep to be updated this way, in which case
+   *     nothing is written and the update should replace the whole path instead
+   */
+  private boolean diffWrite(
+      DocumentDB db,
+      String keyspace,
+      String collection,
+      String id,
+      List<String> path,
+      List<Object[]> bindVariableList,
+      boolean patching,
+      List<String> patchedKeys,
+      long microsSinceEpoch,
+      ExecutionContext context)
+      throws UnauthorizedException {
+    if (path.size() >= docsApiConfiguration.getMaxDepth()) {
+      return false;
+    }
+
+    ExecutionContext writeContext = context.nested(patching ? "ASYNC PATCH" : "ASYNC INSERT");
+    List<Row> currentRows =
+        loadCurrentRows(
+            db, keyspace, collection, id, path, patching, patchedKeys, context, "LoadCurrentRows");
+    boolean written =
+        db.diffThenWriteBatch(
+            keyspace,
+            collection,
+            id,
+            currentRows,
+            bindVariableList,
+            microsSinceEpoch,
+            writeContext);
+    // a new document or path is not read again, there were no rows to replace
+    if (written && !currentRows.isEmpty()) {
+      List<Row> writtenRows =
+          loadCurrentRows(
+              db,
+              keyspace,
+              collection,
+              id,
+              path,
+              patching,
+              patchedKeys,
+              context,
+              "LoadWrittenRows");
+      if (db.diffThenWriteBatch(
+          keyspace,
+          collection,
+          id,
+          writtenRows,
+          bindVariableList,
+          microsSinceEpoch,
+          writeContext)) {
+        logger.debug("Document {} changed concurrently, replaced the rows added meanwhile", id);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Loads the rows of the document under the given path, for patches only the ones that would be
+   * deleted by {@link DocumentDB#deletePatchedPathsThenInsertBatch}.
+   */
+  private List<Row> loadCurrentRows(
+      DocumentDB db,
+      String keyspace,
+      String collection,
+      String id,
+      List<String> path,
+      boolean patching,
+      List<String> patchedKeys,
+      ExecutionContext context,
+      String contextName) {
+    int pathSize = path.size();
+    List<BuiltCondition> predicates = new ArrayList<>(1 + pathSize);
+    predicates.add(BuiltCondition.of("key", Predicate.EQ, id));
+    for (int i = 0; i < pathSize; i++) {
+      predicates.add(BuiltCondition.of("p" + i, Predicate.EQ, path.get(i)));
+    }
+
+    List<RawDocument> docs =
+        db.executeSelect(
+                keyspace,
+                collection,
+                predicates,
+                docsApiConfiguration.getSearchPageSize(),
+                null,
+                context.nested(contextName))
+            .take(1)
+            .toList()
+            .blockingGet();
+
+    List<Row> rows = docs.isEmpty() ? Collections.emptyList() : docs.get(0).rows();
+    if (!patching) {
+      return rows;
+    }
+
+    String column = "p" + pathSize;
+    return rows.stream()
+        .filter(
+            row -> {
+              String segment = row.getString(column);
+              return (pathSize > 0 && segment.isEmpty())
+                  || segment.startsWith("[")
+                  || patchedKeys.contains(segment);
+            })
+        .collect(Collectors.toList());
+  }
+
   public JsonNode getJsonAtPath(
       DocumentDB db,
       String keyspace,
@@ -624,6 +769,16 @@ public class DocumentService {
       }
     }
 
+    // only the rows of the requested fields are needed, they are still filtered in memory below
+    if (!fields.isEmpty()) {
+      List<String> fieldNames =
+          fields.stream()
+              .map(DocsApiUtils::convertArrayPath)
+              .distinct()
+              .collect(Collectors.toList());
+      predicates.add(BuiltCondition.of("p" + path.size(), Predicate.IN, fieldNames));
+    }
+
     List<RawDocument> docs =
         db.executeSelect(
                 keyspace,
@@ -641,6 +796,12 @@ public class DocumentService {
             .blockingGet();
 
     if (docs.isEmpty()) {
+      // an existing document without any of the requested fields is returned as empty
+      if (!fields.isEmpty()
+          && path.isEmpty()
+          && documentExists(db, keyspace, collection, id, context)) {
+        return mapper.createObjectNode();
+      }
       return null;
     }
     RawDocument rawDoc = docs.get(0);
@@ -670,6 +831,72 @@ public class DocumentService {
     return node;
   }
 
+  /**
+   * Fetches the whole documents with the given ids, reading up to {@link
+   * DocsApiConfiguration#getMultiGetConcurrency()} of them concurrently.
+   *
+   * @return the documents keyed by id, in the order of the given ids, with a <code>null</code>
+   *     value for each document that does not exist
+   */
+  public ObjectNode getJsonForIds(
+      DocumentDB db,
+      String keyspace,
+      String collection,
+      List<String> ids,
+      List<String> fields,
+      ExecutionContext context)
+      throws UnauthorizedException {
+    // fail fast, instead of failing each of the reads
+    db.authorizeSelect(keyspace, collection);
+
+    List<String> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+    List<Optional<JsonNode>> docs =
+        Flowable.fromIterable(distinctIds)
+            .concatMapEager(
+                id ->
+                    Single.fromCallable(
+                            () ->
+                                Optional.ofNullable(
+                                    getJsonAtPath(
+                                        db,
+                                        keyspace,
+                                        collection,
+                                        id,
+                                        Collections.emptyList(),
+                                        fields,
+                                        context)))
+                        .subscribeOn(Schedulers.io())
+                        .toFlowable(),
+                docsApiConfiguration.getMultiGetConcurrency(),
+                1)
+            .toList()
+            .blockingGet();
+
+    ObjectNode result = mapper.createObjectNode();
+    for (int i = 0; i < distinctIds.size(); i++) {
+      result.set(distinctIds.get(i), docs.get(i).orElse(NullNode.getInstance()));
+    }
+    return result;
+  }
+
+  private boolean documentExists(
+      DocumentDB db, String keyspace, String collection, String id, ExecutionContext context) {
+    AbstractBound<?> query =
+        db.builder()
+            .select()
+            .column(DocumentDB.allColumns())
+            .writeTimeColumn("leaf")
+            .from(keyspace, collection)
+            .where(Collections.singletonList(BuiltCondition.of("key", Predicate.EQ, id)))
+            .limit(1)
+            .build()
+            .bind();
+
+    return !db.executeSelect(query, 1, null, context.nested("CheckDocumentExists"))
+        .isEmpty()
+        .blockingGet();
+  }
+
   private void validateOpAndValue(String op, JsonNode value, String fieldName) {
     Optional<FilterOp> filterOpt = FilterOp.getByRawValue(op);
     // Further down the line, a nicer error message will be made if the filterOp is invalid
@@ -4,9 +4,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
 import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
 import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import com.google.common.annotations.VisibleForTesting;
 import io.stargate.db.schema.Schema;
 import io.stargate.web.docsapi.dao.DocumentDB;
 import io.stargate.web.docsapi.exception.ErrorCode;
@@ -24,7 +28,12 @@ public class JsonSchemaHandler {
   private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.byDefault();
   private final ConcurrentHashMap<ImmutableKeyspaceAndTable, JsonNode> schemasPerCollection =
       new ConcurrentHashMap<>();
-  private Schema lastCheckedSchema;
+  // compiled schemas by the identity of the schema node, a node from the schemasPerCollection
+  // always describes the same version of a collection schema
+  private final Cache<JsonNode, JsonSchema> compiledSchemas =
+      Caffeine.newBuilder().weakKeys().build();
+  // the handler is shared between the requests, which can see different schema versions
+  private volatile Schema lastCheckedSchema;
 
   @Inject
   public JsonSchemaHandler(ObjectMapper mapper) {
@@ -35,9 +44,15 @@ public class JsonSchemaHandler {
   }
 
   private void clearCacheOnSchemaChange(DocumentDB db) {
-    if (!db.schema().equals(lastCheckedSchema)) {
-      schemasPerCollection.clear();
-      this.lastCheckedSchema = db.schema();
+    Schema schema = db.schema();
+    if (!schema.equals(lastCheckedSchema)) {
+      synchronized (this) {
+        if (!schema.equals(lastCheckedSchema)) {
+          schemasPerCollection.clear();
+          compiledSchemas.invalidateAll();
+          this.lastCheckedSchema = schema;
+        }
+      }
     }
   }
 
@@ -57,7 +72,10 @@ public class JsonSchemaHandler {
       writeSchemaToCollection(db, namespace, collection, wrappedSchema.toString());
       ImmutableKeyspaceAndTable info =
           ImmutableKeyspaceAndTable.builder().keyspace(namespace).table(collection).build();
-      schemasPerCollection.remove(info);
+      JsonNode previous = schemasPerCollection.remove(info);
+      if (previous != null) {
+        compiledSchemas.invalidate(previous);
+      }
       return resp;
     } else {
       throw new ErrorCodeRuntimeException(ErrorCode.DOCS_API_JSON_SCHEMA_INVALID);
@@ -121,7 +139,7 @@ public class JsonSchemaHandler {
   }
 
   public void validate(JsonNode schema, JsonNode jsonValue) throws ProcessingException {
-    ProcessingReport result = schemaFactory.getValidator().validate(schema, jsonValue);
+    ProcessingReport result = getCompiledSchema(schema).validate(jsonValue);
     if (!result.isSuccess()) {
       List<String> messages = new ArrayList<>();
       result.forEach(msg -> messages.add(msg.getMessage()));
@@ -129,4 +147,18 @@ public class JsonSchemaHandler {
           ErrorCode.DOCS_API_INVALID_JSON_VALUE, "Invalid JSON: " + messages.toString());
     }
   }
+
+  private JsonSchema getCompiledSchema(JsonNode schema) throws ProcessingException {
+    JsonSchema compiled = compiledSchemas.getIfPresent(schema);
+    if (compiled == null) {
+      compiled = compileSchema(schema);
+      compiledSchemas.put(schema, compiled);
+    }
+    return compiled;
+  }
+
+  @VisibleForTesting
+  JsonSchema compileSchema(JsonNode schema) throws ProcessingException {
+    return schemaFactory.getJsonSchema(schema);
+  }
 }
@@ -26,6 +26,7 @@ import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
 import io.stargate.db.query.BoundQuery;
+import io.stargate.db.query.Query;
 import io.stargate.db.query.builder.BuiltSelect;
 import io.stargate.db.schema.Column;
 import io.stargate.web.rx.RxUtils;
@@ -41,9 +42,15 @@ public class QueryExecutor {
   private final Accumulator TERM = new Accumulator();
 
   private final DataStore dataStore;
+  private final DocsApiConfiguration configuration;
 
   public QueryExecutor(DataStore dataStore) {
+    this(dataStore, DocsApiConfiguration.DEFAULT);
+  }
+
+  public QueryExecutor(DataStore dataStore, DocsApiConfiguration configuration) {
     this.dataStore = dataStore;
+    this.configuration = configuration;
   }
 
   public Flowable<RawDocument> queryDocs(
@@ -70,7 +77,24 @@ public class QueryExecutor {
 
     List<Column> idColumns = select.table().primaryKeyColumns().subList(0, keyDepth);
 
-    return execute(query, pageSize, pagingState)
+    PageSizer pageSizer =
+        new PageSizer(
+            idColumns,
+            pageSize,
+            configuration.getSearchPageDocuments(),
+            configuration.getMinSearchPageSize(),
+            configuration.getMaxSearchPageSize());
+    Flowable<ResultSet> pages = execute(query, pageSizer, pagingState);
+    int readAhead = configuration.getSearchReadAheadPages();
+    if (readAhead > 0) {
+      // Request the next pages as soon as the current one is taken for processing, so that they
+      // are fetched while its rows are grouped into documents. The pages being fetched or waiting
+      // never exceed the requests of rebatchRequests(), so there are at most readAhead of them
+      // ahead of the current page, and cancelling the returned flowable stops requesting more.
+      pages = pages.rebatchRequests(readAhead);
+    }
+
+    return pages
         .flatMap(
             rs -> Flowable.fromIterable(seeds(query, rs, idColumns, context)),
             1) // concurrency factor 1
@@ -80,6 +104,59 @@ public class QueryExecutor {
         .map(Accumulator::toDoc);
   }
 
+  /**
+   * Executes a query restricted to a token range (<code>TOKEN(key) &gt; ? AND TOKEN(key) &lt;= ?
+   * </code>) over the whole token ring, split into the given number of ranges that are queried
+   * concurrently. The documents are still returned in token order, as with a single query, and
+   * their paging state records the range they were read from, so that it can be resumed.
+   *
+   * <p>A plain paging state, from a query that was not split, resumes the rest of the ring as a
+   * single range.
+   *
+   * @param query the token range query, to bind with the lower and upper bound of each range
+   * @param ranges the number of ranges to split the ring into
+   * @param concurrency the maximum number of ranges to query at the same time
+   */
+  public Flowable<RawDocument> queryDocsInTokenRanges(
+      Query<? extends BoundQuery> query,
+      int ranges,
+      int concurrency,
+      int pageSize,
+      ByteBuffer pagingState,
+      ExecutionContext context) {
+    List<TokenRange> tokenRanges = new ArrayList<>();
+    ByteBuffer resumePagingState = null;
+    if (pagingState == null) {
+      tokenRanges.addAll(TokenRange.split(ranges, Long.MIN_VALUE));
+    } else {
+      TokenRange resumed = TokenRange.fromPagingState(pagingState);
+      if (resumed == null) {
+        tokenRanges.add(TokenRange.FULL_RING);
+        resumePagingState = pagingState;
+      } else {
+        tokenRanges.add(resumed);
+        resumePagingState = TokenRange.innerPagingState(pagingState);
+        tokenRanges.addAll(TokenRange.split(ranges, resumed.upper()));
+      }
+    }
+
+    ByteBuffer firstPagingState = resumePagingState;
+    return Flowable.range(0, tokenRanges.size())
+        .concatMapEager(
+            i -> {
+              TokenRange range = tokenRanges.get(i);
+              BoundQuery bound = query.bind(range.lower(), range.upper());
+              ByteBuffer prefix = range.pagingStatePrefix();
+              return queryDocs(bound, pageSize, i == 0 ? firstPagingState : null, context)
+                  .map(doc -> doc.withPagingStatePrefix(prefix));
+            },
+            concurrency,
+            pageSize)
+        // the last document of a range is not necessarily the last one of the ring
+        .buffer(2, 1)
+        .map(docs -> docs.size() > 1 ? docs.get(0).withHasNext() : docs.get(0));
+  }
+
   public Flowable<ResultSet> execute(BoundQuery query, int pageSize, ByteBuffer pagingState) {
     return fetchPage(query, pageSize, pagingState)
         .compose( // Expand BREADTH_FIRST to reduce the number of "proactive" page requests
@@ -87,6 +164,16 @@ public class QueryExecutor {
                 rs -> fetchNext(rs, pageSize, query), ExpandStrategy.BREADTH_FIRST, 1));
   }
 
+  private Flowable<ResultSet> execute(
+      BoundQuery query, PageSizer pageSizer, ByteBuffer pagingState) {
+    return fetchPage(query, pageSizer.initialPageSize(), pagingState)
+        .compose( // Expand BREADTH_FIRST to reduce the number of "proactive" page requests
+            FlowableTransformers.expand(
+                rs -> fetchNext(rs, pageSizer.nextPageSize(rs), query),
+                ExpandStrategy.BREADTH_FIRST,
+                1));
+  }
+
   private Flowable<ResultSet> fetchPage(BoundQuery query, int pageSize, ByteBuffer pagingState) {
     Supplier<CompletableFuture<ResultSet>> supplier =
         () ->
@@ -123,19 +210,86 @@ public class QueryExecutor {
     List<Accumulator> seeds = new ArrayList<>(rows.size());
     for (Row row : rows) {
       String id = row.getString("key");
-      Builder<String> docKey = ImmutableList.builder();
-      for (Column c : keyColumns) {
-        docKey.add(Objects.requireNonNull(row.getString(c.name())));
-      }
-      seeds.add(new Accumulator(id, docKey.build(), rs, row));
+      seeds.add(new Accumulator(id, docKey(row, keyColumns), rs, row));
     }
     return seeds;
   }
 
+  private static List<String> docKey(Row row, List<Column> keyColumns) {
+    Builder<String> docKey = ImmutableList.builder();
+    for (Column c : keyColumns) {
+      docKey.add(Objects.requireNonNull(row.getString(c.name())));
+    }
+    return docKey.build();
+  }
+
   public DataStore getDataStore() {
     return dataStore;
   }
 
+  /**
+   * Sizes the pages of a single query. The first page has the requested size, and if a target
+   * number of documents per page is configured, the following pages are sized to hold about that
+   * many documents, based on the number of rows per document observed so far. This is bounded by
+   * the configured min and max page sizes, but never goes below the requested size if it was
+   * already smaller than the min, nor above it if it was already larger than the max.
+   *
+   * <p>Note that the paging state is independent of the page size, so this has no effect on the
+   * pagination of the documents.
+   */
+  private static class PageSizer {
+
+    private final List<Column> keyColumns;
+    private final int initialPageSize;
+    private final int targetDocuments;
+    private final int minPageSize;
+    private final int maxPageSize;
+
+    private long rows;
+    private long documents;
+    private List<String> lastDocKey;
+
+    private PageSizer(
+        List<Column> keyColumns,
+        int initialPageSize,
+        int targetDocuments,
+        int minPageSize,
+        int maxPageSize) {
+      this.keyColumns = keyColumns;
+      this.initialPageSize = initialPageSize;
+      this.targetDocuments = targetDocuments;
+      this.minPageSize = Math.min(initialPageSize, minPageSize);
+      this.maxPageSize = Math.max(initialPageSize, maxPageSize);
+    }
+
+    private int initialPageSize() {
+      return initialPageSize;
+    }
+
+    private int nextPageSize(ResultSet rs) {
+      if (targetDocuments <= 0) {
+        return initialPageSize;
+      }
+
+      for (Row row : rs.currentPageRows()) {
+        rows++;
+        List<String> docKey = docKey(row, keyColumns);
+        if (!docKey.equals(lastDocKey)) {
+          documents++;
+          lastDocKey = docKey;
+        }
+      }
+
+      if (documents == 0) {
+        return initialPageSize;
+      }
+
+      // rounding up, the last document is most likely incomplete
+      long pageSize = (targetDocuments * rows + documents - 1) / documents;
+      return (int) Math.max(minPageSize, Math.min(maxPageSize, pageSize));
+    }
+  }
+
   private class Accumulator {
 
     private final String id;
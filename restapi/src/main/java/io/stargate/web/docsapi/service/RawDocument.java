@@ -19,6 +19,7 @@ import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Single;
 import io.stargate.db.PagingPosition;
 import io.stargate.db.PagingPosition.ResumeMode;
+import io.stargate.db.RowDecorator;
 import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.Row;
 import java.nio.ByteBuffer;
@@ -32,14 +33,26 @@ public class RawDocument {
   private final ResultSet resultSet;
   private final boolean hasNext;
   private final List<Row> rows;
+  private final ByteBuffer pagingStatePrefix;
 
   public RawDocument(
       String id, List<String> docKey, ResultSet resultSet, boolean hasNext, List<Row> rows) {
+    this(id, docKey, resultSet, hasNext, rows, null);
+  }
+
+  private RawDocument(
+      String id,
+      List<String> docKey,
+      ResultSet resultSet,
+      boolean hasNext,
+      List<Row> rows,
+      ByteBuffer pagingStatePrefix) {
     this.id = id;
     this.docKey = docKey;
     this.resultSet = resultSet;
     this.hasNext = hasNext;
     this.rows = rows;
+    this.pagingStatePrefix = pagingStatePrefix;
   }
 
   public String id() {
@@ -62,7 +75,7 @@ public class RawDocument {
   }
 
   private RawDocument replaceRows(List<Row> newRows) {
-    return new RawDocument(id, docKey, resultSet, hasNext, newRows);
+    return new RawDocument(id, docKey, resultSet, hasNext, newRows, pagingStatePrefix);
   }
 
   public RawDocument populateFrom(RawDocument doc) {
@@ -75,6 +88,27 @@ public class RawDocument {
     return replaceRows(doc.rows);
   }
 
+  /**
+   * Returns a copy of this document that reports that more documents follow it, even if its own
+   * query is exhausted. This is needed when documents from several queries are merged.
+   */
+  public RawDocument withHasNext() {
+    return hasNext ? this : new RawDocument(id, docKey, resultSet, true, rows, pagingStatePrefix);
+  }
+
+  /**
+   * Returns a copy of this document whose paging state starts with the given bytes. This is needed
+   * when a query is split into several ones, to know which one to resume (see {@link TokenRange}).
+   */
+  public RawDocument withPagingStatePrefix(ByteBuffer prefix) {
+    return new RawDocument(id, docKey, resultSet, hasNext, rows, prefix);
+  }
+
+  /** Makes a {@link RowDecorator} for the table this document was read from. */
+  public RowDecorator makeRowDecorator() {
+    return resultSet.makeRowDecorator();
+  }
+
   public boolean hasPagingState() {
     return hasNext && !rows.isEmpty();
   }
@@ -95,7 +129,17 @@ public class RawDocument {
 
     Row lastRow = rows.get(rows.size() - 1);
 
-    return resultSet.makePagingState(
-        PagingPosition.ofCurrentRow(lastRow).resumeFrom(resumeMode).build());
+    ByteBuffer pagingState =
+        resultSet.makePagingState(
+            PagingPosition.ofCurrentRow(lastRow).resumeFrom(resumeMode).build());
+    if (pagingStatePrefix == null || pagingState == null) {
+      return pagingState;
+    }
+
+    ByteBuffer prefixed =
+        ByteBuffer.allocate(pagingStatePrefix.remaining() + pagingState.remaining());
+    prefixed.put(pagingStatePrefix.duplicate()).put(pagingState.duplicate());
+    prefixed.flip();
+    return prefixed;
   }
 }
@@ -110,7 +110,13 @@ public class ReactiveDocumentService {
           // call the search service
           return searchService
               .searchDocuments(
-                  db.getQueryExecutor(), namespace, collection, expression, paginator, context)
+                  db.getQueryExecutor(),
+                  namespace,
+                  collection,
+                  expression,
+                  fieldPathsFinal,
+                  paginator,
+                  context)
 
               // collect and make sure it's not empty
               .toList()
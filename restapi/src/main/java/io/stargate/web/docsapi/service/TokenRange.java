@@ -0,0 +1,129 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.docsapi.service;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of tokens, exclusive of its lower bound and inclusive of its upper bound, like the <code>
+ * TOKEN(key) &gt; ? AND TOKEN(key) &lt;= ?</code> conditions used to scan it.
+ *
+ * <p>Note that this assumes the Murmur3Partitioner, whose tokens are longs, and where {@link
+ * Long#MIN_VALUE} is never the token of a key.
+ */
+public class TokenRange {
+
+  public static final TokenRange FULL_RING = new TokenRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+  // Marks the paging states that start with a token range, as opposed to the plain paging states
+  private static final int PAGING_STATE_MAGIC = 0x546b5267;
+  private static final int PAGING_STATE_PREFIX_SIZE = Integer.BYTES + 2 * Long.BYTES;
+
+  private final long lower;
+  private final long upper;
+
+  public TokenRange(long lower, long upper) {
+    if (lower >= upper) {
+      throw new IllegalArgumentException(
+          String.format("Invalid token range (%d, %d]", lower, upper));
+    }
+
+    this.lower = lower;
+    this.upper = upper;
+  }
+
+  public long lower() {
+    return lower;
+  }
+
+  public long upper() {
+    return upper;
+  }
+
+  /**
+   * Splits the token ring in the given number of ranges of equal size, and returns, in token order,
+   * the ones that end after the given token. The first of them starts at that token if it was in
+   * the middle of it.
+   *
+   * @param count the number of ranges to split the ring into
+   * @param after the token after which the returned ranges start
+   */
+  public static List<TokenRange> split(int count, long after) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("Invalid number of token ranges: " + count);
+    }
+
+    BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+    BigInteger size = BigInteger.valueOf(Long.MAX_VALUE).subtract(min);
+    BigInteger ranges = BigInteger.valueOf(count);
+
+    List<TokenRange> result = new ArrayList<>(count);
+    long lower = Long.MIN_VALUE;
+    for (int i = 1; i <= count; i++) {
+      long upper =
+          i == count
+              ? Long.MAX_VALUE
+              : min.add(size.multiply(BigInteger.valueOf(i)).divide(ranges)).longValueExact();
+      if (upper > after) {
+        result.add(new TokenRange(Math.max(lower, after), upper));
+      }
+      lower = upper;
+    }
+    return result;
+  }
+
+  /**
+   * @return the bytes to prefix the paging states of the documents of this range with, so that
+   *     {@link #fromPagingState(ByteBuffer)} can tell the range they must be resumed in.
+   */
+  public ByteBuffer pagingStatePrefix() {
+    ByteBuffer prefix = ByteBuffer.allocate(PAGING_STATE_PREFIX_SIZE);
+    prefix.putInt(PAGING_STATE_MAGIC).putLong(lower).putLong(upper);
+    prefix.flip();
+    return prefix;
+  }
+
+  /**
+   * @return the range a paging state prefixed by {@link #pagingStatePrefix()} belongs to, or <code>
+   *     null</code> if it's a plain paging state.
+   */
+  public static TokenRange fromPagingState(ByteBuffer pagingState) {
+    if (pagingState.remaining() < PAGING_STATE_PREFIX_SIZE
+        || pagingState.getInt(pagingState.position()) != PAGING_STATE_MAGIC) {
+      return null;
+    }
+
+    int position = pagingState.position() + Integer.BYTES;
+    long lower = pagingState.getLong(position);
+    long upper = pagingState.getLong(position + Long.BYTES);
+    return lower < upper ? new TokenRange(lower, upper) : null;
+  }
+
+  /** @return the plain paging state of a paging state prefixed by {@link #pagingStatePrefix()}. */
+  public static ByteBuffer innerPagingState(ByteBuffer pagingState) {
+    ByteBuffer stripped = pagingState.duplicate();
+    stripped.position(stripped.position() + PAGING_STATE_PREFIX_SIZE);
+    return stripped.slice();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("(%d, %d]", lower, upper);
+  }
+}
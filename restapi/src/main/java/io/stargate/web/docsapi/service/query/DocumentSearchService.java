@@ -20,6 +20,7 @@ package io.stargate.web.docsapi.service.query;
 import com.bpodgursky.jbool_expressions.Expression;
 import com.bpodgursky.jbool_expressions.Literal;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.query.BoundQuery;
@@ -35,6 +36,9 @@ import io.stargate.web.docsapi.service.query.search.db.impl.PopulateSearchQueryB
 import io.stargate.web.docsapi.service.query.search.resolver.BaseResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.DocumentsResolver;
 import io.stargate.web.rx.RxUtils;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import javax.inject.Inject;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -49,6 +53,30 @@ public class DocumentSearchService {
       Expression<FilterExpression> expression,
       Paginator paginator,
       ExecutionContext context) {
+    return searchDocuments(
+        queryExecutor,
+        keyspace,
+        collection,
+        expression,
+        Collections.emptyList(),
+        paginator,
+        context);
+  }
+
+  /**
+   * Searches for the documents matching the expression.
+   *
+   * @param fieldPaths requested fields, if not empty only the rows needed for these fields are
+   *     guaranteed to be populated (callers must filter the rows in memory)
+   */
+  public Flowable<RawDocument> searchDocuments(
+      QueryExecutor queryExecutor,
+      String keyspace,
+      String collection,
+      Expression<FilterExpression> expression,
+      Collection<List<String>> fieldPaths,
+      Paginator paginator,
+      ExecutionContext context) {
 
     // if we have true immediately, means we can only do full search
     if (Literal.EXPR_TYPE.equals(expression.getExprType())) {
@@ -71,7 +99,8 @@ public class DocumentSearchService {
           .take((paginator.docPageSize));
     } else {
       // otherwise resolve the expression
-      DocumentsResolver documentsResolver = BaseResolver.resolve(expression, context);
+      DocumentsResolver documentsResolver =
+          BaseResolver.resolve(expression, configuration, context);
 
       // load the candidates
       Flowable<RawDocument> candidates =
@@ -83,7 +112,7 @@ public class DocumentSearchService {
 
       // then populate
       return populateCandidates(
-          candidates, queryExecutor, keyspace, collection, nestedPopulate(context));
+          candidates, queryExecutor, keyspace, collection, fieldPaths, nestedPopulate(context));
     }
   }
 
@@ -95,6 +124,10 @@ public class DocumentSearchService {
       Paginator paginator,
       ExecutionContext context) {
 
+    // split in token ranges if configured
+    int tokenRanges = configuration.getFullScanTokenRanges();
+    boolean splitTokenRanges = tokenRanges > 1;
+
     // prepare first (this could be cached for the max depth)
     return RxUtils.singleFromFuture(
             () -> {
@@ -103,7 +136,7 @@ public class DocumentSearchService {
 
               DataStore dataStore = queryExecutor.getDataStore();
 
-              FullSearchQueryBuilder queryBuilder = new FullSearchQueryBuilder();
+              FullSearchQueryBuilder queryBuilder = new FullSearchQueryBuilder(splitTokenRanges);
               BuiltQuery<? extends BoundQuery> query =
                   queryBuilder.buildQuery(dataStore::queryBuilder, keyspace, collection, columns);
 
@@ -112,6 +145,16 @@ public class DocumentSearchService {
         .cache()
         .flatMapPublisher(
             prepared -> {
+              if (splitTokenRanges) {
+                return queryExecutor.queryDocsInTokenRanges(
+                    prepared,
+                    tokenRanges,
+                    configuration.getFullScanConcurrency(),
+                    configuration.getSearchPageSize(),
+                    paginator.getCurrentDbPageState(),
+                    context);
+              }
+
               BoundQuery boundQuery = prepared.bind();
               return queryExecutor.queryDocs(
                   boundQuery,
@@ -127,6 +170,7 @@ public class DocumentSearchService {
       QueryExecutor queryExecutor,
       String keyspace,
       String collection,
+      Collection<List<String>> fieldPaths,
       ExecutionContext context) {
 
     // prepare query
@@ -141,7 +185,8 @@ public class DocumentSearchService {
                   DataStore dataStore = queryExecutor.getDataStore();
 
                   // build and prepare
-                  PopulateSearchQueryBuilder queryBuilder = new PopulateSearchQueryBuilder();
+                  PopulateSearchQueryBuilder queryBuilder =
+                      new PopulateSearchQueryBuilder(fieldPaths);
                   BuiltQuery<? extends BoundQuery> query =
                       queryBuilder.buildQuery(
                           dataStore::queryBuilder, keyspace, collection, columns);
@@ -161,11 +206,18 @@ public class DocumentSearchService {
               BoundQuery query = p.getRight().bind(document.id());
 
               // fetch, take one and then populate into the original doc
-              return queryExecutor
-                  .queryDocs(query, configuration.getSearchPageSize(), null, context)
-                  .firstElement()
-                  .map(document::populateFrom)
-                  .toFlowable();
+              Maybe<RawDocument> populated =
+                  queryExecutor
+                      .queryDocs(query, configuration.getSearchPageSize(), null, context)
+                      .firstElement()
+                      .map(document::populateFrom);
+
+              // with fields, the document might have none of the requested rows
+              // keep the candidate rows then, as they are filtered out in memory anyway
+              if (!fieldPaths.isEmpty()) {
+                return populated.defaultIfEmpty(document).toFlowable();
+              }
+              return populated.toFlowable();
             });
   }
 
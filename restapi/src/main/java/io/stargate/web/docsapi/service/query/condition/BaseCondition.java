@@ -20,6 +20,7 @@ import io.stargate.db.datastore.Row;
 import io.stargate.db.query.builder.BuiltCondition;
 import io.stargate.web.docsapi.service.query.filter.operation.FilterOperationCode;
 import io.stargate.web.docsapi.service.util.DocsApiUtils;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -37,6 +38,19 @@ public interface BaseCondition extends Predicate<Row> {
   /** @return Returns persistence built condition, if this condition supports database querying. */
   Optional<BuiltCondition> getBuiltCondition();
 
+  /**
+   * Returns the persistence conditions whose union is equivalent to this condition. This is
+   * relevant only for the conditions that can not be executed as a single persistence query, but
+   * can be executed as several ones (for example <code>$in</code>).
+   *
+   * <p>The default implementation returns empty.
+   *
+   * @return Returns persistence conditions to execute as a union, if supported.
+   */
+  default Optional<List<BaseCondition>> getUnionConditions() {
+    return Optional.empty();
+  }
+
   /** @return Returns filter operation code used by this condition. */
   FilterOperationCode getFilterOperationCode();
 
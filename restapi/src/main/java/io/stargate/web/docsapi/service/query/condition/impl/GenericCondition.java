@@ -21,6 +21,10 @@ import io.stargate.db.query.builder.BuiltCondition;
 import io.stargate.web.docsapi.service.query.condition.BaseCondition;
 import io.stargate.web.docsapi.service.query.filter.operation.FilterOperationCode;
 import io.stargate.web.docsapi.service.query.filter.operation.GenericFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.ValueFilterOperation;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import org.immutables.value.Value;
 
@@ -62,6 +66,49 @@ public abstract class GenericCondition<V> implements BaseCondition {
     return Optional.empty();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Supported only for list query values, when the filter operation provides the {@link
+   * GenericFilterOperation#getUnionFilterOperation()}. Resolves to one condition per distinct
+   * value, or empty if any of the values is <code>null</code>, as it can only be matched in memory.
+   */
+  @Override
+  public Optional<List<BaseCondition>> getUnionConditions() {
+    V queryValue = getQueryValue();
+    if (!(queryValue instanceof List)) {
+      return Optional.empty();
+    }
+
+    return getFilterOperation()
+        .getUnionFilterOperation()
+        .flatMap(
+            operation -> {
+              List<BaseCondition> conditions = new ArrayList<>();
+              for (Object value : new LinkedHashSet<>((List<?>) queryValue)) {
+                Optional<BaseCondition> condition = valueCondition(operation, value);
+                if (!condition.isPresent()) {
+                  return Optional.empty();
+                }
+                conditions.add(condition.get());
+              }
+              return Optional.of(conditions);
+            });
+  }
+
+  private Optional<BaseCondition> valueCondition(ValueFilterOperation operation, Object value) {
+    if (value instanceof String) {
+      return Optional.of(ImmutableStringCondition.of(operation, (String) value));
+    } else if (value instanceof Number) {
+      return Optional.of(ImmutableNumberCondition.of(operation, (Number) value));
+    } else if (value instanceof Boolean) {
+      return Optional.of(
+          ImmutableBooleanCondition.of(operation, (Boolean) value, isNumericBooleans()));
+    } else {
+      return Optional.empty();
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public FilterOperationCode getFilterOperationCode() {
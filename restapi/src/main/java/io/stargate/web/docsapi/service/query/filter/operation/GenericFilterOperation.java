@@ -16,6 +16,8 @@
 
 package io.stargate.web.docsapi.service.query.filter.operation;
 
+import java.util.Optional;
+
 /**
  * Special type of filter operation that can test a generic input value against all database values.
  *
@@ -63,4 +65,17 @@ public interface GenericFilterOperation<FV> extends BaseFilterOperation {
   default void validateFilterInput(FV filterValue) {
     // default impl empty
   }
+
+  /**
+   * Returns the filter operation that can be applied to each element of a list filter value, in
+   * case this operation matches exactly the union of the documents matched by each element. For
+   * example, <code>$in</code> is equivalent to the union of <code>$eq</code> on each value.
+   *
+   * <p>Return empty by default, sub-classes can override.
+   *
+   * @return Per-element filter operation, if one exists.
+   */
+  default Optional<ValueFilterOperation> getUnionFilterOperation() {
+    return Optional.empty();
+  }
 }
@@ -21,6 +21,7 @@ import io.stargate.web.docsapi.exception.ErrorCode;
 import io.stargate.web.docsapi.exception.ErrorCodeRuntimeException;
 import io.stargate.web.docsapi.service.query.filter.operation.FilterOperationCode;
 import io.stargate.web.docsapi.service.query.filter.operation.GenericFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.ValueFilterOperation;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -48,6 +49,16 @@ public abstract class InFilterOperation implements GenericFilterOperation<List<?
     return Optional.empty();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Each value of the list can be looked up with the {@link EqFilterOperation}.
+   */
+  @Override
+  public Optional<ValueFilterOperation> getUnionFilterOperation() {
+    return Optional.of(EqFilterOperation.of());
+  }
+
   /** {@inheritDoc} */
   @Override
   public boolean test(String dbValue, List<?> filterValue) {
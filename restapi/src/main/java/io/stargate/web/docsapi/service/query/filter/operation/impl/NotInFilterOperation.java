@@ -18,6 +18,7 @@ package io.stargate.web.docsapi.service.query.filter.operation.impl;
 
 import io.stargate.db.query.Predicate;
 import io.stargate.web.docsapi.service.query.filter.operation.FilterOperationCode;
+import io.stargate.web.docsapi.service.query.filter.operation.ValueFilterOperation;
 import java.util.List;
 import java.util.Optional;
 import org.immutables.value.Value;
@@ -47,6 +48,16 @@ public abstract class NotInFilterOperation extends InFilterOperation {
     return Optional.empty();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Not in can not be resolved as a union, always returns empty.
+   */
+  @Override
+  public Optional<ValueFilterOperation> getUnionFilterOperation() {
+    return Optional.empty();
+  }
+
   /** {@inheritDoc} */
   @Override
   public boolean isEvaluateOnMissingFields() {
@@ -19,7 +19,9 @@ package io.stargate.web.docsapi.service.query.search.db.impl;
 
 import io.stargate.db.query.Predicate;
 import io.stargate.db.query.builder.BuiltCondition;
+import io.stargate.web.docsapi.service.query.QueryConstants;
 import io.stargate.web.docsapi.service.query.search.db.AbstractSearchQueryBuilder;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -27,6 +29,21 @@ import java.util.Map;
 /** Simple query builder for document population. */
 public class FullSearchQueryBuilder extends AbstractSearchQueryBuilder {
 
+  private final boolean tokenRange;
+
+  public FullSearchQueryBuilder() {
+    this(false);
+  }
+
+  /**
+   * @param tokenRange If the query should be restricted to a token range, adds the <code>
+   *     TOKEN(key) &gt; ? AND TOKEN(key) &lt;= ?</code> predicates, with the lower and upper bound
+   *     of the range to bind in that order
+   */
+  public FullSearchQueryBuilder(boolean tokenRange) {
+    this.tokenRange = tokenRange;
+  }
+
   @Override
   protected boolean allowFiltering() {
     return false;
@@ -34,7 +51,14 @@ public class FullSearchQueryBuilder extends AbstractSearchQueryBuilder {
 
   @Override
   protected Collection<BuiltCondition> getPredicates() {
-    return Collections.emptyList();
+    if (!tokenRange) {
+      return Collections.emptyList();
+    }
+
+    BuiltCondition.LHS token = BuiltCondition.LHS.token(QueryConstants.KEY_COLUMN_NAME);
+    return Arrays.asList(
+        BuiltCondition.ofMarker(token, Predicate.GT),
+        BuiltCondition.ofMarker(token, Predicate.LTE));
   }
 
   @Override
@@ -19,15 +19,34 @@ package io.stargate.web.docsapi.service.query.search.db.impl;
 
 import io.stargate.db.query.Predicate;
 import io.stargate.db.query.builder.BuiltCondition;
+import io.stargate.web.docsapi.dao.DocumentDB;
 import io.stargate.web.docsapi.service.query.QueryConstants;
 import io.stargate.web.docsapi.service.query.search.db.AbstractSearchQueryBuilder;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-/** Simple query builder for document population. */
+/**
+ * Simple query builder for document population. If the requested fields are given, only the rows on
+ * the first segments of the fields are populated (<code>p0 IN ?</code>), unless any of these is a
+ * glob.
+ */
 public class PopulateSearchQueryBuilder extends AbstractSearchQueryBuilder {
 
+  private final List<String> firstSegments;
+
+  public PopulateSearchQueryBuilder() {
+    this(Collections.emptyList());
+  }
+
+  public PopulateSearchQueryBuilder(Collection<List<String>> fieldPaths) {
+    this.firstSegments = resolveFirstSegments(fieldPaths);
+  }
+
   @Override
   protected boolean allowFiltering() {
     return false;
@@ -35,11 +54,35 @@ public class PopulateSearchQueryBuilder extends AbstractSearchQueryBuilder {
 
   @Override
   protected Collection<BuiltCondition> getPredicates() {
-    return Collections.emptyList();
+    if (firstSegments.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    String column = QueryConstants.P_COLUMN_NAME.apply(0);
+    return Collections.singletonList(BuiltCondition.of(column, Predicate.IN, firstSegments));
   }
 
   @Override
   protected Map<String, Predicate> getBindPredicates() {
     return Collections.singletonMap(QueryConstants.KEY_COLUMN_NAME, Predicate.EQ);
   }
+
+  // empty list means all rows are needed
+  private static List<String> resolveFirstSegments(Collection<List<String>> fieldPaths) {
+    Set<String> result = new LinkedHashSet<>();
+    for (List<String> fieldPath : fieldPaths) {
+      if (fieldPath.isEmpty()) {
+        return Collections.emptyList();
+      }
+
+      // path segments can contain multiple fields
+      for (String segment : fieldPath.get(0).split(",")) {
+        if (DocumentDB.GLOB_VALUE.equals(segment) || DocumentDB.GLOB_ARRAY_VALUE.equals(segment)) {
+          return Collections.emptyList();
+        }
+        result.add(segment);
+      }
+    }
+    return new ArrayList<>(result);
+  }
 }
@@ -21,6 +21,7 @@ import com.bpodgursky.jbool_expressions.And;
 import com.bpodgursky.jbool_expressions.Expression;
 import com.bpodgursky.jbool_expressions.Literal;
 import com.bpodgursky.jbool_expressions.rules.RuleSet;
+import io.stargate.web.docsapi.service.DocsApiConfiguration;
 import io.stargate.web.docsapi.service.ExecutionContext;
 import io.stargate.web.docsapi.service.query.FilterExpression;
 
@@ -36,22 +37,29 @@ public final class BaseResolver {
    * Resolves the document resolver without any parent.
    *
    * @param expression {@link Expression}
+   * @param configuration {@link DocsApiConfiguration}
    * @return DocumentsResolver
    */
   public static DocumentsResolver resolve(
-      Expression<FilterExpression> expression, ExecutionContext context) {
-    return resolve(expression, context, null);
+      Expression<FilterExpression> expression,
+      DocsApiConfiguration configuration,
+      ExecutionContext context) {
+    return resolve(expression, configuration, context, null);
   }
 
   /**
    * Resolves the document resolver with optional parent.
    *
    * @param expression {@link Expression}
+   * @param configuration {@link DocsApiConfiguration}
    * @param parent parent or <code>null</code>
    * @return DocumentsResolver
    */
   public static DocumentsResolver resolve(
-      Expression<FilterExpression> expression, ExecutionContext context, DocumentsResolver parent) {
+      Expression<FilterExpression> expression,
+      DocsApiConfiguration configuration,
+      ExecutionContext context,
+      DocumentsResolver parent) {
 
     // if we are hitting the literal TRUE, then return parent
     if (Literal.EXPR_TYPE.equals(expression.getExprType())) {
@@ -64,10 +72,10 @@ public final class BaseResolver {
     // since this will simplify as well, check if we have And
     // if we have And proceed to the CNF resolver
     if (And.EXPR_TYPE.equals(cnf.getExprType())) {
-      return CnfResolver.resolve(cnf, context, parent);
+      return CnfResolver.resolve(cnf, configuration, context, parent);
     } else {
       // otherwise wrap to And and forward to the CNF
-      return CnfResolver.resolve(And.of(cnf), context, parent);
+      return CnfResolver.resolve(And.of(cnf), configuration, context, parent);
     }
   }
 }
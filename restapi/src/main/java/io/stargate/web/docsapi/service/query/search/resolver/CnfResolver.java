@@ -20,6 +20,7 @@ package io.stargate.web.docsapi.service.query.search.resolver;
 import com.bpodgursky.jbool_expressions.And;
 import com.bpodgursky.jbool_expressions.Expression;
 import com.bpodgursky.jbool_expressions.Literal;
+import com.bpodgursky.jbool_expressions.Or;
 import com.bpodgursky.jbool_expressions.options.ExprOptions;
 import com.bpodgursky.jbool_expressions.rules.Rule;
 import com.bpodgursky.jbool_expressions.rules.RuleList;
@@ -28,9 +29,11 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import io.stargate.web.docsapi.exception.ErrorCode;
 import io.stargate.web.docsapi.exception.ErrorCodeRuntimeException;
+import io.stargate.web.docsapi.service.DocsApiConfiguration;
 import io.stargate.web.docsapi.service.ExecutionContext;
 import io.stargate.web.docsapi.service.query.FilterExpression;
 import io.stargate.web.docsapi.service.query.FilterPath;
+import io.stargate.web.docsapi.service.query.condition.BaseCondition;
 import io.stargate.web.docsapi.service.query.rules.TrueFilterExpressions;
 import io.stargate.web.docsapi.service.query.search.resolver.filter.CandidatesFilter;
 import io.stargate.web.docsapi.service.query.search.resolver.filter.impl.InMemoryCandidatesFilter;
@@ -38,10 +41,13 @@ import io.stargate.web.docsapi.service.query.search.resolver.filter.impl.Persist
 import io.stargate.web.docsapi.service.query.search.resolver.impl.AllFiltersResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.InMemoryDocumentsResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.PersistenceDocumentsResolver;
+import io.stargate.web.docsapi.service.query.search.resolver.impl.UnionPersistenceDocumentsResolver;
 import io.stargate.web.docsapi.service.query.search.weigth.ExpressionWeightResolver;
 import io.stargate.web.docsapi.service.query.search.weigth.impl.UserOrderWeightResolver;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -57,47 +63,108 @@ public final class CnfResolver {
    * Returns a document resolver for a single {@link And} expression in CNF form without a parent.
    *
    * @param expression {@link FilterExpression}
+   * @param configuration {@link DocsApiConfiguration}
    * @param context {@link ExecutionContext}
    * @return DocumentsResolver
    */
   public static DocumentsResolver resolve(
-      Expression<FilterExpression> expression, ExecutionContext context) {
-    return resolve(expression, context, null);
+      Expression<FilterExpression> expression,
+      DocsApiConfiguration configuration,
+      ExecutionContext context) {
+    return resolve(expression, configuration, context, null);
   }
 
   /**
    * Returns a document resolver for a single {@link And} expression in CNF form.
    *
    * @param expression {@link FilterExpression}
+   * @param configuration {@link DocsApiConfiguration}
    * @param context {@link ExecutionContext}
    * @param parent parent resolver or <code>null</code>
    * @return DocumentsResolver
    */
   public static DocumentsResolver resolve(
-      Expression<FilterExpression> expression, ExecutionContext context, DocumentsResolver parent) {
+      Expression<FilterExpression> expression,
+      DocsApiConfiguration configuration,
+      ExecutionContext context,
+      DocumentsResolver parent) {
     // from the children inside and
     And<FilterExpression> andExpression = (And<FilterExpression>) expression;
     List<Expression<FilterExpression>> children = andExpression.getChildren();
 
     UserOrderWeightResolver weightResolver = UserOrderWeightResolver.of();
 
+    // ors can only be resolved without a parent, so they go first
+    Optional<DocumentsResolver> orResolver =
+        nextOrResolver(children, configuration, context, parent);
+    if (orResolver.isPresent()) {
+      return orResolver.get();
+    }
+
     // try to get the next persistence resolver
-    return nextPersistenceResolver(expression, children, weightResolver, context, parent)
+    return nextPersistenceResolver(
+            expression, children, weightResolver, configuration, context, parent)
         .orElseGet(
             () ->
-                // if this is not working, go for the memory
-                nextInMemoryResolver(expression, children, weightResolver, context, parent)
-                    .orElseThrow(
+                // then the persistence resolver with union of queries
+                nextUnionResolver(
+                        expression, children, weightResolver, configuration, context, parent)
+                    .orElseGet(
                         () ->
-                            // this should happen only if we have ors
-                            new ErrorCodeRuntimeException(
-                                ErrorCode.DOCS_API_SEARCH_OR_NOT_SUPPORTED)));
+                            // if this is not working, go for the memory
+                            nextInMemoryResolver(
+                                    expression,
+                                    children,
+                                    weightResolver,
+                                    configuration,
+                                    context,
+                                    parent)
+                                .orElseThrow(
+                                    () ->
+                                        // this should happen only if we have ors
+                                        new ErrorCodeRuntimeException(
+                                            ErrorCode.DOCS_API_SEARCH_OR_NOT_SUPPORTED))));
+  }
+
+  private static Optional<DocumentsResolver> nextOrResolver(
+      List<Expression<FilterExpression>> children,
+      DocsApiConfiguration configuration,
+      ExecutionContext context,
+      DocumentsResolver parent) {
+
+    // the candidates can not be filtered with an or, so only when we don't have a parent
+    if (null != parent) {
+      return Optional.empty();
+    }
+
+    // find the or with the least branches, where all of them can be done in the persistence
+    return children.stream()
+        .filter(c -> Or.EXPR_TYPE.equals(c.getExprType()))
+        .map(c -> (Or<FilterExpression>) c)
+        .filter(or -> isPersistenceOr(or, configuration))
+        .min(Comparator.comparingInt(or -> or.getChildren().size()))
+        .map(
+            selected -> {
+              // construct current
+              DocumentsResolver current = new UnionPersistenceDocumentsResolver(selected, context);
+
+              // then remove the resolved or from the root
+              List<Expression<FilterExpression>> remaining =
+                  children.stream().filter(c -> c != selected).collect(Collectors.toList());
+              if (remaining.isEmpty()) {
+                return current;
+              }
+
+              // and resolve further
+              return BaseResolver.resolve(And.of(remaining), configuration, context, current);
+            });
   }
 
   private static Optional<DocumentsResolver> nextPersistenceResolver(
       Expression<FilterExpression> root,
       List<Expression<FilterExpression>> children,
       ExpressionWeightResolver<FilterExpression> weightResolver,
+      DocsApiConfiguration configuration,
       ExecutionContext context,
       DocumentsResolver parent) {
 
@@ -120,7 +187,7 @@ public final class CnfResolver {
                 // then simplify root
                 Expression<FilterExpression> simplified = simplifyCnfExpression(root, selected);
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current);
+                return BaseResolver.resolve(simplified, configuration, context, current);
               } else {
                 // if we have candidates, then do all memory filters at once
                 List<Function<ExecutionContext, CandidatesFilter>> all =
@@ -134,15 +201,44 @@ public final class CnfResolver {
                     simplifyCnfExpression(root, nextExpressions);
 
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current);
+                return BaseResolver.resolve(simplified, configuration, context, current);
               }
             });
   }
 
+  private static Optional<DocumentsResolver> nextUnionResolver(
+      Expression<FilterExpression> root,
+      List<Expression<FilterExpression>> children,
+      ExpressionWeightResolver<FilterExpression> weightResolver,
+      DocsApiConfiguration configuration,
+      ExecutionContext context,
+      DocumentsResolver parent) {
+
+    // if we have a parent, filtering the candidates in memory is cheaper than a union of queries
+    if (null != parent) {
+      return Optional.empty();
+    }
+
+    // find the best expression that can be executed as a union
+    return getFilterExpressions(children, e -> isUnionExpression(e, configuration)).stream()
+        .reduce((e1, e2) -> weightResolver.single().apply(e1, e2))
+        .map(
+            selected -> {
+              // construct current
+              DocumentsResolver current = new UnionPersistenceDocumentsResolver(selected, context);
+              // then simplify root
+              Expression<FilterExpression> simplified =
+                  simplifyCnfExpression(root, Collections.singletonList(selected));
+              // and resolve further
+              return BaseResolver.resolve(simplified, configuration, context, current);
+            });
+  }
+
   private static Optional<DocumentsResolver> nextInMemoryResolver(
       Expression<FilterExpression> root,
       List<Expression<FilterExpression>> children,
       ExpressionWeightResolver<FilterExpression> weightResolver,
+      DocsApiConfiguration configuration,
       ExecutionContext context,
       DocumentsResolver parent) {
 
@@ -163,7 +259,7 @@ public final class CnfResolver {
                 // then simplify root
                 Expression<FilterExpression> simplified = simplifyCnfExpression(root, selected);
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current);
+                return BaseResolver.resolve(simplified, configuration, context, current);
               } else {
                 // if we have candidates, then do all memory filters at once
                 List<Function<ExecutionContext, CandidatesFilter>> all =
@@ -176,7 +272,7 @@ public final class CnfResolver {
                 Expression<FilterExpression> simplified =
                     simplifyCnfExpression(root, inMemoryExpressions);
                 // and resolve further
-                return BaseResolver.resolve(simplified, context, current);
+                return BaseResolver.resolve(simplified, configuration, context, current);
               }
             });
   }
@@ -208,6 +304,28 @@ public final class CnfResolver {
     }
   }
 
+  /** If the expression is not a persistence one, but can be executed as a union of such. */
+  private static boolean isUnionExpression(
+      FilterExpression expression, DocsApiConfiguration configuration) {
+    BaseCondition condition = expression.getCondition();
+    return !condition.isPersistenceCondition()
+        && condition
+            .getUnionConditions()
+            .map(c -> c.size() <= configuration.getMaxSearchUnionSize())
+            .orElse(false);
+  }
+
+  /** If all the branches of the or are persistence or union expressions. */
+  private static boolean isPersistenceOr(
+      Or<FilterExpression> or, DocsApiConfiguration configuration) {
+    return or.getChildren().stream()
+        .allMatch(
+            c ->
+                c instanceof FilterExpression
+                    && (((FilterExpression) c).getCondition().isPersistenceCondition()
+                        || isUnionExpression((FilterExpression) c, configuration)));
+  }
+
   /** Finds all expression with in-memory conditions. */
   private static Optional<Collection<FilterExpression>> allInMemoryExpressionExpressions(
       List<Expression<FilterExpression>> children) {
@@ -99,13 +99,18 @@ public class InMemoryDocumentsResolver implements DocumentsResolver {
 
     String[] neededColumns = QueryConstants.ALL_COLUMNS_NAMES.apply(neededDepth);
 
+    // full scans can be split in token ranges
+    int tokenRanges = configuration.getFullScanTokenRanges();
+    boolean splitTokenRanges = queryBuilder instanceof FullSearchQueryBuilder && tokenRanges > 1;
+    AbstractSearchQueryBuilder builder =
+        splitTokenRanges ? new FullSearchQueryBuilder(true) : queryBuilder;
+
     // prepare the query
     return RxUtils.singleFromFuture(
             () -> {
               DataStore dataStore = queryExecutor.getDataStore();
               BuiltQuery<? extends BoundQuery> query =
-                  queryBuilder.buildQuery(
-                      dataStore::queryBuilder, keyspace, collection, neededColumns);
+                  builder.buildQuery(dataStore::queryBuilder, keyspace, collection, neededColumns);
               return dataStore.prepare(query);
             })
 
@@ -113,6 +118,16 @@ public class InMemoryDocumentsResolver implements DocumentsResolver {
         .cache()
         .flatMapPublisher(
             prepared -> {
+              if (splitTokenRanges) {
+                return queryExecutor.queryDocsInTokenRanges(
+                    prepared,
+                    tokenRanges,
+                    configuration.getFullScanConcurrency(),
+                    configuration.getSearchPageSize(),
+                    paginator.getCurrentDbPageState(),
+                    context);
+              }
+
               // once ready bind (no values) and fire
               BoundQuery query = prepared.bind();
 
@@ -0,0 +1,163 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.web.docsapi.service.query.search.resolver.impl;
+
+import com.bpodgursky.jbool_expressions.Or;
+import hu.akarnokd.rxjava3.operators.Flowables;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.functions.Function;
+import io.stargate.db.ComparableKey;
+import io.stargate.db.RowDecorator;
+import io.stargate.web.docsapi.dao.Paginator;
+import io.stargate.web.docsapi.service.DocsApiConfiguration;
+import io.stargate.web.docsapi.service.ExecutionContext;
+import io.stargate.web.docsapi.service.QueryExecutor;
+import io.stargate.web.docsapi.service.RawDocument;
+import io.stargate.web.docsapi.service.query.FilterExpression;
+import io.stargate.web.docsapi.service.query.ImmutableFilterExpression;
+import io.stargate.web.docsapi.service.query.condition.BaseCondition;
+import io.stargate.web.docsapi.service.query.search.resolver.DocumentsResolver;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link DocumentsResolver} that executes a union of persistence queries. This is either a single
+ * {@link FilterExpression} with the union conditions (see {@link
+ * BaseCondition#getUnionConditions()}), or an {@link Or} where every branch can be resolved by the
+ * persistence.
+ *
+ * <p>Each of the union conditions or branches is executed by its own resolver, and all the queries
+ * run concurrently. Since every query returns the documents in the token order of their keys, the
+ * results are merged in that order, and a document matched by several queries is returned only
+ * once. This keeps the pagination stable: all queries are resumed from the same paging state, which
+ * is the position of the last returned document.
+ */
+public class UnionPersistenceDocumentsResolver implements DocumentsResolver {
+
+  private final List<DocumentsResolver> resolvers;
+
+  public UnionPersistenceDocumentsResolver(FilterExpression expression, ExecutionContext context) {
+    List<BaseCondition> conditions =
+        expression
+            .getCondition()
+            .getUnionConditions()
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        "UnionPersistenceDocumentsResolver works only with the union conditions."));
+
+    ExecutionContext unionContext = context.nested("UNION: " + expression.getDescription());
+    this.resolvers =
+        conditions.stream()
+            .map(
+                condition ->
+                    ImmutableFilterExpression.of(
+                        expression.getFilterPath(), condition, expression.getOrderIndex()))
+            .map(e -> new PersistenceDocumentsResolver(e, unionContext))
+            .collect(Collectors.toList());
+  }
+
+  public UnionPersistenceDocumentsResolver(Or<FilterExpression> or, ExecutionContext context) {
+    List<FilterExpression> branches =
+        or.getChildren().stream()
+            .map(
+                child -> {
+                  if (!(child instanceof FilterExpression)) {
+                    throw new IllegalArgumentException(
+                        "UnionPersistenceDocumentsResolver works only with the filter expressions.");
+                  }
+                  return (FilterExpression) child;
+                })
+            .collect(Collectors.toList());
+
+    String description =
+        branches.stream().map(FilterExpression::getDescription).collect(Collectors.joining(" OR "));
+    ExecutionContext orContext = context.nested("OR: " + description);
+    this.resolvers =
+        branches.stream()
+            .map(
+                branch ->
+                    branch.getCondition().isPersistenceCondition()
+                        ? new PersistenceDocumentsResolver(branch, orContext)
+                        : new UnionPersistenceDocumentsResolver(branch, orContext))
+            .collect(Collectors.toList());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Flowable<RawDocument> getDocuments(
+      QueryExecutor queryExecutor,
+      DocsApiConfiguration configuration,
+      String keyspace,
+      String collection,
+      Paginator paginator) {
+    if (resolvers.size() == 1) {
+      return resolvers
+          .get(0)
+          .getDocuments(queryExecutor, configuration, keyspace, collection, paginator);
+    }
+
+    List<Flowable<KeyedDocument>> sources =
+        resolvers.stream()
+            .map(
+                resolver ->
+                    resolver
+                        .getDocuments(queryExecutor, configuration, keyspace, collection, paginator)
+                        .map(new KeyDecorator()))
+            .collect(Collectors.toList());
+
+    // prefetch of 1, so that we don't read ahead more than needed to decide on the order
+    return Flowables.orderedMerge(sources, false, 1)
+        .distinctUntilChanged((d1, d2) -> d1.key.equals(d2.key))
+        .map(d -> d.document)
+        // the last document of one query is not necessarily the last of the union
+        .buffer(2, 1)
+        .map(docs -> docs.size() > 1 ? docs.get(0).withHasNext() : docs.get(0));
+  }
+
+  /** Decorates the keys of the documents of a single query, they are all from the same table. */
+  private static class KeyDecorator implements Function<RawDocument, KeyedDocument> {
+
+    private RowDecorator decorator;
+
+    @Override
+    public KeyedDocument apply(RawDocument document) {
+      if (null == decorator) {
+        decorator = document.makeRowDecorator();
+      }
+      ComparableKey<?> key = decorator.decoratePartitionKey(document.rows().get(0));
+      return new KeyedDocument(key, document);
+    }
+  }
+
+  private static class KeyedDocument implements Comparable<KeyedDocument> {
+
+    private final ComparableKey<?> key;
+    private final RawDocument document;
+
+    private KeyedDocument(ComparableKey<?> key, RawDocument document) {
+      this.key = key;
+      this.document = document;
+    }
+
+    @Override
+    public int compareTo(KeyedDocument other) {
+      return key.compareTo(other.key);
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.stargate.db.datastore;
 
+import io.stargate.db.ComparableKey;
 import io.stargate.db.PagingPosition;
 import io.stargate.db.RowDecorator;
 import io.stargate.db.schema.Column;
@@ -107,6 +108,18 @@ public class ListBackedResultSet implements ResultSet {
 
   @Override
   public RowDecorator makeRowDecorator() {
-    throw new UnsupportedOperationException();
+    // emulate the token order with the natural order of the partition key values
+    return new RowDecorator() {
+      @Override
+      public <T extends Comparable<T>> ComparableKey<T> decoratePartitionKey(Row row) {
+        String key =
+            columns.stream()
+                .filter(c -> c.kind() == Column.Kind.PartitionKey)
+                .map(c -> String.valueOf(row.getObject(c.name())))
+                .collect(Collectors.joining(":"));
+        //noinspection unchecked
+        return (ComparableKey<T>) new ComparableKey<>(String.class, key);
+      }
+    };
   }
 }
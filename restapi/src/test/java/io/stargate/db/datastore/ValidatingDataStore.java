@@ -253,6 +253,8 @@ public class ValidatingDataStore implements DataStore {
     private final Pattern cqlPattern;
     private final Object[] params;
     private int pageSize = Integer.MAX_VALUE;
+    private List<List<Map<String, Object>>> results;
+    private int nextResult;
     private List<Map<String, Object>> rows;
 
     private QueryExpectation(Table table, String cqlRegEx, Object[] params) {
@@ -277,10 +279,25 @@ public class ValidatingDataStore implements DataStore {
     }
 
     public QueryAssert returning(List<Map<String, Object>> rows) {
-      this.rows = rows;
+      return returningInSequence(Collections.singletonList(rows));
+    }
+
+    /**
+     * Each execution of the query (without a paging state) returns the next of the given results,
+     * the last one is returned for all the remaining executions.
+     */
+    public QueryAssert returningInSequence(List<List<Map<String, Object>>> results) {
+      this.results = results;
       return this;
     }
 
+    private List<Map<String, Object>> rows(boolean firstPage) {
+      if (results != null && (firstPage || rows == null)) {
+        rows = results.get(Math.min(nextResult++, results.size() - 1));
+      }
+      return rows;
+    }
+
     private boolean matches(String cql) {
       return cqlPattern.matcher(cql).matches();
     }
@@ -331,7 +348,8 @@ public class ValidatingDataStore implements DataStore {
 
       expectation.executed();
       return CompletableFuture.completedFuture(
-          ListBackedResultSet.of(expectation.table, expectation.rows, paginator));
+          ListBackedResultSet.of(
+              expectation.table, expectation.rows(!pagingState.isPresent()), paginator));
       //      return CompletableFuture.supplyAsync(
       //          () -> ListBackedResultSet.of(expectation.table, expectation.rows, paginator));
     }
@@ -11,6 +11,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
@@ -22,6 +23,7 @@ import io.stargate.db.BatchType;
 import io.stargate.db.Parameters;
 import io.stargate.db.datastore.DataStore;
 import io.stargate.db.datastore.ResultSet;
+import io.stargate.db.datastore.Row;
 import io.stargate.db.query.BoundQuery;
 import io.stargate.db.query.Query;
 import io.stargate.db.query.TypedValue.Codec;
@@ -339,6 +341,123 @@ public class DocumentDBTest {
         .isEqualTo(makeValues(1L, "key", "b", "[000000]", "[999999]"));
   }
 
+  @Test
+  public void diffThenWriteBatch() throws UnauthorizedException {
+    Object[] unchanged = leafValues("a", "x", null, null);
+    Object[] changed = leafValues("b", null, 2.0d, null);
+    Object[] added = leafValues("d", "new", null, null);
+    Object[] removed = leafValues("c", null, null, true);
+    List<Row> currentRows =
+        asList(
+            leafRow(unchanged, 50L),
+            leafRow(leafValues("b", null, 1.0d, null), 50L),
+            leafRow(removed, 50L));
+
+    boolean written =
+        documentDB.diffThenWriteBatch(
+            "keyspace",
+            "table",
+            "key",
+            currentRows,
+            asList(unchanged, changed, added),
+            100L,
+            context);
+
+    assertThat(written).isTrue();
+    List<BoundQuery> generatedQueries = ds.getRecentStatements();
+    assertThat(generatedQueries).hasSize(3);
+
+    String insert =
+        "INSERT INTO \"keyspace\".\"table\" (key, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9, p10, p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25, p26, p27, p28, p29, p30, p31, p32, p33, p34, p35, p36, p37, p38, p39, p40, p41, p42, p43, p44, p45, p46, p47, p48, p49, p50, p51, p52, p53, p54, p55, p56, p57, p58, p59, p60, p61, p62, p63, leaf, text_value, dbl_value, bool_value) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) USING TIMESTAMP ?";
+    assertThat(generatedQueries.get(0).queryString()).isEqualTo(insert);
+    assertThat(javaValues(generatedQueries.get(0).values())).isEqualTo(makeValues(changed, 100L));
+
+    assertThat(generatedQueries.get(1).queryString()).isEqualTo(insert);
+    assertThat(javaValues(generatedQueries.get(1).values())).isEqualTo(makeValues(added, 100L));
+
+    StringBuilder delete =
+        new StringBuilder("DELETE FROM \"keyspace\".\"table\" USING TIMESTAMP ? WHERE key = ?");
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      delete.append(" AND p").append(i).append(" = ?");
+    }
+    String[] emptyStrings = new String[DocumentDB.MAX_DEPTH - 1];
+    Arrays.fill(emptyStrings, "");
+    assertThat(generatedQueries.get(2).queryString()).isEqualTo(delete.toString());
+    assertThat(javaValues(generatedQueries.get(2).values()))
+        .isEqualTo(makeValues(99L, "key", "c", emptyStrings));
+  }
+
+  @Test
+  public void diffThenWriteBatchNothingChanged() throws UnauthorizedException {
+    Object[] values = leafValues("a", "x", null, null);
+
+    boolean written =
+        documentDB.diffThenWriteBatch(
+            "keyspace",
+            "table",
+            "key",
+            singletonList(leafRow(values, 50L)),
+            singletonList(values),
+            100L,
+            context);
+
+    assertThat(written).isFalse();
+    assertThat(ds.getRecentStatements()).isEmpty();
+  }
+
+  @Test
+  public void diffThenWriteBatchKeepsNewerRows() throws UnauthorizedException {
+    // rows written by this update or later by a concurrent one are neither replaced nor deleted
+    List<Row> currentRows =
+        asList(
+            leafRow(leafValues("a", "y", null, null), 100L),
+            leafRow(leafValues("b", "other", null, null), 101L));
+
+    boolean written =
+        documentDB.diffThenWriteBatch(
+            "keyspace",
+            "table",
+            "key",
+            currentRows,
+            singletonList(leafValues("a", "x", null, null)),
+            100L,
+            context);
+
+    assertThat(written).isFalse();
+    assertThat(ds.getRecentStatements()).isEmpty();
+  }
+
+  private static Object[] leafValues(String leaf, String text, Double dbl, Boolean bool) {
+    Object[] values = new Object[DocumentDB.allColumns().size()];
+    Arrays.fill(values, "");
+    values[0] = "key";
+    values[1] = leaf;
+    values[1 + DocumentDB.MAX_DEPTH] = leaf;
+    values[2 + DocumentDB.MAX_DEPTH] = text;
+    values[3 + DocumentDB.MAX_DEPTH] = dbl;
+    values[4 + DocumentDB.MAX_DEPTH] = bool;
+    return values;
+  }
+
+  private static Row leafRow(Object[] values, long writeTime) {
+    Row row = mock(Row.class);
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      when(row.getString("p" + i)).thenReturn((String) values[1 + i]);
+    }
+    String[] valueColumns = {"leaf", "text_value", "dbl_value", "bool_value"};
+    for (int i = 0; i < valueColumns.length; i++) {
+      when(row.isNull(valueColumns[i])).thenReturn(values[1 + DocumentDB.MAX_DEPTH + i] == null);
+    }
+    when(row.getString("leaf")).thenReturn((String) values[1 + DocumentDB.MAX_DEPTH]);
+    when(row.getString("text_value")).thenReturn((String) values[2 + DocumentDB.MAX_DEPTH]);
+    Double dbl = (Double) values[3 + DocumentDB.MAX_DEPTH];
+    when(row.getDouble("dbl_value")).thenReturn(dbl == null ? 0d : dbl);
+    Boolean bool = (Boolean) values[4 + DocumentDB.MAX_DEPTH];
+    when(row.getBoolean("bool_value")).thenReturn(bool != null && bool);
+    when(row.getLong("writetime(leaf)")).thenReturn(writeTime);
+    return row;
+  }
+
   private static class TestDataStore implements DataStore {
 
     private final List<BoundQuery> recentQueries = new ArrayList<>();
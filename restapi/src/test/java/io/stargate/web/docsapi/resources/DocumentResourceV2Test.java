@@ -2,25 +2,31 @@ package io.stargate.web.docsapi.resources;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyObject;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.web.docsapi.service.DocsApiConfiguration;
 import io.stargate.web.docsapi.service.DocsSchemaChecker;
 import io.stargate.web.docsapi.service.DocumentService;
+import io.stargate.web.models.Error;
 import io.stargate.web.resources.AuthenticatedDB;
 import io.stargate.web.resources.Db;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -91,6 +97,90 @@ public class DocumentResourceV2Test {
     mapper.readTree((String) r.getEntity()).requiredAt("/documentIds");
   }
 
+  @Test
+  public void getManyDocs() throws JsonProcessingException, UnauthorizedException {
+    HttpHeaders headers = mock(HttpHeaders.class);
+    UriInfo ui = mock(UriInfo.class);
+    ObjectNode mockedReturn = mapper.createObjectNode();
+    mockedReturn.set("id1", mapper.createObjectNode().put("a", 1));
+    mockedReturn.set("id2", NullNode.getInstance());
+
+    Mockito.when(
+            documentServiceMock.getJsonForIds(
+                anyObject(),
+                eq("keyspace"),
+                eq("collection"),
+                eq(Arrays.asList("id1", "id2")),
+                anyList(),
+                any()))
+        .thenReturn(mockedReturn);
+
+    Response r =
+        documentResourceV2.getManyDocs(
+            headers,
+            ui,
+            "auth_token",
+            "keyspace",
+            "collection",
+            "[\"id1\", \"id2\"]",
+            null,
+            false,
+            true,
+            httpServletRequest);
+
+    assertThat(r.getStatus()).isEqualTo(200);
+    assertThat(mapper.readTree((String) r.getEntity())).isEqualTo(mockedReturn);
+  }
+
+  @Test
+  public void getManyDocs_invalidIds() {
+    HttpHeaders headers = mock(HttpHeaders.class);
+    UriInfo ui = mock(UriInfo.class);
+
+    Response r =
+        documentResourceV2.getManyDocs(
+            headers,
+            ui,
+            "auth_token",
+            "keyspace",
+            "collection",
+            "[\"id1\", 2]",
+            null,
+            false,
+            false,
+            httpServletRequest);
+
+    assertThat(r.getStatus()).isEqualTo(400);
+  }
+
+  @Test
+  public void getManyDocs_tooManyIds() {
+    HttpHeaders headers = mock(HttpHeaders.class);
+    UriInfo ui = mock(UriInfo.class);
+    doReturn(2).when(conf).getMaxMultiGetSize();
+    ArrayNode ids = mapper.createArrayNode();
+    for (int i = 0; i <= 2; i++) {
+      ids.add("id" + i);
+    }
+
+    Response r =
+        documentResourceV2.getManyDocs(
+            headers,
+            ui,
+            "auth_token",
+            "keyspace",
+            "collection",
+            ids.toString(),
+            null,
+            false,
+            false,
+            httpServletRequest);
+
+    assertThat(r.getStatus()).isEqualTo(400);
+    assertThat(((Error) r.getEntity()).getDescription())
+        .isEqualTo("At most 2 documents can be fetched in one request.");
+  }
+
   @Test
   public void putDoc_success() throws JsonProcessingException {
     HttpHeaders headers = mock(HttpHeaders.class);
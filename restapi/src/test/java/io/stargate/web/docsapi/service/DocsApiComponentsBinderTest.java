@@ -0,0 +1,51 @@
+package io.stargate.web.docsapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.glassfish.jersey.internal.inject.AbstractBinder;
+import org.glassfish.jersey.internal.inject.InjectionManager;
+import org.glassfish.jersey.internal.inject.Injections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DocsApiComponentsBinderTest {
+
+  private InjectionManager injectionManager;
+
+  @BeforeEach
+  void setup() {
+    injectionManager = Injections.createInjectionManager();
+    injectionManager.register(new DocsApiComponentsBinder(null));
+    injectionManager.register(
+        new AbstractBinder() {
+          @Override
+          protected void configure() {
+            bind(new ObjectMapper()).to(ObjectMapper.class);
+          }
+        });
+    injectionManager.completeRegistration();
+  }
+
+  @AfterEach
+  void shutdown() {
+    injectionManager.shutdown();
+  }
+
+  @Test
+  void testSchemaCheckerIsShared() {
+    DocsSchemaChecker first = injectionManager.getInstance(DocsSchemaChecker.class);
+    DocsSchemaChecker second = injectionManager.getInstance(DocsSchemaChecker.class);
+
+    assertThat(first).isNotNull().isSameAs(second);
+  }
+
+  @Test
+  void testJsonSchemaHandlerIsShared() {
+    JsonSchemaHandler first = injectionManager.getInstance(JsonSchemaHandler.class);
+    JsonSchemaHandler second = injectionManager.getInstance(JsonSchemaHandler.class);
+
+    assertThat(first).isNotNull().isSameAs(second);
+  }
+}
@@ -0,0 +1,68 @@
+package io.stargate.web.docsapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.stargate.db.schema.Column;
+import io.stargate.db.schema.Column.Kind;
+import io.stargate.db.schema.Column.Type;
+import io.stargate.db.schema.ImmutableKeyspace;
+import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.Table;
+import io.stargate.web.docsapi.dao.DocumentDB;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class DocsSchemaCheckerTest {
+  private DocsSchemaChecker schemaChecker;
+
+  @Mock private DocumentDB dbMock;
+
+  @BeforeEach
+  void setup() {
+    schemaChecker = new DocsSchemaChecker();
+  }
+
+  private static Schema schema(List<Column> columns) {
+    Table table = Table.create("ks", "coll", columns, Collections.emptyList());
+    return Schema.create(
+        Collections.singletonList(ImmutableKeyspace.builder().name("ks").addTables(table).build()));
+  }
+
+  @Test
+  void testValidityKeptUntilTableChanges() {
+    Column key = Column.create("key", Kind.PartitionKey, Type.Text);
+    Schema schema = schema(Collections.singletonList(key));
+    when(dbMock.schema()).thenReturn(schema);
+    when(dbMock.isDocumentsTable("ks", "coll")).thenReturn(true);
+
+    assertThat(schemaChecker.isKnownValid("ks", "coll", dbMock)).isFalse();
+    assertThat(schemaChecker.isValid("ks", "coll", dbMock)).isTrue();
+    assertThat(schemaChecker.isKnownValid("ks", "coll", dbMock)).isTrue();
+    assertThat(schemaChecker.isValid("ks", "coll", dbMock)).isTrue();
+    verify(dbMock, times(1)).isDocumentsTable("ks", "coll");
+
+    Schema altered = schema(Arrays.asList(key, Column.create("leaf", Type.Text)));
+    when(dbMock.schema()).thenReturn(altered);
+
+    assertThat(schemaChecker.isKnownValid("ks", "coll", dbMock)).isFalse();
+    assertThat(schemaChecker.isValid("ks", "coll", dbMock)).isTrue();
+    verify(dbMock, times(2)).isDocumentsTable("ks", "coll");
+  }
+
+  @Test
+  void testUnknownTable() {
+    when(dbMock.schema()).thenReturn(Schema.create(Collections.emptyList()));
+
+    assertThat(schemaChecker.isKnownValid("ks", "coll", dbMock)).isFalse();
+  }
+}
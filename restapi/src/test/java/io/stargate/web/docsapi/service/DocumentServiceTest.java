@@ -41,6 +41,7 @@ import io.stargate.auth.SourceAPI;
 import io.stargate.auth.UnauthorizedException;
 import io.stargate.db.datastore.AbstractDataStoreTest;
 import io.stargate.db.datastore.DataStoreFactory;
+import io.stargate.db.datastore.ValidatingDataStore.QueryAssert;
 import io.stargate.db.schema.Column;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.db.schema.ImmutableColumn;
@@ -345,6 +346,33 @@ public class DocumentServiceTest extends AbstractDataStoreTest {
     assertThat(r.getData()).isEqualTo(m("a", 1, "b", 2));
   }
 
+  @Test
+  void testGetManyDocs() throws JsonProcessingException {
+    withQuery(table, selectAll("WHERE key = ?"), "id1")
+        .returning(ImmutableList.of(row("id1", 1.0, "a"), row("id1", 2.0, "b")));
+    withQuery(table, selectAll("WHERE key = ?"), "id2").returningNothing();
+
+    DocumentResponseWrapper<Map<String, ?>> r =
+        unwrap(
+            resource.getManyDocs(
+                headers,
+                uriInfo,
+                authToken,
+                keyspace.name(),
+                table.name(),
+                "[\"id1\", \"id2\", \"id1\"]",
+                null,
+                false,
+                false,
+                request));
+
+    assertThat(r.getDocumentId()).isNull();
+    Map<String, Object> expected = new LinkedHashMap<>();
+    expected.put("id1", m("a", 1, "b", 2));
+    expected.put("id2", null);
+    assertThat(r.getData()).isEqualTo(expected);
+  }
+
   @Test
   void testGetDocPath() throws JsonProcessingException {
     final String id = "id0";
@@ -534,12 +562,14 @@ public class DocumentServiceTest extends AbstractDataStoreTest {
   @Test
   void testGetDocPathPlainFields() throws JsonProcessingException {
     final String id = "id2";
-    withQuery(table, selectAll("WHERE key = ? AND p0 = ? AND p1 = ?"), id, "a", "d")
-        .returning(
-            ImmutableList.of(
-                row(id, 3.0, "a", "d", "c"),
-                row(id, true, "a", "d", "z"),
-                row(id, "zz", "a", "d", "y")));
+    withQuery(
+            table,
+            selectAll("WHERE key = ? AND p0 = ? AND p1 = ? AND p2 IN ?"),
+            id,
+            "a",
+            "d",
+            ImmutableList.of("c", "z"))
+        .returning(ImmutableList.of(row(id, 3.0, "a", "d", "c"), row(id, true, "a", "d", "z")));
 
     DocumentResponseWrapper<Map<String, ?>> r =
         getDocPath(id, null, "[\"c\", \"z\"]", ImmutableList.of(p("a"), p("d")));
@@ -548,6 +578,14 @@ public class DocumentServiceTest extends AbstractDataStoreTest {
     assertThat(r.getData()).isEqualTo(m("c", 3, "z", true));
 
     // selecting missing field results in no docs found
+    withQuery(
+            table,
+            selectAll("WHERE key = ? AND p0 = ? AND p1 = ? AND p2 IN ?"),
+            id,
+            "a",
+            "d",
+            ImmutableList.of("x"))
+        .returningNothing();
     assertThat(
             resource
                 .getDocPath(
@@ -568,8 +606,8 @@ public class DocumentServiceTest extends AbstractDataStoreTest {
                 .getStatus())
         .isEqualTo(Status.NOT_FOUND.getStatusCode());
 
-    withQuery(table, selectAll("WHERE key = ?"), id)
-        .returning(ImmutableList.of(row(id, 3.0, "x"), row(id, true, "y"), row(id, "zz", "z")));
+    withQuery(table, selectAll("WHERE key = ? AND p0 IN ?"), id, ImmutableList.of("x", "z"))
+        .returning(ImmutableList.of(row(id, 3.0, "x"), row(id, "zz", "z")));
 
     r = getDocPath(id, null, "[\"x\", \"z\"]", ImmutableList.of());
     assertThat(r.getDocumentId()).isEqualTo(id);
@@ -577,6 +615,20 @@ public class DocumentServiceTest extends AbstractDataStoreTest {
     assertThat(r.getData()).isEqualTo(m("x", 3, "z", "zz"));
   }
 
+  @Test
+  void testGetDocPathPlainFieldsNoneExisting() throws JsonProcessingException {
+    final String id = "id2";
+    withQuery(table, selectAll("WHERE key = ? AND p0 IN ?"), id, ImmutableList.of("x"))
+        .returningNothing();
+    withQuery(table, selectAll("WHERE key = ? LIMIT ?"), id, 1)
+        .returning(ImmutableList.of(row(id, "zz", "z")));
+
+    // the document exists, but has none of the fields
+    DocumentResponseWrapper<Map<String, ?>> r = getDocPath(id, null, "[\"x\"]", ImmutableList.of());
+    assertThat(r.getDocumentId()).isEqualTo(id);
+    assertThat(r.getData()).isEqualTo(Collections.emptyMap());
+  }
+
   @Test
   void testGetDocPathPlainFieldsPaged() throws JsonProcessingException {
     final String id = "id2";
@@ -783,6 +835,184 @@ public class DocumentServiceTest extends AbstractDataStoreTest {
         ExecutionContext.NOOP_CONTEXT);
   }
 
+  @Test
+  void testPutAtPathDiffWrites()
+      throws UnauthorizedException, JsonProcessingException, ProcessingException {
+    withDiffWrites();
+
+    QueryAssert selectAssert =
+        withQuery(table, selectAll("WHERE key = ?"), "id5")
+            .returningInSequence(
+                ImmutableList.of(
+                    ImmutableList.of(row("id5", 1.0d, "a"), row("id5", "x", "b")),
+                    ImmutableList.of(row("id5", 1.0d, "a"), row("id5", 200, 2.0d, "c"))));
+
+    QueryAssert deleteAssert =
+        withQuery(table, exactPathDelete(), fillParams(66, 199L, "id5", "b")).returningNothing();
+    QueryAssert insertAssert =
+        withQuery(table, insert, fillParams(70, "id5", "c", SEPARATOR, "c", null, 2.0d, null, 200L))
+            .returningNothing();
+
+    // the unchanged "a" is not written, and nothing is written with the legacy prefix delete
+    now.set(200);
+    service.putAtPath(
+        authToken,
+        keyspace.name(),
+        table.name(),
+        "id5",
+        "{\"a\":1, \"c\":2}",
+        ImmutableList.of(),
+        false,
+        db,
+        true,
+        Collections.emptyMap(),
+        ExecutionContext.NOOP_CONTEXT);
+
+    // the rows are read again after the write, and are up to date then
+    selectAssert.assertExecuteCount().isEqualTo(2);
+    deleteAssert.assertExecuteCount().isEqualTo(1);
+    insertAssert.assertExecuteCount().isEqualTo(1);
+  }
+
+  @Test
+  void testPutAtPathDiffWritesConcurrentInsert()
+      throws UnauthorizedException, JsonProcessingException, ProcessingException {
+    withDiffWrites();
+
+    // "d" is added by a concurrent writer after the rows were read, "e" by a later one
+    withQuery(table, selectAll("WHERE key = ? AND p0 = ?"), "id6", "x")
+        .returningInSequence(
+            ImmutableList.of(
+                ImmutableList.of(row("id6", 1.0d, "x", "a")),
+                ImmutableList.of(
+                    row("id6", 1.0d, "x", "a"),
+                    row("id6", 200, 2.0d, "x", "c"),
+                    row("id6", 150, 3.0d, "x", "d"),
+                    row("id6", 250, 4.0d, "x", "e"))));
+
+    QueryAssert insertAssert =
+        withQuery(
+                table,
+                insert,
+                fillParams(70, "id6", "x", "c", SEPARATOR, "c", null, 2.0d, null, 200L))
+            .returningNothing();
+    // same as the legacy delete of the whole path at 199 would have done
+    QueryAssert deleteAssert =
+        withQuery(table, exactPathDelete(), fillParams(66, 199L, "id6", "x", "d"))
+            .returningNothing();
+
+    now.set(200);
+    service.putAtPath(
+        authToken,
+        keyspace.name(),
+        table.name(),
+        "id6",
+        "{\"a\":1, \"c\":2}",
+        ImmutableList.of(p("x")),
+        false,
+        db,
+        true,
+        Collections.emptyMap(),
+        ExecutionContext.NOOP_CONTEXT);
+
+    insertAssert.assertExecuteCount().isEqualTo(1);
+    deleteAssert.assertExecuteCount().isEqualTo(1);
+  }
+
+  @Test
+  void testPutAtPathDiffWritesLateConcurrentInsert()
+      throws UnauthorizedException, JsonProcessingException, ProcessingException {
+    withDiffWrites();
+
+    // "d" is written with an older timestamp, but only lands after the rows were read again, so
+    // unlike with the legacy delete of the whole path it is not shadowed and stays in the document
+    QueryAssert selectAssert =
+        withQuery(table, selectAll("WHERE key = ? AND p0 = ?"), "id7", "x")
+            .returningInSequence(
+                ImmutableList.of(
+                    ImmutableList.of(row("id7", 1.0d, "x", "a")),
+                    ImmutableList.of(row("id7", 1.0d, "x", "a"), row("id7", 200, 2.0d, "x", "c")),
+                    ImmutableList.of(
+                        row("id7", 1.0d, "x", "a"),
+                        row("id7", 200, 2.0d, "x", "c"),
+                        row("id7", 150, 3.0d, "x", "d"))));
+
+    QueryAssert insertAssert =
+        withQuery(
+                table,
+                insert,
+                fillParams(70, "id7", "x", "c", SEPARATOR, "c", null, 2.0d, null, 200L))
+            .returningNothing();
+
+    now.set(200);
+    service.putAtPath(
+        authToken,
+        keyspace.name(),
+        table.name(),
+        "id7",
+        "{\"a\":1, \"c\":2}",
+        ImmutableList.of(p("x")),
+        false,
+        db,
+        true,
+        Collections.emptyMap(),
+        ExecutionContext.NOOP_CONTEXT);
+
+    selectAssert.assertExecuteCount().isEqualTo(2);
+    insertAssert.assertExecuteCount().isEqualTo(1);
+  }
+
+  @Test
+  void testPutAtPathDiffWritesNewDocument()
+      throws UnauthorizedException, JsonProcessingException, ProcessingException {
+    withDiffWrites();
+
+    QueryAssert selectAssert =
+        withQuery(table, selectAll("WHERE key = ?"), "id8").returningNothing();
+    QueryAssert insertAssert =
+        withQuery(table, insert, fillParams(70, "id8", "a", SEPARATOR, "a", null, 1.0d, null, 200L))
+            .returningNothing();
+
+    now.set(200);
+    service.putAtPath(
+        authToken,
+        keyspace.name(),
+        table.name(),
+        "id8",
+        "{\"a\":1}",
+        ImmutableList.of(),
+        false,
+        db,
+        true,
+        Collections.emptyMap(),
+        ExecutionContext.NOOP_CONTEXT);
+
+    // there were no rows to replace, so the rows are not read again
+    selectAssert.assertExecuteCount().isEqualTo(1);
+    insertAssert.assertExecuteCount().isEqualTo(1);
+  }
+
+  private void withDiffWrites() {
+    DocsApiConfiguration diffWritesConfig =
+        new DocsApiConfiguration() {
+          @Override
+          public boolean isDiffWritesEnabled() {
+            return true;
+          }
+        };
+    service =
+        new DocumentService(
+            timeSource, mapper, converter, diffWritesConfig, schemaChecker, jsonSchemaHandler);
+  }
+
+  private String exactPathDelete() {
+    StringBuilder delete = new StringBuilder("DELETE FROM %s USING TIMESTAMP ? WHERE key = ?");
+    for (int i = 0; i < DocumentDB.MAX_DEPTH; i++) {
+      delete.append(" AND p").append(i).append(" = ?");
+    }
+    return delete.toString();
+  }
+
   @Test
   void testPutAtPathUnauthorized() throws UnauthorizedException {
     ThrowingCallable action =
@@ -1,8 +1,13 @@
 package io.stargate.web.docsapi.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -73,4 +78,31 @@ public class JsonSchemaHandlerTest {
         .hasMessage(
             "Invalid JSON: [object has missing required properties ([\"id\",\"name\",\"price\"])]");
   }
+
+  @Test
+  void testValidateWithCachedSchema() throws ProcessingException {
+    String wrapped = mapper.createObjectNode().set("schema", schema).toString();
+    when(dbMock.schema().keyspace("ns").table("coll").comment()).thenReturn(wrapped);
+
+    JsonSchemaHandler handler = spy(schemaHandler);
+
+    JsonNode cached = handler.getCachedJsonSchema(dbMock, "ns", "coll");
+    assertThat(handler.getCachedJsonSchema(dbMock, "ns", "coll")).isSameAs(cached);
+
+    // compiled schema is reused across validations
+    handler.validate(cached, "{\"id\":1,\"name\":\"a\",\"price\":1}");
+    assertThatThrownBy(() -> handler.validate(cached, "{\"id\":1,\"price\":1}"))
+        .hasMessage("Invalid JSON: [object has missing required properties ([\"name\"])]");
+    handler.validate(cached, "{\"id\":2,\"name\":\"b\",\"price\":2}");
+    verify(handler, times(1)).compileSchema(any());
+
+    // attaching a schema gives a new schema node, that is compiled once more
+    handler.attachSchemaToCollection(dbMock, "ns", "coll", schema);
+    JsonNode reloaded = handler.getCachedJsonSchema(dbMock, "ns", "coll");
+    assertThat(reloaded).isNotSameAs(cached);
+    handler.validate(reloaded, "{\"id\":1,\"name\":\"a\",\"price\":1}");
+    handler.validate(reloaded, "{\"id\":2,\"name\":\"b\",\"price\":2}");
+    verify(handler, times(1)).compileSchema(same(cached));
+    verify(handler, times(1)).compileSchema(same(reloaded));
+  }
 }
@@ -30,6 +30,7 @@ import io.stargate.db.datastore.ResultSet;
 import io.stargate.db.datastore.ValidatingDataStore.QueryAssert;
 import io.stargate.db.query.Predicate;
 import io.stargate.db.query.builder.AbstractBound;
+import io.stargate.db.query.builder.BuiltCondition;
 import io.stargate.db.query.builder.BuiltQuery;
 import io.stargate.db.schema.Column.Type;
 import io.stargate.db.schema.ImmutableColumn;
@@ -103,19 +104,33 @@ class QueryExecutorTest extends AbstractDataStoreTest {
     assertThat(r1).extracting(RawDocument::id).containsExactly("1", "2");
   }
 
+  private DocsApiConfiguration readAhead(int pages) {
+    return new DocsApiConfiguration() {
+      @Override
+      public int getSearchReadAheadPages() {
+        return pages;
+      }
+    };
+  }
+
   private void withFiveTestDocs(int pageSize) {
-    withQuery(table, "SELECT * FROM %s")
-        .withPageSize(pageSize)
-        .returning(
-            ImmutableList.of(
-                row("1", "x", 1.0d),
-                row("1", "y", 2.0d),
-                row("2", "x", 3.0d),
-                row("3", "x", 1.0d),
-                row("4", "y", 2.0d),
-                row("4", "x", 3.0d),
-                row("5", "x", 3.0d),
-                row("5", "x", 3.0d)));
+    withQuery(table, "SELECT * FROM %s").withPageSize(pageSize).returning(fiveTestDocs());
+  }
+
+  private QueryAssert withFiveTestDocs() {
+    return withQuery(table, "SELECT * FROM %s").returning(fiveTestDocs());
+  }
+
+  private List<Map<String, Object>> fiveTestDocs() {
+    return ImmutableList.of(
+        row("1", "x", 1.0d),
+        row("1", "y", 2.0d),
+        row("2", "x", 3.0d),
+        row("3", "x", 1.0d),
+        row("4", "y", 2.0d),
+        row("4", "x", 3.0d),
+        row("5", "x", 3.0d),
+        row("5", "x", 3.0d));
   }
 
   private void withFiveTestDocIds(int pageSize) {
@@ -175,6 +190,7 @@ class QueryExecutorTest extends AbstractDataStoreTest {
   @ParameterizedTest
   @CsvSource({"4", "10", "20", "50", "100", "500", "1000", "5000"})
   void testPartialFullScan(int pageSize) {
+    executor = new QueryExecutor(datastore(), readAhead(0));
     Builder<Map<String, Object>> rows = ImmutableList.builder();
     for (int i = 0; i <= 10 * pageSize; i++) { // generate 10 pages of data
       rows.add(row("" + i, "a", 11.0d)); // one row per document
@@ -204,6 +220,98 @@ class QueryExecutorTest extends AbstractDataStoreTest {
     queryAssert.assertExecuteCount().isEqualTo(2);
   }
 
+  @ParameterizedTest
+  @CsvSource({"4", "10", "100", "5000"})
+  void testPartialFullScanReadAhead(int pageSize) {
+    executor = new QueryExecutor(datastore(), readAhead(1));
+    Builder<Map<String, Object>> rows = ImmutableList.builder();
+    for (int i = 0; i <= 10 * pageSize; i++) { // generate 10 pages of data
+      rows.add(row("" + i, "a", 11.0d)); // one row per document
+    }
+
+    QueryAssert queryAssert =
+        withQuery(table, "SELECT * FROM %s").withPageSize(pageSize).returning(rows.build());
+
+    Flowable<RawDocument> flowable = executor.queryDocs(allDocsQuery, pageSize, null, context);
+    TestSubscriber<RawDocument> test = flowable.test(1);
+
+    test.awaitCount(1);
+    test.assertValueAt(0, d -> d.id().equals("0"));
+    queryAssert.assertExecuteCount().isEqualTo(2); // page 2 fetched while page 1 is processed
+
+    test.request(pageSize); // total requested == pageSize + 1, which ends page 1
+    test.awaitCount(pageSize + 1);
+    test.assertValueAt(pageSize, d -> d.id().equals("" + pageSize));
+    queryAssert.assertExecuteCount().isEqualTo(3); // page 3 fetched while page 2 is processed
+
+    test.cancel();
+    test.request(pageSize);
+    queryAssert.assertExecuteCount().isEqualTo(3); // nothing fetched after cancellation
+    assertThat(test.values()).hasSize(pageSize + 1);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1", "2", "100"})
+  void testTokenRangeScan(int pageSize) {
+    BuiltQuery<?> tokenRangeQuery =
+        datastore()
+            .queryBuilder()
+            .select()
+            .star()
+            .from(table)
+            .where(BuiltCondition.ofMarker(BuiltCondition.LHS.token("key"), Predicate.GT))
+            .where(BuiltCondition.ofMarker(BuiltCondition.LHS.token("key"), Predicate.LTE))
+            .build();
+    String cql = "SELECT * FROM %s WHERE TOKEN(key) > ? AND TOKEN(key) <= ?";
+    withQuery(table, cql, Long.MIN_VALUE, -1L)
+        .withPageSize(pageSize)
+        .returning(ImmutableList.of(row("1", "x", 1.0d), row("1", "y", 2.0d), row("2", "x", 3.0d)));
+    withQuery(table, cql, -1L, Long.MAX_VALUE)
+        .withPageSize(pageSize)
+        .returning(ImmutableList.of(row("3", "x", 1.0d), row("4", "x", 2.0d)));
+
+    List<RawDocument> r1 =
+        executor
+            .queryDocsInTokenRanges(tokenRangeQuery, 2, 2, pageSize, null, context)
+            .test()
+            .values();
+    assertThat(r1).extracting(RawDocument::id).containsExactly("1", "2", "3", "4");
+    assertThat(r1.get(0).rows()).hasSize(2);
+    // the last document of the first range is followed by the ones of the second range
+    assertThat(r1.subList(0, 3)).allMatch(RawDocument::hasPagingState);
+
+    ByteBuffer ps1 = r1.get(0).makePagingState();
+    assertThat(TokenRange.fromPagingState(ps1))
+        .satisfies(
+            range -> {
+              assertThat(range.lower()).isEqualTo(Long.MIN_VALUE);
+              assertThat(range.upper()).isEqualTo(-1L);
+            });
+    List<RawDocument> r2 =
+        executor
+            .queryDocsInTokenRanges(tokenRangeQuery, 2, 2, pageSize, ps1, context)
+            .test()
+            .values();
+    assertThat(r2).extracting(RawDocument::id).containsExactly("2", "3", "4");
+
+    ByteBuffer ps2 = r1.get(1).makePagingState();
+    List<RawDocument> r3 =
+        executor
+            .queryDocsInTokenRanges(tokenRangeQuery, 2, 2, pageSize, ps2, context)
+            .test()
+            .values();
+    assertThat(r3).extracting(RawDocument::id).containsExactly("3", "4");
+
+    ByteBuffer ps3 = r1.get(2).makePagingState();
+    assertThat(TokenRange.fromPagingState(ps3).lower()).isEqualTo(-1L);
+    List<RawDocument> r4 =
+        executor
+            .queryDocsInTokenRanges(tokenRangeQuery, 2, 2, pageSize, ps3, context)
+            .test()
+            .values();
+    assertThat(r4).extracting(RawDocument::id).containsExactly("4");
+  }
+
   @ParameterizedTest
   @CsvSource({"1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "100"})
   void testFullScanFinalPagingState(int pageSize) {
@@ -276,6 +384,41 @@ class QueryExecutorTest extends AbstractDataStoreTest {
     assertThat(doc5b.makePagingState()).isEqualTo(doc5a.makePagingState());
   }
 
+  @ParameterizedTest
+  @CsvSource({"100, 4", "2, 5"})
+  void testAdaptivePageSize(int maxPageSize, int expectedPages) {
+    DocsApiConfiguration configuration =
+        new DocsApiConfiguration() {
+          @Override
+          public int getSearchPageDocuments() {
+            return 2;
+          }
+
+          @Override
+          public int getMinSearchPageSize() {
+            return 1;
+          }
+
+          @Override
+          public int getMaxSearchPageSize() {
+            return maxPageSize;
+          }
+        };
+    executor = new QueryExecutor(datastore(), configuration);
+    QueryAssert queryAssert = withFiveTestDocs();
+
+    // page sizes grow from 1 to hold about 2 documents of 1.6 rows each, or at most maxPageSize
+    List<RawDocument> r1 = executor.queryDocs(allDocsQuery, 1, null, context).test().values();
+    assertThat(r1).extracting(RawDocument::id).containsExactly("1", "2", "3", "4", "5");
+    assertThat(r1.get(3).rows()).hasSize(2);
+    queryAssert.assertExecuteCount().isEqualTo(expectedPages);
+
+    // paging states do not depend on the page size
+    ByteBuffer ps = r1.get(1).makePagingState();
+    List<RawDocument> r2 = executor.queryDocs(allDocsQuery, 1, ps, context).test().values();
+    assertThat(r2).extracting(RawDocument::id).containsExactly("3", "4", "5");
+  }
+
   @Test
   void testResultSetPagination() {
     withFiveTestDocs(3);
@@ -115,7 +115,13 @@ class ReactiveDocumentServiceTest {
               Collections.emptyList(), objectMapper.readTree(where), true))
           .thenReturn(expression);
       when(searchService.searchDocuments(
-              queryExecutor, namespace, collection, expression, paginator, context))
+              queryExecutor,
+              namespace,
+              collection,
+              expression,
+              Collections.singletonList(Collections.singletonList("myField")),
+              paginator,
+              context))
           .thenReturn(docs);
       doReturn(documentNode)
           .when(jsonConverter)
@@ -164,7 +170,13 @@ class ReactiveDocumentServiceTest {
               Collections.emptyList(), objectMapper.readTree(where), true))
           .thenReturn(expression);
       when(searchService.searchDocuments(
-              queryExecutor, namespace, collection, expression, paginator, context))
+              queryExecutor,
+              namespace,
+              collection,
+              expression,
+              Collections.singletonList(Collections.singletonList("myField")),
+              paginator,
+              context))
           .thenReturn(docs);
       doReturn(documentNode)
           .when(jsonConverter)
@@ -213,7 +225,13 @@ class ReactiveDocumentServiceTest {
               Collections.emptyList(), objectMapper.readTree(where), true))
           .thenReturn(expression);
       when(searchService.searchDocuments(
-              queryExecutor, namespace, collection, expression, paginator, context))
+              queryExecutor,
+              namespace,
+              collection,
+              expression,
+              Collections.emptyList(),
+              paginator,
+              context))
           .thenReturn(docs);
       doReturn(documentNode)
           .when(jsonConverter)
@@ -257,7 +275,13 @@ class ReactiveDocumentServiceTest {
               Collections.emptyList(), objectMapper.readTree(where), true))
           .thenReturn(expression);
       when(searchService.searchDocuments(
-              queryExecutor, namespace, collection, expression, paginator, context))
+              queryExecutor,
+              namespace,
+              collection,
+              expression,
+              Collections.singletonList(Collections.singletonList("myField")),
+              paginator,
+              context))
           .thenReturn(Flowable.empty());
 
       Single<DocumentResponseWrapper<? extends JsonNode>> result =
@@ -289,7 +313,13 @@ class ReactiveDocumentServiceTest {
       byte[] pageState = RandomUtils.nextBytes(64);
       when(documentDB.getQueryExecutor()).thenReturn(queryExecutor);
       when(searchService.searchDocuments(
-              queryExecutor, namespace, collection, Literal.getTrue(), paginator, context))
+              queryExecutor,
+              namespace,
+              collection,
+              Literal.getTrue(),
+              Collections.emptyList(),
+              paginator,
+              context))
           .thenReturn(docs);
       when(rawDocument.makePagingState()).thenReturn(ByteBuffer.wrap(pageState));
 
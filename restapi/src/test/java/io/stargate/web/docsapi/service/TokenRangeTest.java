@@ -0,0 +1,76 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.stargate.web.docsapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TokenRangeTest {
+
+  @ParameterizedTest
+  @CsvSource({"1", "2", "3", "7", "256"})
+  void splitRing(int count) {
+    List<TokenRange> ranges = TokenRange.split(count, Long.MIN_VALUE);
+
+    assertThat(ranges).hasSize(count);
+    assertThat(ranges.get(0).lower()).isEqualTo(Long.MIN_VALUE);
+    assertThat(ranges.get(count - 1).upper()).isEqualTo(Long.MAX_VALUE);
+    for (int i = 1; i < count; i++) {
+      assertThat(ranges.get(i).lower()).isEqualTo(ranges.get(i - 1).upper());
+    }
+  }
+
+  @Test
+  void splitAfterToken() {
+    List<TokenRange> ranges = TokenRange.split(4, 42L);
+
+    // the second half of the ring, with the range of the token starting from it
+    assertThat(ranges).hasSize(2);
+    assertThat(ranges.get(0).lower()).isEqualTo(42L);
+    assertThat(ranges.get(0).upper()).isEqualTo(ranges.get(1).lower());
+    assertThat(ranges.get(1).upper()).isEqualTo(Long.MAX_VALUE);
+
+    assertThat(TokenRange.split(4, Long.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  void pagingStatePrefix() {
+    TokenRange range = new TokenRange(-10L, 10L);
+    ByteBuffer inner = ByteBuffer.wrap(new byte[] {1, 2, 3});
+
+    ByteBuffer prefix = range.pagingStatePrefix();
+    ByteBuffer pagingState = ByteBuffer.allocate(prefix.remaining() + inner.remaining());
+    pagingState.put(prefix).put(inner.duplicate());
+    pagingState.flip();
+
+    TokenRange resumed = TokenRange.fromPagingState(pagingState);
+    assertThat(resumed.lower()).isEqualTo(-10L);
+    assertThat(resumed.upper()).isEqualTo(10L);
+    assertThat(TokenRange.innerPagingState(pagingState)).isEqualTo(inner);
+  }
+
+  @Test
+  void plainPagingState() {
+    ByteBuffer pagingState = ByteBuffer.wrap(new byte[] {1, 2, 3});
+
+    assertThat(TokenRange.fromPagingState(pagingState)).isNull();
+  }
+}
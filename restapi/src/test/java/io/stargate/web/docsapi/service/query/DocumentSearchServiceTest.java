@@ -38,6 +38,7 @@ import io.stargate.web.docsapi.service.query.condition.BaseCondition;
 import io.stargate.web.docsapi.service.query.condition.impl.ImmutableStringCondition;
 import io.stargate.web.docsapi.service.query.filter.operation.impl.EqFilterOperation;
 import java.util.Arrays;
+import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -208,6 +209,64 @@ class DocumentSearchServiceTest extends AbstractDataStoreTest {
               });
     }
 
+    @Test
+    public void withFields() {
+      Paginator paginator = new Paginator(null, 20);
+      ExecutionContext context = ExecutionContext.create(true);
+      FilterPath filterPath = ImmutableFilterPath.of(Arrays.asList("some", "field"));
+      BaseCondition condition = ImmutableStringCondition.of(EqFilterOperation.of(), "find-me");
+      FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
+
+      String candidatesCql =
+          "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND p1 = ? AND leaf = ? AND p2 = ? AND text_value = ? ALLOW FILTERING";
+      withQuery(TABLE, candidatesCql)
+          .withPageSize(configuration.getSearchPageSize())
+          .returning(Arrays.asList(ImmutableMap.of("key", "1"), ImmutableMap.of("key", "2")));
+
+      String populateCql =
+          "SELECT key, leaf, text_value, dbl_value, bool_value, p0, p1, p2, p3, WRITETIME(leaf) FROM %s WHERE p0 IN ? AND key = ?";
+      ValidatingDataStore.QueryAssert populateFirstAssert =
+          withQuery(TABLE, populateCql, "1")
+              .withPageSize(configuration.getSearchPageSize())
+              .returning(
+                  Collections.singletonList(
+                      ImmutableMap.of(
+                          "key", "1", "text_value", "other", "p0", "another", "p1", "field")));
+      ValidatingDataStore.QueryAssert populateSecondAssert =
+          withQuery(TABLE, populateCql, "2")
+              .withPageSize(configuration.getSearchPageSize())
+              .returningNothing();
+
+      Flowable<RawDocument> results =
+          service.searchDocuments(
+              new QueryExecutor(datastore()),
+              KEYSPACE_NAME,
+              COLLECTION_NAME,
+              expression,
+              Collections.singletonList(Arrays.asList("another", "field")),
+              paginator,
+              context);
+
+      // second document has none of the fields, but is still returned
+      results
+          .test()
+          .assertValueAt(
+              0,
+              doc -> {
+                assertThat(doc.id()).isEqualTo("1");
+                assertThat(doc.rows())
+                    .singleElement()
+                    .satisfies(r -> assertThat(r.getString("p0")).isEqualTo("another"));
+                return true;
+              })
+          .assertValueAt(1, doc -> doc.id().equals("2"))
+          .assertValueCount(2)
+          .assertComplete();
+
+      populateFirstAssert.assertExecuteCount().isEqualTo(1);
+      populateSecondAssert.assertExecuteCount().isEqualTo(1);
+    }
+
     @Test
     public void limitedResults() {
       Paginator paginator = new Paginator(null, 1);
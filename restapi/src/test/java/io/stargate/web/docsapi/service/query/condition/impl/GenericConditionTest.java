@@ -23,9 +23,12 @@ import static org.mockito.Mockito.when;
 
 import io.stargate.db.datastore.Row;
 import io.stargate.db.query.builder.BuiltCondition;
+import io.stargate.web.docsapi.service.query.condition.BaseCondition;
 import io.stargate.web.docsapi.service.query.filter.operation.GenericFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.impl.EqFilterOperation;
 import io.stargate.web.docsapi.service.query.filter.operation.impl.InFilterOperation;
 import io.stargate.web.docsapi.service.query.filter.operation.impl.NotInFilterOperation;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -59,6 +62,50 @@ class GenericConditionTest {
     }
   }
 
+  @Nested
+  class GetUnionConditions {
+
+    @Test
+    public void inPredicate() {
+      List<?> queryValue = Arrays.asList("value", 2, true, "value");
+
+      GenericCondition<List<?>> condition =
+          ImmutableGenericCondition.of(InFilterOperation.of(), queryValue, false);
+      Optional<List<BaseCondition>> result = condition.getUnionConditions();
+
+      assertThat(result)
+          .hasValueSatisfying(
+              conditions ->
+                  assertThat(conditions)
+                      .containsExactly(
+                          ImmutableStringCondition.of(EqFilterOperation.of(), "value"),
+                          ImmutableNumberCondition.of(EqFilterOperation.of(), 2),
+                          ImmutableBooleanCondition.of(EqFilterOperation.of(), true, false)));
+    }
+
+    @Test
+    public void inPredicateWithNull() {
+      List<?> queryValue = Arrays.asList("value", null);
+
+      GenericCondition<List<?>> condition =
+          ImmutableGenericCondition.of(InFilterOperation.of(), queryValue, false);
+      Optional<List<BaseCondition>> result = condition.getUnionConditions();
+
+      assertThat(result).isEmpty();
+    }
+
+    @Test
+    public void notInPredicate() {
+      List<?> queryValue = Collections.singletonList("value");
+
+      GenericCondition<List<?>> condition =
+          ImmutableGenericCondition.of(NotInFilterOperation.of(), queryValue, false);
+      Optional<List<BaseCondition>> result = condition.getUnionConditions();
+
+      assertThat(result).isEmpty();
+    }
+  }
+
   @Nested
   class GetBuiltCondition {
 
@@ -24,12 +24,14 @@ import io.stargate.db.query.BoundQuery;
 import io.stargate.db.query.builder.BuiltQuery;
 import io.stargate.db.schema.Schema;
 import io.stargate.web.docsapi.DocsApiTestSchemaProvider;
+import java.util.Arrays;
+import java.util.Collections;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 class PopulateSearchQueryBuilderTest extends AbstractDataStoreTest {
 
-  private static final DocsApiTestSchemaProvider SCHEMA_PROVIDER = new DocsApiTestSchemaProvider(0);
+  private static final DocsApiTestSchemaProvider SCHEMA_PROVIDER = new DocsApiTestSchemaProvider(4);
   private static final String KEYSPACE_NAME = SCHEMA_PROVIDER.getKeyspace().name();
   private static final String COLLECTION_NAME = SCHEMA_PROVIDER.getTable().name();
 
@@ -52,5 +54,35 @@ class PopulateSearchQueryBuilderTest extends AbstractDataStoreTest {
               "SELECT WRITETIME(leaf) FROM %s.%s WHERE key = ?", KEYSPACE_NAME, COLLECTION_NAME);
       assertThat(query.toString()).isEqualTo(expected);
     }
+
+    @Test
+    public void withFields() {
+      PopulateSearchQueryBuilder queryBuilder =
+          new PopulateSearchQueryBuilder(
+              Arrays.asList(
+                  Arrays.asList("a", "b"), Collections.singletonList("c,d"), Arrays.asList("a")));
+      BuiltQuery<? extends BoundQuery> query =
+          queryBuilder.buildQuery(datastore()::queryBuilder, KEYSPACE_NAME, COLLECTION_NAME);
+
+      String expected =
+          String.format(
+              "SELECT WRITETIME(leaf) FROM %s.%s WHERE p0 IN ('a', 'c', 'd') AND key = ?",
+              KEYSPACE_NAME, COLLECTION_NAME);
+      assertThat(query.toString()).isEqualTo(expected);
+    }
+
+    @Test
+    public void withGlobField() {
+      PopulateSearchQueryBuilder queryBuilder =
+          new PopulateSearchQueryBuilder(
+              Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("*", "c")));
+      BuiltQuery<? extends BoundQuery> query =
+          queryBuilder.buildQuery(datastore()::queryBuilder, KEYSPACE_NAME, COLLECTION_NAME);
+
+      String expected =
+          String.format(
+              "SELECT WRITETIME(leaf) FROM %s.%s WHERE key = ?", KEYSPACE_NAME, COLLECTION_NAME);
+      assertThat(query.toString()).isEqualTo(expected);
+    }
   }
 }
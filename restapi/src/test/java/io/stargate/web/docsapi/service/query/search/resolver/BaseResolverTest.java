@@ -25,6 +25,7 @@ import com.bpodgursky.jbool_expressions.Literal;
 import com.bpodgursky.jbool_expressions.Or;
 import io.stargate.web.docsapi.exception.ErrorCode;
 import io.stargate.web.docsapi.exception.ErrorCodeRuntimeException;
+import io.stargate.web.docsapi.service.DocsApiConfiguration;
 import io.stargate.web.docsapi.service.ExecutionContext;
 import io.stargate.web.docsapi.service.query.FilterExpression;
 import io.stargate.web.docsapi.service.query.FilterPath;
@@ -41,6 +42,7 @@ import io.stargate.web.docsapi.service.query.search.resolver.filter.impl.Persist
 import io.stargate.web.docsapi.service.query.search.resolver.impl.AllFiltersResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.InMemoryDocumentsResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.PersistenceDocumentsResolver;
+import io.stargate.web.docsapi.service.query.search.resolver.impl.UnionPersistenceDocumentsResolver;
 import java.util.Collections;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -51,6 +53,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class BaseResolverTest {
 
+  DocsApiConfiguration configuration = DocsApiConfiguration.DEFAULT;
+
   @Mock DocumentsResolver candidatesResolver;
 
   @Nested
@@ -60,7 +64,7 @@ class BaseResolverTest {
     public void literalTrue() {
       ExecutionContext context = ExecutionContext.create(true);
 
-      DocumentsResolver result = BaseResolver.resolve(Literal.getTrue(), context);
+      DocumentsResolver result = BaseResolver.resolve(Literal.getTrue(), configuration, context);
 
       assertThat(result).isNull();
     }
@@ -72,7 +76,7 @@ class BaseResolverTest {
       BaseCondition condition = ImmutableStringCondition.of(EqFilterOperation.of(), "find-me");
       FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
 
-      DocumentsResolver result = BaseResolver.resolve(expression, context);
+      DocumentsResolver result = BaseResolver.resolve(expression, configuration, context);
 
       assertThat(result).isInstanceOf(PersistenceDocumentsResolver.class);
     }
@@ -84,7 +88,8 @@ class BaseResolverTest {
       BaseCondition condition = ImmutableStringCondition.of(EqFilterOperation.of(), "find-me");
       FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
 
-      DocumentsResolver result = BaseResolver.resolve(expression, context, candidatesResolver);
+      DocumentsResolver result =
+          BaseResolver.resolve(expression, configuration, context, candidatesResolver);
 
       assertThat(result)
           .isInstanceOfSatisfying(
@@ -107,7 +112,7 @@ class BaseResolverTest {
       BaseCondition condition = ImmutableStringCondition.of(NeFilterOperation.of(), "find-me");
       FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
 
-      DocumentsResolver result = BaseResolver.resolve(expression, context);
+      DocumentsResolver result = BaseResolver.resolve(expression, configuration, context);
 
       assertThat(result).isInstanceOf(InMemoryDocumentsResolver.class);
     }
@@ -119,7 +124,8 @@ class BaseResolverTest {
       BaseCondition condition = ImmutableStringCondition.of(NeFilterOperation.of(), "find-me");
       FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
 
-      DocumentsResolver result = BaseResolver.resolve(expression, context, candidatesResolver);
+      DocumentsResolver result =
+          BaseResolver.resolve(expression, configuration, context, candidatesResolver);
 
       assertThat(result)
           .isInstanceOfSatisfying(
@@ -144,7 +150,8 @@ class BaseResolverTest {
       FilterExpression expression1 = ImmutableFilterExpression.of(filterPath, condition1, 0);
       FilterExpression expression2 = ImmutableFilterExpression.of(filterPath, condition2, 1);
 
-      DocumentsResolver result = BaseResolver.resolve(And.of(expression1, expression2), context);
+      DocumentsResolver result =
+          BaseResolver.resolve(And.of(expression1, expression2), configuration, context);
 
       assertThat(result).isInstanceOf(PersistenceDocumentsResolver.class);
     }
@@ -156,7 +163,7 @@ class BaseResolverTest {
       BaseCondition condition1 = ImmutableStringCondition.of(GtFilterOperation.of(), "find-me");
       FilterExpression expression1 = ImmutableFilterExpression.of(filterPath, condition1, 0);
 
-      DocumentsResolver result = BaseResolver.resolve(And.of(expression1), context);
+      DocumentsResolver result = BaseResolver.resolve(And.of(expression1), configuration, context);
 
       assertThat(result).isInstanceOf(PersistenceDocumentsResolver.class);
     }
@@ -170,8 +177,27 @@ class BaseResolverTest {
       FilterExpression expression1 = ImmutableFilterExpression.of(filterPath, condition1, 0);
       FilterExpression expression2 = ImmutableFilterExpression.of(filterPath, condition2, 1);
 
+      DocumentsResolver result =
+          BaseResolver.resolve(Or.of(expression1, expression2), configuration, context);
+
+      assertThat(result)
+          .isInstanceOfSatisfying(
+              UnionPersistenceDocumentsResolver.class,
+              r -> assertThat(r).extracting("resolvers").asList().hasSize(2));
+    }
+
+    @Test
+    public void orWithMemoryCondition() {
+      ExecutionContext context = ExecutionContext.create(true);
+      FilterPath filterPath = ImmutableFilterPath.of(Collections.singletonList("field"));
+      BaseCondition condition1 = ImmutableStringCondition.of(GtFilterOperation.of(), "find-me");
+      BaseCondition condition2 = ImmutableStringCondition.of(NeFilterOperation.of(), "find-me");
+      FilterExpression expression1 = ImmutableFilterExpression.of(filterPath, condition1, 0);
+      FilterExpression expression2 = ImmutableFilterExpression.of(filterPath, condition2, 1);
+
       Throwable t =
-          catchThrowable(() -> BaseResolver.resolve(Or.of(expression1, expression2), context));
+          catchThrowable(
+              () -> BaseResolver.resolve(Or.of(expression1, expression2), configuration, context));
 
       assertThat(t)
           .isInstanceOf(ErrorCodeRuntimeException.class)
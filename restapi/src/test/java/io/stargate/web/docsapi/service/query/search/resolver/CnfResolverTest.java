@@ -20,6 +20,8 @@ package io.stargate.web.docsapi.service.query.search.resolver;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.bpodgursky.jbool_expressions.And;
+import com.bpodgursky.jbool_expressions.Or;
+import io.stargate.web.docsapi.service.DocsApiConfiguration;
 import io.stargate.web.docsapi.service.ExecutionContext;
 import io.stargate.web.docsapi.service.query.FilterExpression;
 import io.stargate.web.docsapi.service.query.FilterPath;
@@ -31,11 +33,14 @@ import io.stargate.web.docsapi.service.query.condition.impl.ImmutableStringCondi
 import io.stargate.web.docsapi.service.query.filter.operation.impl.GtFilterOperation;
 import io.stargate.web.docsapi.service.query.filter.operation.impl.InFilterOperation;
 import io.stargate.web.docsapi.service.query.filter.operation.impl.LtFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.impl.NotInFilterOperation;
 import io.stargate.web.docsapi.service.query.search.resolver.filter.impl.InMemoryCandidatesFilter;
 import io.stargate.web.docsapi.service.query.search.resolver.filter.impl.PersistenceCandidatesFilter;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.AllFiltersResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.InMemoryDocumentsResolver;
 import io.stargate.web.docsapi.service.query.search.resolver.impl.PersistenceDocumentsResolver;
+import io.stargate.web.docsapi.service.query.search.resolver.impl.UnionPersistenceDocumentsResolver;
+import java.util.Arrays;
 import java.util.Collections;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -45,6 +50,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class CnfResolverTest {
 
+  DocsApiConfiguration configuration = DocsApiConfiguration.DEFAULT;
+
   @Nested
   class Resolve {
 
@@ -57,7 +64,8 @@ class CnfResolverTest {
       FilterExpression expression1 = ImmutableFilterExpression.of(filterPath, condition1, 0);
       FilterExpression expression2 = ImmutableFilterExpression.of(filterPath, condition2, 1);
 
-      DocumentsResolver result = CnfResolver.resolve(And.of(expression1, expression2), context);
+      DocumentsResolver result =
+          CnfResolver.resolve(And.of(expression1, expression2), configuration, context);
 
       assertThat(result).isInstanceOf(PersistenceDocumentsResolver.class);
     }
@@ -72,7 +80,7 @@ class CnfResolverTest {
       FilterExpression expression2 = ImmutableFilterExpression.of(filterPath2, condition, 1);
 
       And<FilterExpression> and = And.of(expression1, expression2);
-      DocumentsResolver result = CnfResolver.resolve(and, context);
+      DocumentsResolver result = CnfResolver.resolve(and, configuration, context);
 
       // ensure not reordering
       assertThat(result)
@@ -111,12 +119,12 @@ class CnfResolverTest {
       FilterPath filterPath2 = ImmutableFilterPath.of(Collections.singletonList("a"));
       BaseCondition condition =
           ImmutableGenericCondition.of(
-              InFilterOperation.of(), Collections.singletonList("find-me"), false);
+              InFilterOperation.of(), Arrays.asList("find-me", null), false);
       FilterExpression expression1 = ImmutableFilterExpression.of(filterPath1, condition, 0);
       FilterExpression expression2 = ImmutableFilterExpression.of(filterPath2, condition, 1);
 
       And<FilterExpression> and = And.of(expression1, expression2);
-      DocumentsResolver result = CnfResolver.resolve(and, context);
+      DocumentsResolver result = CnfResolver.resolve(and, configuration, context);
 
       // ensure not reordering
       assertThat(result)
@@ -148,6 +156,115 @@ class CnfResolverTest {
               });
     }
 
+    @Test
+    public void unionExpressionAndMemoryExpression() {
+      ExecutionContext context = ExecutionContext.create(true);
+      FilterPath filterPath1 = ImmutableFilterPath.of(Collections.singletonList("b"));
+      FilterPath filterPath2 = ImmutableFilterPath.of(Collections.singletonList("a"));
+      BaseCondition memoryCondition =
+          ImmutableGenericCondition.of(
+              NotInFilterOperation.of(), Collections.singletonList("find-me"), false);
+      BaseCondition unionCondition =
+          ImmutableGenericCondition.of(
+              InFilterOperation.of(), Arrays.asList("find-me", "or-me"), false);
+      FilterExpression expression1 = ImmutableFilterExpression.of(filterPath1, memoryCondition, 0);
+      FilterExpression expression2 = ImmutableFilterExpression.of(filterPath2, unionCondition, 1);
+
+      And<FilterExpression> and = And.of(expression1, expression2);
+      DocumentsResolver result = CnfResolver.resolve(and, configuration, context);
+
+      // union first, even if given second
+      assertThat(result)
+          .isInstanceOfSatisfying(
+              AllFiltersResolver.class,
+              allOf -> {
+                assertThat(allOf)
+                    .extracting("candidatesResolver")
+                    .isInstanceOfSatisfying(
+                        UnionPersistenceDocumentsResolver.class,
+                        r -> assertThat(r).extracting("resolvers").asList().hasSize(2));
+                assertThat(allOf)
+                    .extracting("candidatesFilters")
+                    .asList()
+                    .singleElement()
+                    .isInstanceOfSatisfying(
+                        InMemoryCandidatesFilter.class,
+                        f -> {
+                          assertThat(f)
+                              .extracting("queryBuilder")
+                              .extracting("filterPath")
+                              .isEqualTo(filterPath1);
+                        });
+              });
+    }
+
+    @Test
+    public void unionExpressionWithNull() {
+      ExecutionContext context = ExecutionContext.create(true);
+      FilterPath filterPath = ImmutableFilterPath.of(Collections.singletonList("field"));
+      BaseCondition condition =
+          ImmutableGenericCondition.of(
+              InFilterOperation.of(), Arrays.asList("find-me", null), false);
+      FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
+
+      DocumentsResolver result = CnfResolver.resolve(And.of(expression), configuration, context);
+
+      assertThat(result).isInstanceOf(InMemoryDocumentsResolver.class);
+    }
+
+    @Test
+    public void unionExpressionOverMaxUnionSize() {
+      ExecutionContext context = ExecutionContext.create(true);
+      FilterPath filterPath = ImmutableFilterPath.of(Collections.singletonList("field"));
+      BaseCondition condition =
+          ImmutableGenericCondition.of(
+              InFilterOperation.of(), Arrays.asList("find-me", "or-me"), false);
+      FilterExpression expression = ImmutableFilterExpression.of(filterPath, condition, 0);
+      DocsApiConfiguration smallUnions =
+          new DocsApiConfiguration() {
+            @Override
+            public int getMaxSearchUnionSize() {
+              return 1;
+            }
+          };
+
+      DocumentsResolver result = CnfResolver.resolve(And.of(expression), smallUnions, context);
+
+      assertThat(result).isInstanceOf(InMemoryDocumentsResolver.class);
+    }
+
+    @Test
+    public void orExpressionAndPersistenceExpression() {
+      ExecutionContext context = ExecutionContext.create(true);
+      FilterPath filterPath1 = ImmutableFilterPath.of(Collections.singletonList("a"));
+      FilterPath filterPath2 = ImmutableFilterPath.of(Collections.singletonList("b"));
+      FilterPath filterPath3 = ImmutableFilterPath.of(Collections.singletonList("c"));
+      BaseCondition condition = ImmutableStringCondition.of(GtFilterOperation.of(), "find-me");
+      FilterExpression expression1 = ImmutableFilterExpression.of(filterPath1, condition, 0);
+      FilterExpression expression2 = ImmutableFilterExpression.of(filterPath2, condition, 1);
+      FilterExpression expression3 = ImmutableFilterExpression.of(filterPath3, condition, 2);
+
+      And<FilterExpression> and = And.of(expression1, Or.of(expression2, expression3));
+      DocumentsResolver result = CnfResolver.resolve(and, configuration, context);
+
+      // or first, as it can not be used to filter the candidates
+      assertThat(result)
+          .isInstanceOfSatisfying(
+              AllFiltersResolver.class,
+              allOf -> {
+                assertThat(allOf)
+                    .extracting("candidatesResolver")
+                    .isInstanceOfSatisfying(
+                        UnionPersistenceDocumentsResolver.class,
+                        r -> assertThat(r).extracting("resolvers").asList().hasSize(2));
+                assertThat(allOf)
+                    .extracting("candidatesFilters")
+                    .asList()
+                    .singleElement()
+                    .isInstanceOf(PersistenceCandidatesFilter.class);
+              });
+    }
+
     @Test
     public void mixed4Expressions() {
       ExecutionContext context = ExecutionContext.create(true);
@@ -166,7 +283,8 @@ class CnfResolverTest {
       FilterExpression expression4 = ImmutableFilterExpression.of(filterPath2, memoryCondition, 3);
 
       DocumentsResolver result =
-          CnfResolver.resolve(And.of(expression1, expression2, expression3, expression4), context);
+          CnfResolver.resolve(
+              And.of(expression1, expression2, expression3, expression4), configuration, context);
 
       // |
       // | -> persistence candidates (1 exp)
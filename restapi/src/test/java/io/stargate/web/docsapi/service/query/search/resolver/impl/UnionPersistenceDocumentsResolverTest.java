@@ -0,0 +1,261 @@
+/*
+ * Copyright The Stargate Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.stargate.web.docsapi.service.query.search.resolver.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.when;
+
+import com.bpodgursky.jbool_expressions.Or;
+import com.datastax.oss.driver.shaded.guava.common.collect.ImmutableMap;
+import io.reactivex.rxjava3.core.Flowable;
+import io.stargate.db.datastore.AbstractDataStoreTest;
+import io.stargate.db.datastore.ValidatingDataStore;
+import io.stargate.db.schema.Schema;
+import io.stargate.db.schema.Table;
+import io.stargate.web.docsapi.DocsApiTestSchemaProvider;
+import io.stargate.web.docsapi.dao.Paginator;
+import io.stargate.web.docsapi.service.DocsApiConfiguration;
+import io.stargate.web.docsapi.service.ExecutionContext;
+import io.stargate.web.docsapi.service.QueryExecutor;
+import io.stargate.web.docsapi.service.RawDocument;
+import io.stargate.web.docsapi.service.query.FilterExpression;
+import io.stargate.web.docsapi.service.query.FilterPath;
+import io.stargate.web.docsapi.service.query.ImmutableFilterExpression;
+import io.stargate.web.docsapi.service.query.ImmutableFilterPath;
+import io.stargate.web.docsapi.service.query.condition.BaseCondition;
+import io.stargate.web.docsapi.service.query.condition.impl.ImmutableGenericCondition;
+import io.stargate.web.docsapi.service.query.condition.impl.ImmutableNumberCondition;
+import io.stargate.web.docsapi.service.query.condition.impl.ImmutableStringCondition;
+import io.stargate.web.docsapi.service.query.filter.operation.impl.EqFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.impl.GteFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.impl.InFilterOperation;
+import io.stargate.web.docsapi.service.query.filter.operation.impl.NotInFilterOperation;
+import io.stargate.web.docsapi.service.query.search.resolver.DocumentsResolver;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UnionPersistenceDocumentsResolverTest extends AbstractDataStoreTest {
+
+  private static final DocsApiTestSchemaProvider SCHEMA_PROVIDER = new DocsApiTestSchemaProvider(8);
+  private static final Table TABLE = SCHEMA_PROVIDER.getTable();
+  private static final String KEYSPACE_NAME = SCHEMA_PROVIDER.getKeyspace().name();
+  private static final String COLLECTION_NAME = SCHEMA_PROVIDER.getTable().name();
+
+  private static final FilterPath FILTER_PATH =
+      ImmutableFilterPath.of(Collections.singleton("field"));
+
+  @Override
+  protected Schema schema() {
+    return SCHEMA_PROVIDER.getSchema();
+  }
+
+  private static FilterExpression expression(BaseCondition condition) {
+    return ImmutableFilterExpression.of(FILTER_PATH, condition, 0);
+  }
+
+  @Nested
+  class Constructor {
+
+    @Test
+    public void notUnionCondition() {
+      BaseCondition condition =
+          ImmutableGenericCondition.of(
+              NotInFilterOperation.of(), Collections.singletonList("query-value"), false);
+
+      Throwable throwable =
+          catchThrowable(
+              () ->
+                  new UnionPersistenceDocumentsResolver(
+                      expression(condition), ExecutionContext.NOOP_CONTEXT));
+
+      assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Nested
+  class GetDocuments {
+
+    @Mock DocsApiConfiguration configuration;
+
+    QueryExecutor queryExecutor;
+
+    ExecutionContext executionContext;
+
+    @BeforeEach
+    public void init() {
+      executionContext = ExecutionContext.create(true);
+      queryExecutor = new QueryExecutor(datastore());
+      when(configuration.getSearchPageSize()).thenReturn(100);
+    }
+
+    @Test
+    public void mergedInKeyOrder() {
+      Paginator paginator = new Paginator(null, 1);
+      BaseCondition condition =
+          ImmutableGenericCondition.of(InFilterOperation.of(), Arrays.asList("a", 1), false);
+
+      ValidatingDataStore.QueryAssert textQueryAssert =
+          withQuery(
+                  TABLE,
+                  "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? ALLOW FILTERING")
+              .withPageSize(configuration.getSearchPageSize())
+              .returning(Arrays.asList(ImmutableMap.of("key", "1"), ImmutableMap.of("key", "3")));
+      ValidatingDataStore.QueryAssert numberQueryAssert =
+          withQuery(
+                  TABLE,
+                  "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND dbl_value = ? ALLOW FILTERING")
+              .withPageSize(configuration.getSearchPageSize())
+              .returning(Arrays.asList(ImmutableMap.of("key", "2"), ImmutableMap.of("key", "3")));
+
+      DocumentsResolver resolver =
+          new UnionPersistenceDocumentsResolver(expression(condition), executionContext);
+      Flowable<RawDocument> result =
+          resolver.getDocuments(
+              queryExecutor, configuration, KEYSPACE_NAME, COLLECTION_NAME, paginator);
+
+      List<RawDocument> documents = result.test().assertComplete().values();
+
+      assertThat(documents).extracting(RawDocument::id).containsExactly("1", "2", "3");
+      // first two have following documents in the union, even if their own query is exhausted
+      assertThat(documents)
+          .extracting(RawDocument::hasPagingState)
+          .containsExactly(true, true, false);
+
+      // one query per value
+      textQueryAssert.assertExecuteCount().isEqualTo(1);
+      numberQueryAssert.assertExecuteCount().isEqualTo(1);
+
+      // execution context
+      assertThat(executionContext.toProfile().nested())
+          .singleElement()
+          .satisfies(
+              nested -> {
+                assertThat(nested.description()).isEqualTo("UNION: field IN [a, 1]");
+                assertThat(nested.nested()).hasSize(2);
+              });
+    }
+
+    @Test
+    public void orMergedInKeyOrder() {
+      Paginator paginator = new Paginator(null, 1);
+      BaseCondition condition1 = ImmutableStringCondition.of(EqFilterOperation.of(), "a");
+      BaseCondition condition2 = ImmutableNumberCondition.of(GteFilterOperation.of(), 1d);
+      Or<FilterExpression> or =
+          Or.of(
+              ImmutableFilterExpression.of(FILTER_PATH, condition1, 0),
+              ImmutableFilterExpression.of(FILTER_PATH, condition2, 1));
+
+      ValidatingDataStore.QueryAssert textQueryAssert =
+          withQuery(
+                  TABLE,
+                  "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? ALLOW FILTERING")
+              .withPageSize(configuration.getSearchPageSize())
+              .returning(Arrays.asList(ImmutableMap.of("key", "2"), ImmutableMap.of("key", "4")));
+      ValidatingDataStore.QueryAssert numberQueryAssert =
+          withQuery(
+                  TABLE,
+                  "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND dbl_value >= ? ALLOW FILTERING")
+              .withPageSize(configuration.getSearchPageSize())
+              .returning(Arrays.asList(ImmutableMap.of("key", "1"), ImmutableMap.of("key", "2")));
+
+      DocumentsResolver resolver = new UnionPersistenceDocumentsResolver(or, executionContext);
+      Flowable<RawDocument> result =
+          resolver.getDocuments(
+              queryExecutor, configuration, KEYSPACE_NAME, COLLECTION_NAME, paginator);
+
+      List<RawDocument> documents = result.test().assertComplete().values();
+
+      assertThat(documents).extracting(RawDocument::id).containsExactly("1", "2", "4");
+      assertThat(documents)
+          .extracting(RawDocument::hasPagingState)
+          .containsExactly(true, true, false);
+
+      // one query per branch
+      textQueryAssert.assertExecuteCount().isEqualTo(1);
+      numberQueryAssert.assertExecuteCount().isEqualTo(1);
+
+      // execution context
+      assertThat(executionContext.toProfile().nested())
+          .singleElement()
+          .satisfies(
+              nested -> {
+                assertThat(nested.description()).isEqualTo("OR: field EQ a OR field GTE 1.0");
+                assertThat(nested.nested()).hasSize(2);
+              });
+    }
+
+    @Test
+    public void singleValue() {
+      Paginator paginator = new Paginator(null, 1);
+      BaseCondition condition =
+          ImmutableGenericCondition.of(InFilterOperation.of(), Arrays.asList("a", "a"), false);
+
+      ValidatingDataStore.QueryAssert queryAssert =
+          withQuery(
+                  TABLE,
+                  "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? ALLOW FILTERING")
+              .withPageSize(configuration.getSearchPageSize())
+              .returning(Collections.singletonList(ImmutableMap.of("key", "1")));
+
+      DocumentsResolver resolver =
+          new UnionPersistenceDocumentsResolver(expression(condition), executionContext);
+      Flowable<RawDocument> result =
+          resolver.getDocuments(
+              queryExecutor, configuration, KEYSPACE_NAME, COLLECTION_NAME, paginator);
+
+      result.test().assertValue(doc -> doc.id().equals("1")).assertComplete();
+
+      queryAssert.assertExecuteCount().isEqualTo(1);
+    }
+
+    @Test
+    public void nothingReturnedFromDataStore() {
+      Paginator paginator = new Paginator(null, 1);
+      BaseCondition condition =
+          ImmutableGenericCondition.of(InFilterOperation.of(), Arrays.asList("a", 1), false);
+
+      withQuery(
+              TABLE,
+              "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND text_value = ? ALLOW FILTERING")
+          .withPageSize(configuration.getSearchPageSize())
+          .returningNothing();
+      withQuery(
+              TABLE,
+              "SELECT key, leaf, WRITETIME(leaf) FROM %s WHERE p0 = ? AND leaf = ? AND p1 = ? AND dbl_value = ? ALLOW FILTERING")
+          .withPageSize(configuration.getSearchPageSize())
+          .returningNothing();
+
+      DocumentsResolver resolver =
+          new UnionPersistenceDocumentsResolver(expression(condition), executionContext);
+      Flowable<RawDocument> result =
+          resolver.getDocuments(
+              queryExecutor, configuration, KEYSPACE_NAME, COLLECTION_NAME, paginator);
+
+      result.test().assertNoValues().assertComplete();
+    }
+  }
+}